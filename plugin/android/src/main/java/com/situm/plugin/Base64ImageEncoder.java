@@ -0,0 +1,214 @@
+package com.situm.plugin;
+
+import android.graphics.Bitmap;
+import android.util.Base64;
+import android.util.Base64OutputStream;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Encodes bitmaps into Base64 strings for JS without intermediate copies.
+ *
+ * The compressor writes straight into a Base64 encoder, which writes into a byte buffer taken from a small pool. The
+ * buffer is sized from the ratio between encoded and decoded size seen in earlier calls with the same format and a
+ * similar image size, so it rarely has to grow. That first buffer is capped at {@link #MAX_INITIAL_BUFFER_SIZE}: a
+ * large floor map grows from there instead of reserving its guessed size before anything is compressed. The only
+ * copy left is the final String handed to the bridge.
+ *
+ * Every call reports its peak transient memory: the buffers held while encoding, including both buffers when one has
+ * to grow, plus the resulting String. The compressor's own native memory is not included.
+ */
+class Base64ImageEncoder {
+
+    static class Result {
+        final String data;
+        final int peakBytes;
+
+        private Result(String data, int peakBytes) {
+            this.data = data;
+            this.peakBytes = peakBytes;
+        }
+
+        /**
+         * {data, peakBytes}, the shape of the image responses.
+         */
+        WritableMap toWritableMap() {
+            WritableMap map = Arguments.createMap();
+            map.putString(SitumMapper.DATA, data);
+            map.putInt(SitumMapper.PEAK_BYTES, peakBytes);
+            return map;
+        }
+    }
+
+    private static final int MAX_POOLED_BUFFERS = 4;
+    // Floor map buffers are not kept, the pool must not pin megabytes between calls.
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final int MIN_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_INITIAL_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final float INITIAL_RATIO = 0.35f;
+    // Icons and floor maps compress very differently, so they keep separate ratios.
+    private static final int LARGE_IMAGE_BYTES = 1024 * 1024;
+
+    private final Deque<byte[]> pool = new ArrayDeque<>();
+    // By format, then small and large images.
+    private final float[][] ratios = new float[Bitmap.CompressFormat.values().length][2];
+
+    private int calls = 0;
+    private int allocations = 0;
+    private int lastPeakBytes = 0;
+    private int maxPeakBytes = 0;
+
+    Base64ImageEncoder() {
+        for (float[] formatRatios : ratios) {
+            Arrays.fill(formatRatios, INITIAL_RATIO);
+        }
+    }
+
+    Result encode(Bitmap bitmap) throws IOException {
+        return encode(bitmap, Bitmap.CompressFormat.PNG, 100);
+    }
+
+    /**
+     * Same output as compressing into a byte array and calling {@link Base64#encodeToString} with
+     * {@link Base64#DEFAULT}.
+     */
+    Result encode(Bitmap bitmap, Bitmap.CompressFormat format, int quality) throws IOException {
+        int decodedSize = bitmap.getByteCount();
+        Sink sink = new Sink(estimate(format, decodedSize));
+        try {
+            OutputStream out = new Base64OutputStream(sink, Base64.DEFAULT);
+            if (!bitmap.compress(format, quality, out)) {
+                throw new IOException("Cannot encode image");
+            }
+            // Closing flushes the last Base64 block and its padding.
+            out.close();
+            String data = new String(sink.buffer, 0, sink.count, StandardCharsets.US_ASCII);
+            // Base64 is ASCII, stored one byte per char since Android 8.
+            int peakBytes = sink.peak + data.length();
+            record(format, decodedSize, sink.count, peakBytes);
+            return new Result(data, peakBytes);
+        } finally {
+            release(sink.buffer);
+        }
+    }
+
+    /**
+     * {calls, allocations, lastPeakBytes, maxPeakBytes, pooledBytes}. Allocations counts the buffers that could not be
+     * taken from the pool.
+     */
+    synchronized WritableMap stats() {
+        int pooledBytes = 0;
+        for (byte[] buffer : pool) {
+            pooledBytes += buffer.length;
+        }
+        WritableMap map = Arguments.createMap();
+        map.putInt(SitumMapper.CALLS, calls);
+        map.putInt(SitumMapper.ALLOCATIONS, allocations);
+        map.putInt(SitumMapper.LAST_PEAK_BYTES, lastPeakBytes);
+        map.putInt(SitumMapper.MAX_PEAK_BYTES, maxPeakBytes);
+        map.putInt(SitumMapper.POOLED_BYTES, pooledBytes);
+        return map;
+    }
+
+    private synchronized int estimate(Bitmap.CompressFormat format, int decodedSize) {
+        // A little headroom, so a result slightly larger than the last ratio does not grow the buffer.
+        long estimate = (long) (decodedSize * ratios[format.ordinal()][sizeClass(decodedSize)] * 1.1f) + 64;
+        return (int) Math.min(MAX_INITIAL_BUFFER_SIZE, estimate);
+    }
+
+    private synchronized void record(Bitmap.CompressFormat format, int decodedSize, int encodedSize, int peakBytes) {
+        if (decodedSize > 0) {
+            ratios[format.ordinal()][sizeClass(decodedSize)] = (float) encodedSize / decodedSize;
+        }
+        calls++;
+        lastPeakBytes = peakBytes;
+        maxPeakBytes = Math.max(maxPeakBytes, peakBytes);
+    }
+
+    private static int sizeClass(int decodedSize) {
+        return decodedSize > LARGE_IMAGE_BYTES ? 1 : 0;
+    }
+
+    /**
+     * The smallest pooled buffer that fits, or a new one.
+     */
+    private synchronized byte[] acquire(int size) {
+        byte[] best = null;
+        for (byte[] buffer : pool) {
+            if (buffer.length >= size && (best == null || buffer.length < best.length)) {
+                best = buffer;
+            }
+        }
+        if (best != null) {
+            pool.remove(best);
+            return best;
+        }
+        allocations++;
+        return new byte[Math.max(size, MIN_BUFFER_SIZE)];
+    }
+
+    /**
+     * Keeps the buffer for later calls, replacing the smallest pooled one when the pool is full.
+     */
+    private synchronized void release(byte[] buffer) {
+        if (buffer.length > MAX_POOLED_BUFFER_SIZE) {
+            return;
+        }
+        if (pool.size() >= MAX_POOLED_BUFFERS) {
+            byte[] smallest = null;
+            for (byte[] pooled : pool) {
+                if (smallest == null || pooled.length < smallest.length) {
+                    smallest = pooled;
+                }
+            }
+            if (smallest == null || smallest.length >= buffer.length) {
+                return;
+            }
+            pool.remove(smallest);
+        }
+        pool.push(buffer);
+    }
+
+    private class Sink extends OutputStream {
+        byte[] buffer;
+        int count = 0;
+        int peak;
+
+        Sink(int capacity) {
+            buffer = acquire(capacity);
+            peak = buffer.length;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size <= buffer.length) {
+                return;
+            }
+            byte[] grown = acquire(Math.max(size, buffer.length * 2));
+            System.arraycopy(buffer, 0, grown, 0, count);
+            peak = Math.max(peak, buffer.length + grown.length);
+            release(buffer);
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.situm.plugin;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.situm.plugin.utils.BinaryMapFormat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+
+/**
+ * Persists mapped building info payloads in app storage, so a known building can be returned on cold start without
+ * waiting for the SDK.
+ *
+ * Each building is stored in its own file: a small header, holding the content fingerprint computed by
+ * {@link RevalidationCache}, followed by the {@link BinaryMapFormat} payload. Files are read through a memory mapping
+ * and written in the background, one at a time on the given serial executor, replacing the previous snapshot
+ * atomically.
+ */
+class BuildingInfoSnapshotStore {
+
+    private static final String TAG = "BuildingInfoSnapshotStore";
+    // "SSNP"
+    private static final int MAGIC = 0x53534e50;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+
+    static class Snapshot {
+        final WritableMap buildingInfo;
+        final long fingerprint;
+
+        Snapshot(WritableMap buildingInfo, long fingerprint) {
+            this.buildingInfo = buildingInfo;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final File directory;
+    private final Executor writer;
+
+    BuildingInfoSnapshotStore(File directory, Executor writer) {
+        this.directory = directory;
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the stored building info, or null when there is no usable snapshot for the building.
+     */
+    Snapshot read(String buildingIdentifier) {
+        File file = fileFor(buildingIdentifier);
+        if (!file.exists()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                file.delete();
+                return null;
+            }
+            long fingerprint = buffer.getLong();
+            return new Snapshot(BinaryMapFormat.read(buffer), fingerprint);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Discarding unreadable building info snapshot " + file, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the building info in the background. The map is read from the writer, so pass a copy nobody
+     * else touches.
+     */
+    void write(String buildingIdentifier, ReadableMap buildingInfo, long fingerprint) {
+        writer.execute(() -> {
+            File file = fileFor(buildingIdentifier);
+            File tmp = new File(directory, file.getName() + ".tmp");
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Cannot create " + directory);
+                }
+                byte[] payload = BinaryMapFormat.write(buildingInfo);
+                try (FileOutputStream out = new FileOutputStream(tmp)) {
+                    out.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(fingerprint).array());
+                    out.write(payload);
+                    out.getFD().sync();
+                }
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Cannot replace " + file);
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not store building info snapshot for " + buildingIdentifier, e);
+                tmp.delete();
+            }
+        });
+    }
+
+    /**
+     * Deletes every stored snapshot. Runs on the writer, after any pending write.
+     */
+    void clear() {
+        writer.execute(() -> {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private File fileFor(String buildingIdentifier) {
+        return new File(directory, buildingIdentifier.replaceAll("[^A-Za-z0-9_-]", "_") + ".bin");
+    }
+}
@@ -0,0 +1,99 @@
+package com.situm.plugin;
+
+import android.util.LruCache;
+
+import com.facebook.react.bridge.WritableMap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Date;
+
+import es.situm.sdk.model.cartography.Building;
+import es.situm.sdk.model.cartography.Floor;
+import es.situm.sdk.model.cartography.Geofence;
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.model.cartography.PoiCategory;
+
+import static com.situm.plugin.utils.ReactNativeUtils.convertJsonToMap;
+
+/**
+ * Keeps the mapped form of buildings, floors, POIs and geofences, so fetching the same cartography again does not
+ * run SitumMapper and the JSON to bridge conversion for every entity.
+ *
+ * Entries are keyed by entity type and identifier, and are rebuilt whenever the entity's updatedAt changes. A POI
+ * embeds its category, so its entry is also rebuilt when the category identifier or updatedAt changes. Bridge maps are
+ * consumed once they are sent to JS, so the cached map is only a template: every lookup returns a copy.
+ */
+class CartographyCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 2000;
+
+    private interface Mapper<T> {
+        JSONObject map(T entity) throws JSONException;
+    }
+
+    private static class Entry {
+        final String version;
+        final WritableMap template;
+
+        Entry(String version, WritableMap template) {
+            this.version = version;
+            this.template = template;
+        }
+    }
+
+    private final LruCache<String, Entry> entries;
+
+    CartographyCache(int maxEntries) {
+        entries = new LruCache<>(Math.max(1, maxEntries));
+    }
+
+    WritableMap building(Building building) throws JSONException {
+        return lookup("building:", building.getIdentifier(), version(building.getUpdatedAt()), building,
+                SitumMapper::buildingToJsonObject);
+    }
+
+    WritableMap floor(Floor floor) throws JSONException {
+        return lookup("floor:", floor.getIdentifier(), version(floor.getUpdatedAt()), floor,
+                SitumMapper::floorToJsonObject);
+    }
+
+    WritableMap poi(Poi poi) throws JSONException {
+        String version = version(poi.getUpdatedAt());
+        PoiCategory category = poi.getCategory();
+        if (version != null && category != null) {
+            String categoryVersion = version(category.getUpdatedAt());
+            version = categoryVersion != null ? version + ":" + category.getIdentifier() + ":" + categoryVersion : null;
+        }
+        return lookup("poi:", poi.getIdentifier(), version, poi, SitumMapper::poiToJsonObject);
+    }
+
+    WritableMap geofence(Geofence geofence) throws JSONException {
+        return lookup("geofence:", geofence.getIdentifier(), version(geofence.getUpdatedAt()), geofence,
+                SitumMapper::geofenceToJsonObject);
+    }
+
+    void clear() {
+        entries.evictAll();
+    }
+
+    private <T> WritableMap lookup(String type, String identifier, String version, T entity, Mapper<T> mapper)
+            throws JSONException {
+        if (identifier == null || version == null) {
+            // Nothing to validate a cached copy against.
+            return convertJsonToMap(mapper.map(entity));
+        }
+        String key = type + identifier;
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.version.equals(version)) {
+            entry = new Entry(version, convertJsonToMap(mapper.map(entity)));
+            entries.put(key, entry);
+        }
+        return entry.template.copy();
+    }
+
+    private static String version(Date updatedAt) {
+        return updatedAt != null ? String.valueOf(updatedAt.getTime()) : null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.situm.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import es.situm.sdk.model.cartography.Floor;
+import es.situm.sdk.model.cartography.Geofence;
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.v1.SitumEvent;
+
+/**
+ * Remembers the identifier and version of every entity seen per building and entity type, and tells which ones were
+ * added, changed or removed since the previous fetch. The version is the updatedAt of the entity, combined with the
+ * one of its category for POIs.
+ */
+class CartographyDiffer {
+
+    interface Versioned<T> {
+        String identifier(T entity);
+
+        /**
+         * Returns 0 when the entity has no updatedAt.
+         */
+        long version(T entity);
+    }
+
+    static final Versioned<Floor> FLOORS = new Versioned<Floor>() {
+        @Override
+        public String identifier(Floor floor) {
+            return floor.getIdentifier();
+        }
+
+        @Override
+        public long version(Floor floor) {
+            return time(floor.getUpdatedAt());
+        }
+    };
+
+    static final Versioned<Poi> POIS = new Versioned<Poi>() {
+        @Override
+        public String identifier(Poi poi) {
+            return poi.getIdentifier();
+        }
+
+        @Override
+        public long version(Poi poi) {
+            // A POI moved to another category, or whose category was edited, is changed too.
+            return poi.getUpdatedAt() != null ? RevalidationCache.combine(17, poi) : 0;
+        }
+    };
+
+    static final Versioned<Geofence> GEOFENCES = new Versioned<Geofence>() {
+        @Override
+        public String identifier(Geofence geofence) {
+            return geofence.getIdentifier();
+        }
+
+        @Override
+        public long version(Geofence geofence) {
+            return time(geofence.getUpdatedAt());
+        }
+    };
+
+    // Events are identified in JS by their numeric id, see SitumMapper.situmEventToJsonObject.
+    static final Versioned<SitumEvent> EVENTS = new Versioned<SitumEvent>() {
+        @Override
+        public String identifier(SitumEvent event) {
+            return String.valueOf(event.getId());
+        }
+
+        @Override
+        public long version(SitumEvent event) {
+            return time(event.getUpdatedAt());
+        }
+    };
+
+    static class Diff<T> {
+        final List<T> added = new ArrayList<>();
+        final List<T> changed = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+
+        boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final Map<String, Map<String, Long>> versions = new HashMap<>();
+
+    /**
+     * Compares the entities with the ones recorded for this building and type, and records them. Returns null the
+     * first time, when there is nothing to compare with.
+     */
+    synchronized <T> Diff<T> diff(String buildingId, String type, Collection<T> entities, Versioned<T> versioned) {
+        Map<String, Long> current = new HashMap<>();
+        for (T entity : entities) {
+            current.put(versioned.identifier(entity), versioned.version(entity));
+        }
+        Map<String, Long> previous = versions.put(buildingId + ":" + type, current);
+        if (previous == null) {
+            return null;
+        }
+
+        Diff<T> diff = new Diff<>();
+        for (T entity : entities) {
+            Long before = previous.get(versioned.identifier(entity));
+            if (before == null) {
+                diff.added.add(entity);
+            } else if (!before.equals(current.get(versioned.identifier(entity))) || before == 0) {
+                // Without updatedAt there is no telling, so the entity is reported as changed.
+                diff.changed.add(entity);
+            }
+        }
+        for (String identifier : previous.keySet()) {
+            if (!current.containsKey(identifier)) {
+                diff.removed.add(identifier);
+            }
+        }
+        return diff;
+    }
+
+    synchronized void clear() {
+        versions.clear();
+    }
+
+    private static long time(Date date) {
+        return date != null ? date.getTime() : 0;
+    }
+}
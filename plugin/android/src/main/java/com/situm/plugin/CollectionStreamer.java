@@ -0,0 +1,116 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+import static com.situm.plugin.SitumPlugin.EVENT_COLLECTION_CHUNK;
+import static com.situm.plugin.SitumPlugin.EVENT_COLLECTION_ERROR;
+
+/**
+ * Delivers large cartography collections to JS as a sequence of collectionChunk events, so JS can start rendering
+ * early and no single payload has to hold the whole collection.
+ *
+ * Every chunk carries the JS request id, the collection type, its index and its items. The last chunk (possibly
+ * empty) is flagged with {@code last: true}. Chunks are mapped and emitted one per task on the given executor, so
+ * concurrent streams interleave instead of waiting for each other.
+ */
+class CollectionStreamer {
+
+    static final int DEFAULT_CHUNK_SIZE = 200;
+
+    interface ItemMapper<T> {
+        WritableMap map(T item) throws Exception;
+    }
+
+    private final Executor executor;
+
+    CollectionStreamer(Executor executor) {
+        this.executor = executor;
+    }
+
+    Request request(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, String requestId, String type,
+                    int chunkSize) {
+        return new Request(eventEmitter, requestId, type, chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * One streaming request from JS.
+     */
+    class Request {
+        private final DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter;
+        private final String requestId;
+        private final String type;
+        private final int chunkSize;
+
+        private Request(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, String requestId, String type,
+                        int chunkSize) {
+            this.eventEmitter = eventEmitter;
+            this.requestId = requestId;
+            this.type = type;
+            this.chunkSize = chunkSize;
+        }
+
+        <T> void stream(Collection<T> items, ItemMapper<T> mapper) {
+            executor.execute(new ChunkTask<>(this, items.iterator(), mapper));
+        }
+
+        void fail(String message) {
+            WritableMap error = Arguments.createMap();
+            error.putString(SitumMapper.REQUEST_ID, requestId);
+            error.putString(SitumMapper.COLLECTION_TYPE, type);
+            error.putString(SitumMapper.ERROR_MESSAGE, message);
+            eventEmitter.emit(EVENT_COLLECTION_ERROR, error);
+        }
+
+        /**
+         * Adapts {@link #fail(String)} to the error callback taken by the fetch helpers.
+         */
+        Callback errorCallback() {
+            return args -> fail(args.length > 0 ? String.valueOf(args[0]) : null);
+        }
+    }
+
+    private class ChunkTask<T> implements Runnable {
+        private final Request request;
+        private final Iterator<T> iterator;
+        private final ItemMapper<T> mapper;
+        private int index = 0;
+
+        ChunkTask(Request request, Iterator<T> iterator, ItemMapper<T> mapper) {
+            this.request = request;
+            this.iterator = iterator;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void run() {
+            WritableArray items = Arguments.createArray();
+            try {
+                for (int i = 0; i < request.chunkSize && iterator.hasNext(); i++) {
+                    items.pushMap(mapper.map(iterator.next()));
+                }
+            } catch (Exception e) {
+                request.fail(e.getMessage());
+                return;
+            }
+            boolean last = !iterator.hasNext();
+            WritableMap chunk = Arguments.createMap();
+            chunk.putString(SitumMapper.REQUEST_ID, request.requestId);
+            chunk.putString(SitumMapper.COLLECTION_TYPE, request.type);
+            chunk.putInt(SitumMapper.CHUNK_INDEX, index++);
+            chunk.putArray(SitumMapper.ITEMS, items);
+            chunk.putBoolean(SitumMapper.LAST, last);
+            request.eventEmitter.emit(EVENT_COLLECTION_CHUNK, chunk);
+            if (!last) {
+                executor.execute(this);
+            }
+        }
+    }
+}
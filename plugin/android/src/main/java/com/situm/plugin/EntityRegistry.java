@@ -0,0 +1,70 @@
+package com.situm.plugin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import es.situm.sdk.model.cartography.Building;
+import es.situm.sdk.model.cartography.Floor;
+import es.situm.sdk.model.cartography.PoiCategory;
+
+/**
+ * Native copies of the cartography already sent to JS, indexed by identifier. JS can then refer to a building, floor
+ * or category by its identifier instead of sending the whole object back, which spares the bridge payload and
+ * the SitumMapper reparse on every call.
+ *
+ * Entries are replaced whenever a fetch returns the entity again and dropped on invalidateCache.
+ */
+class EntityRegistry {
+
+    private final Map<String, Building> buildings = new ConcurrentHashMap<>();
+    private final Map<String, Floor> floors = new ConcurrentHashMap<>();
+    // Categories are looked up by code, the identifier used everywhere else in the plugin API.
+    private final Map<String, PoiCategory> categories = new ConcurrentHashMap<>();
+
+    void putBuilding(Building building) {
+        if (building != null && building.getIdentifier() != null) {
+            buildings.put(building.getIdentifier(), building);
+        }
+    }
+
+    void putBuildings(Collection<Building> buildings) {
+        for (Building building : buildings) {
+            putBuilding(building);
+        }
+    }
+
+    void putFloors(Collection<Floor> floors) {
+        for (Floor floor : floors) {
+            if (floor.getIdentifier() != null) {
+                this.floors.put(floor.getIdentifier(), floor);
+            }
+        }
+    }
+
+    void putCategories(Collection<PoiCategory> categories) {
+        for (PoiCategory category : categories) {
+            if (category.getCode() != null) {
+                this.categories.put(category.getCode(), category);
+            }
+        }
+    }
+
+    Building building(String identifier) {
+        return identifier != null ? buildings.get(identifier) : null;
+    }
+
+    Floor floor(String identifier) {
+        return identifier != null ? floors.get(identifier) : null;
+    }
+
+    PoiCategory category(String code) {
+        return code != null ? categories.get(code) : null;
+    }
+
+    void clear() {
+        buildings.clear();
+        floors.clear();
+        categories.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.ReadableArray;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of top-level keys JS wants in an emitted payload. Mappers check {@link #includes(String)} before building each
+ * field, so excluded sub-objects are never allocated.
+ */
+class FieldMask {
+
+    static final FieldMask ALL = new FieldMask(null);
+
+    // null means every field is included.
+    private final Set<String> fields;
+
+    private FieldMask(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Builds a mask from a JS array of field names. A null or empty array selects every field.
+     */
+    static FieldMask fromArray(ReadableArray array) {
+        if (array == null || array.size() == 0) {
+            return ALL;
+        }
+        Set<String> fields = new HashSet<>();
+        for (int i = 0; i < array.size(); i++) {
+            String field = array.getString(i);
+            if (field != null) {
+                fields.add(field);
+            }
+        }
+        return new FieldMask(Collections.unmodifiableSet(fields));
+    }
+
+    /**
+     * Returns a mask that also includes the given fields.
+     */
+    FieldMask with(String... extra) {
+        if (fields == null || fields.containsAll(Arrays.asList(extra))) {
+            return this;
+        }
+        Set<String> extended = new HashSet<>(fields);
+        Collections.addAll(extended, extra);
+        return new FieldMask(Collections.unmodifiableSet(extended));
+    }
+
+    boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Keeps the included entries of a map built elsewhere, such as an SDK model's toMap(), so the excluded ones are
+     * not converted for the bridge.
+     */
+    Map<String, Object> apply(Map<String, Object> map) {
+        if (fields == null) {
+            return map;
+        }
+        Map<String, Object> masked = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (fields.contains(entry.getKey())) {
+                masked.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return masked;
+    }
+
+    boolean isAll() {
+        return fields == null;
+    }
+}
@@ -0,0 +1,190 @@
+package com.situm.plugin;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * Floor maps cut into a tile pyramid on disk, so a viewer only loads the tiles it shows.
+ *
+ * The highest zoom level holds the map at full resolution and every level below halves it, down to level 0 where the
+ * whole map fits in one tile. Tiles are square PNG files of {@link #TILE_SIZE} pixels, except for the right and bottom
+ * edges. The pyramid of a floor map is generated once, in the background on the given serial executor, into a
+ * directory named after the content key of the map. Its metadata file is written last and marks the pyramid as complete.
+ */
+class FloorTileStore {
+
+    static final int TILE_SIZE = 256;
+
+    private static final String TAG = "FloorTileStore";
+    private static final String METADATA = "pyramid";
+
+    static class Pyramid {
+        final String key;
+        final int width;
+        final int height;
+        final int maxZoom;
+
+        Pyramid(String key, int width, int height, int maxZoom) {
+            this.key = key;
+            this.width = width;
+            this.height = height;
+            this.maxZoom = maxZoom;
+        }
+    }
+
+    private final File directory;
+    private final Executor generator;
+
+    FloorTileStore(File directory, Executor generator) {
+        this.directory = directory;
+        this.generator = generator;
+    }
+
+    /**
+     * Returns the complete pyramid stored for the key, or null.
+     */
+    Pyramid find(String key) {
+        File metadata = new File(new File(directory, key), METADATA);
+        if (!metadata.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(metadata))) {
+            return new Pyramid(key, in.readInt(), in.readInt(), in.readInt());
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable tile pyramid " + key, e);
+            metadata.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Cuts the bitmap into a pyramid in the background, then answers with the pyramid metadata map.
+     */
+    void generate(String key, Bitmap bitmap, Callback success, Callback error) {
+        generator.execute(() -> {
+            File pyramidDirectory = new File(directory, key);
+            try {
+                if (!pyramidDirectory.isDirectory() && !pyramidDirectory.mkdirs()) {
+                    throw new IOException("Cannot create " + pyramidDirectory);
+                }
+                int width = bitmap.getWidth();
+                int height = bitmap.getHeight();
+                int maxZoom = 0;
+                while ((Math.max(width, height) - 1) >> maxZoom >= TILE_SIZE) {
+                    maxZoom++;
+                }
+
+                // Each level is halved from the one above, so at most two levels are in memory at once.
+                Bitmap level = bitmap;
+                for (int z = maxZoom; z >= 0; z--) {
+                    if (z < maxZoom) {
+                        Bitmap previous = level;
+                        level = Bitmap.createScaledBitmap(previous, Math.max(1, (previous.getWidth() + 1) / 2),
+                                Math.max(1, (previous.getHeight() + 1) / 2), true);
+                        if (previous != bitmap) {
+                            previous.recycle();
+                        }
+                    }
+                    writeLevel(pyramidDirectory, z, level);
+                }
+                if (level != bitmap) {
+                    level.recycle();
+                }
+
+                try (DataOutputStream out = new DataOutputStream(
+                        new FileOutputStream(new File(pyramidDirectory, METADATA)))) {
+                    out.writeInt(width);
+                    out.writeInt(height);
+                    out.writeInt(maxZoom);
+                }
+                success.invoke(toWritableMap(new Pyramid(key, width, height, maxZoom)));
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not generate tile pyramid " + key, e);
+                error.invoke(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * The file of a tile, or null when the pyramid has no such tile.
+     */
+    File tile(Pyramid pyramid, int z, int x, int y) {
+        if (z < 0 || z > pyramid.maxZoom || x < 0 || y < 0) {
+            return null;
+        }
+        File file = tileFile(new File(directory, pyramid.key), z, x, y);
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Deletes every stored pyramid. Runs on the generator, after any pending generation.
+     */
+    void clear() {
+        generator.execute(() -> delete(directory));
+    }
+
+    static Pyramid fromReadableMap(ReadableMap map) {
+        return new Pyramid(map.getString(SitumMapper.KEY), map.getInt(SitumMapper.WIDTH),
+                map.getInt(SitumMapper.HEIGHT), map.getInt(SitumMapper.MAX_ZOOM));
+    }
+
+    static WritableMap toWritableMap(Pyramid pyramid) {
+        WritableMap map = Arguments.createMap();
+        map.putString(SitumMapper.KEY, pyramid.key);
+        map.putInt(SitumMapper.WIDTH, pyramid.width);
+        map.putInt(SitumMapper.HEIGHT, pyramid.height);
+        map.putInt(SitumMapper.MAX_ZOOM, pyramid.maxZoom);
+        map.putInt(SitumMapper.TILE_SIZE, TILE_SIZE);
+        return map;
+    }
+
+    private static void writeLevel(File pyramidDirectory, int z, Bitmap level) throws IOException {
+        for (int y = 0; y * TILE_SIZE < level.getHeight(); y++) {
+            for (int x = 0; x * TILE_SIZE < level.getWidth(); x++) {
+                int left = x * TILE_SIZE;
+                int top = y * TILE_SIZE;
+                Bitmap tile = Bitmap.createBitmap(level, left, top, Math.min(TILE_SIZE, level.getWidth() - left),
+                        Math.min(TILE_SIZE, level.getHeight() - top));
+                try (OutputStream out = new BufferedOutputStream(
+                        new FileOutputStream(tileFile(pyramidDirectory, z, x, y)))) {
+                    if (!tile.compress(Bitmap.CompressFormat.PNG, 100, out)) {
+                        throw new IOException("Cannot encode tile " + z + "/" + x + "/" + y);
+                    }
+                } finally {
+                    if (tile != level) {
+                        tile.recycle();
+                    }
+                }
+            }
+        }
+    }
+
+    private static File tileFile(File pyramidDirectory, int z, int x, int y) {
+        return new File(pyramidDirectory, z + "_" + x + "_" + y + ".png");
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,95 @@
+package com.situm.plugin;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import org.json.JSONObject;
+
+/**
+ * How an image is downscaled and encoded before it is sent to JS: {format, quality, maxSize} from the image fetch
+ * options.
+ *
+ * Formats are "png" (the default), "webp" (lossless), "webpLossy" and "jpeg". Quality (0-100) only applies to the lossy
+ * ones. maxSize bounds the longest side in pixels, keeping the aspect ratio. Images are never upscaled.
+ */
+class ImageEncoding {
+
+    static final String PNG = "png";
+    static final String WEBP = "webp";
+    static final String WEBP_LOSSY = "webpLossy";
+    static final String JPEG = "jpeg";
+
+    static final ImageEncoding DEFAULT = new ImageEncoding(PNG, 100, 0);
+
+    private static final int DEFAULT_QUALITY = 90;
+
+    final String format;
+    final int quality;
+    final int maxSize;
+
+    private ImageEncoding(String format, int quality, int maxSize) {
+        this.format = format;
+        this.quality = quality;
+        this.maxSize = maxSize;
+    }
+
+    static ImageEncoding fromJson(JSONObject options) {
+        String format = options.optString(SitumMapper.FORMAT, PNG);
+        if (!PNG.equals(format) && !WEBP.equals(format) && !WEBP_LOSSY.equals(format) && !JPEG.equals(format)) {
+            throw new IllegalArgumentException("Unsupported image format " + format);
+        }
+        boolean lossy = WEBP_LOSSY.equals(format) || JPEG.equals(format);
+        int quality = lossy ? Math.max(0, Math.min(100, options.optInt(SitumMapper.QUALITY, DEFAULT_QUALITY))) : 100;
+        return new ImageEncoding(format, quality, Math.max(0, options.optInt(SitumMapper.MAX_SIZE, 0)));
+    }
+
+    /**
+     * Before Android 11 there is a single WEBP format, lossless only from Android 10 and only at quality 100.
+     */
+    @SuppressWarnings("deprecation")
+    Bitmap.CompressFormat compressFormat() {
+        switch (format) {
+            case JPEG:
+                return Bitmap.CompressFormat.JPEG;
+            case WEBP:
+                return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                        ? Bitmap.CompressFormat.WEBP_LOSSLESS : Bitmap.CompressFormat.WEBP;
+            case WEBP_LOSSY:
+                return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                        ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+            default:
+                return Bitmap.CompressFormat.PNG;
+        }
+    }
+
+    String extension() {
+        switch (format) {
+            case JPEG:
+                return ".jpg";
+            case WEBP:
+            case WEBP_LOSSY:
+                return ".webp";
+            default:
+                return ".png";
+        }
+    }
+
+    /**
+     * The bitmap shrunk to fit maxSize, or the bitmap itself when it already fits.
+     */
+    Bitmap scale(Bitmap bitmap) {
+        int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (maxSize <= 0 || longest <= maxSize) {
+            return bitmap;
+        }
+        float ratio = (float) maxSize / longest;
+        return Bitmap.createScaledBitmap(bitmap,
+                Math.max(1, Math.round(bitmap.getWidth() * ratio)),
+                Math.max(1, Math.round(bitmap.getHeight() * ratio)), true);
+    }
+
+    @Override
+    public String toString() {
+        return format + "/" + quality + "/" + maxSize;
+    }
+}
@@ -0,0 +1,152 @@
+package com.situm.plugin;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executor;
+
+/**
+ * Floor maps and POI category icons encoded once into the app cache directory, so they reach JS as a file URI instead
+ * of a Base64 string.
+ *
+ * Files are named after a hash of what identifies their content (source URL, updatedAt, encoding), so a later request
+ * for the same image is answered from disk and identical images share one file. Encoding and writing happen in the
+ * background, one image at a time, on the given serial executor.
+ */
+class ImageFileStore {
+
+    private static final String TAG = "ImageFileStore";
+
+    private final File directory;
+    private final Executor writer;
+
+    ImageFileStore(File directory, Executor writer) {
+        this.directory = directory;
+        this.writer = writer;
+    }
+
+    /**
+     * Content key built from the given parts, null parts included.
+     */
+    static String key(Object... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (Object part : parts) {
+            builder.append(part).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android release ships SHA-1.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns {uri, width, height} for a stored image, or null when there is none for the key.
+     */
+    WritableMap find(String key, ImageEncoding encoding) {
+        File file = fileFor(key, encoding);
+        if (!file.isFile()) {
+            return null;
+        }
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            file.delete();
+            return null;
+        }
+        return toWritableMap(file, bounds.outWidth, bounds.outHeight);
+    }
+
+    /**
+     * Downscales, encodes and stores the bitmap in the background, then answers with {uri, width, height}.
+     */
+    void write(String key, Bitmap bitmap, ImageEncoding encoding, Callback success, Callback error) {
+        writer.execute(() -> {
+            File file = fileFor(key, encoding);
+            File tmp = new File(directory, file.getName() + ".tmp");
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Cannot create " + directory);
+                }
+                Bitmap scaled = encoding.scale(bitmap);
+                // Read before the scaled copy is recycled.
+                int width = scaled.getWidth();
+                int height = scaled.getHeight();
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                    if (!scaled.compress(encoding.compressFormat(), encoding.quality, out)) {
+                        throw new IOException("Cannot encode image");
+                    }
+                } finally {
+                    // The source bitmap may be cached by the SDK, only the scaled copy is ours.
+                    if (scaled != bitmap) {
+                        scaled.recycle();
+                    }
+                }
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Cannot replace " + file);
+                }
+                success.invoke(toWritableMap(file, width, height));
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not store image " + key, e);
+                tmp.delete();
+                error.invoke(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Size in bytes of the file behind a {uri, width, height} map, 0 when it is gone.
+     */
+    static long size(ReadableMap image) {
+        String uri = image.getString(SitumMapper.URI);
+        return uri != null && uri.startsWith("file://") ? new File(uri.substring("file://".length())).length() : 0;
+    }
+
+    /**
+     * Deletes every stored image. Runs on the writer, after any pending write.
+     */
+    void clear() {
+        writer.execute(() -> {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private File fileFor(String key, ImageEncoding encoding) {
+        return new File(directory, key + encoding.extension());
+    }
+
+    private static WritableMap toWritableMap(File file, int width, int height) {
+        WritableMap map = Arguments.createMap();
+        map.putString(SitumMapper.URI, "file://" + file.getAbsolutePath());
+        map.putInt(SitumMapper.WIDTH, width);
+        map.putInt(SitumMapper.HEIGHT, height);
+        return map;
+    }
+}
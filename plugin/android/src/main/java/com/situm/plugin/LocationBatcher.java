@@ -0,0 +1,73 @@
+package com.situm.plugin;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import es.situm.sdk.model.location.Location;
+
+/**
+ * Accumulates locations natively and hands them over in batches, so consumers that don't need every fix (trip
+ * logging, analytics) pay one bridge crossing per batch instead of one per location.
+ *
+ * A batch is flushed when it reaches {@code batchSize} entries, when {@code batchInterval} ms have passed since its
+ * first entry, or when {@link #flush()} is called explicitly (lifecycle changes, stop).
+ */
+class LocationBatcher {
+
+    interface Emitter {
+        void emit(List<Location> locations);
+    }
+
+    private final int batchSize;
+    private final long batchInterval;
+    private final Emitter emitter;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private List<Location> batch = new ArrayList<>();
+
+    LocationBatcher(int batchSize, long batchInterval, Emitter emitter) {
+        this.batchSize = Math.max(0, batchSize);
+        this.batchInterval = Math.max(0, batchInterval);
+        this.emitter = emitter;
+    }
+
+    static boolean isEnabled(int batchSize, long batchInterval) {
+        return batchSize > 1 || batchInterval > 0;
+    }
+
+    void add(Location location) {
+        boolean full;
+        synchronized (this) {
+            batch.add(location);
+            if (batch.size() == 1 && batchInterval > 0) {
+                handler.postDelayed(flushRunnable, batchInterval);
+            }
+            full = batchSize > 0 && batch.size() >= batchSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    void flush() {
+        List<Location> toEmit;
+        synchronized (this) {
+            handler.removeCallbacks(flushRunnable);
+            if (batch.isEmpty()) {
+                return;
+            }
+            toEmit = batch;
+            batch = new ArrayList<>(Math.max(batchSize, 10));
+        }
+        emitter.emit(toEmit);
+    }
+
+    synchronized void cancel() {
+        handler.removeCallbacks(flushRunnable);
+        batch.clear();
+    }
+}
@@ -0,0 +1,109 @@
+package com.situm.plugin;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.situm.plugin.utils.LocationUtils;
+
+import es.situm.sdk.model.location.Location;
+
+/**
+ * Decides which SDK fixes are forwarded to JS as locationChanged events.
+ *
+ * Fixes are first filtered against the last emitted location: unless they changed floor, moved at least
+ * {@code minDisplacement} meters or turned at least {@code minBearingChange} degrees they are dropped. Accepted fixes
+ * are then rate limited to one emission every {@code minInterval} ms. Fixes arriving inside that window are
+ * coalesced, and only the latest one is emitted when the window closes.
+ */
+class LocationEmissionScheduler {
+
+    interface Emitter {
+        void emit(Location location);
+    }
+
+    private final long minInterval;
+    private final double minDisplacement;
+    private final double minBearingChange;
+    private final Emitter emitter;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private Location lastEmitted;
+    private long lastEmitTime;
+    private Location pending;
+
+    LocationEmissionScheduler(double maxEmitRate, double minDisplacement, double minBearingChange, Emitter emitter) {
+        this.minInterval = maxEmitRate > 0 ? (long) (1000 / maxEmitRate) : 0;
+        this.minDisplacement = Math.max(0, minDisplacement);
+        this.minBearingChange = Math.max(0, minBearingChange);
+        this.emitter = emitter;
+    }
+
+    /**
+     * Returns true when any of the options asks for native-side scheduling. Otherwise fixes can be emitted directly.
+     */
+    static boolean isEnabled(double maxEmitRate, double minDisplacement, double minBearingChange) {
+        return maxEmitRate > 0 || minDisplacement > 0 || minBearingChange > 0;
+    }
+
+    void submit(Location location) {
+        Location toEmit;
+        synchronized (this) {
+            if (lastEmitted != null && !isSignificant(lastEmitted, location)) {
+                // The newest fix is back near what JS already has: anything pending is stale.
+                pending = null;
+                handler.removeCallbacks(flushRunnable);
+                return;
+            }
+            long now = SystemClock.elapsedRealtime();
+            long wait = lastEmitted == null ? 0 : lastEmitTime + minInterval - now;
+            if (wait > 0) {
+                if (pending == null) {
+                    handler.postDelayed(flushRunnable, wait);
+                }
+                pending = location;
+                return;
+            }
+            toEmit = markEmitted(location, now);
+        }
+        emitter.emit(toEmit);
+    }
+
+    synchronized void cancel() {
+        pending = null;
+        lastEmitted = null;
+        handler.removeCallbacks(flushRunnable);
+    }
+
+    private void flush() {
+        Location toEmit;
+        synchronized (this) {
+            if (pending == null) {
+                return;
+            }
+            toEmit = markEmitted(pending, SystemClock.elapsedRealtime());
+            pending = null;
+        }
+        emitter.emit(toEmit);
+    }
+
+    private Location markEmitted(Location location, long now) {
+        lastEmitted = location;
+        lastEmitTime = now;
+        return location;
+    }
+
+    private boolean isSignificant(Location previous, Location current) {
+        if (minDisplacement == 0 && minBearingChange == 0) {
+            return true;
+        }
+        if (!LocationUtils.sameFloor(previous, current)) {
+            return true;
+        }
+        if (minDisplacement > 0 && LocationUtils.distance(previous, current) >= minDisplacement) {
+            return true;
+        }
+        return minBearingChange > 0 && LocationUtils.bearingChange(previous, current) >= minBearingChange;
+    }
+}
@@ -0,0 +1,74 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.List;
+
+import es.situm.sdk.model.directions.Indication;
+import es.situm.sdk.model.directions.Route;
+import es.situm.sdk.model.navigation.NavigationProgress;
+
+import static com.situm.plugin.utils.ReactNativeUtils.convertMapToReadableMap;
+
+/**
+ * Encodes NavigationProgress ticks for the "delta" progress mode.
+ *
+ * The route geometry is already delivered once with onNavigationStart, so a tick only carries the scalars that
+ * change while walking plus the closest point in route. Indications are sent only when they change, together with
+ * their index in the route indications list (-1 when it cannot be resolved).
+ */
+class NavigationProgressDeltaEncoder {
+
+    private final Route route;
+    private String lastIndicationKey;
+
+    NavigationProgressDeltaEncoder(Route route) {
+        this.route = route;
+    }
+
+    WritableMap encode(NavigationProgress progress) {
+        WritableMap map = Arguments.createMap();
+        map.putInt(SitumMapper.CURRENT_STEP_INDEX, progress.getRouteStep().getId());
+        map.putDouble(SitumMapper.DISTANCE_TO_GOAL, progress.getDistanceToGoal());
+        map.putDouble(SitumMapper.DISTANCE_TO_END_STEP, progress.getDistanceToEndStep());
+        map.putDouble(SitumMapper.DISTANCE_TO_CLOSEST_POINT_IN_ROUTE, progress.getDistanceToClosestPointInRoute());
+        map.putDouble(SitumMapper.TIME_TO_GOAL, progress.getTimeToGoal());
+        map.putDouble(SitumMapper.TIME_TO_END_STEP, progress.getTimeToEndStep());
+        map.putMap(SitumMapper.CLOSEST_POINT_IN_ROUTE, SitumMapper.pointToWritableMap(progress.getClosestPointInRoute()));
+
+        Indication current = progress.getCurrentIndication();
+        String indicationKey = indicationKey(current);
+        if (indicationKey != null && !indicationKey.equals(lastIndicationKey)) {
+            lastIndicationKey = indicationKey;
+            map.putInt(SitumMapper.CURRENT_INDICATION_INDEX, indexInRoute(current));
+            map.putMap(SitumMapper.CURRENT_INDICATION, convertMapToReadableMap(current.toMap()));
+            if (progress.getNextIndication() != null) {
+                map.putMap(SitumMapper.NEXT_INDICATION, convertMapToReadableMap(progress.getNextIndication().toMap()));
+            }
+        }
+        return map;
+    }
+
+    private int indexInRoute(Indication indication) {
+        List<Indication> indications = route != null ? route.getIndications() : null;
+        if (indications == null) {
+            return -1;
+        }
+        String key = indicationKey(indication);
+        for (int i = 0; i < indications.size(); i++) {
+            if (key.equals(indicationKey(indications.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String indicationKey(Indication indication) {
+        if (indication == null) {
+            return null;
+        }
+        return indication.getStepIdxOrigin() + ":" + indication.getStepIdxDestination() + ":"
+                + indication.getIndicationType();
+    }
+}
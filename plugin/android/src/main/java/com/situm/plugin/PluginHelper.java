@@ -2,6 +2,7 @@ package com.situm.plugin;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -10,6 +11,8 @@ import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.situm.plugin.tts.TextToSpeechManager;
@@ -22,12 +25,19 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Polygon;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import androidx.annotation.NonNull;
 import es.situm.sdk.SitumSdk;
@@ -47,6 +57,7 @@ import es.situm.sdk.model.cartography.Point;
 import es.situm.sdk.model.directions.Route;
 import es.situm.sdk.model.location.Location;
 import es.situm.sdk.model.navigation.NavigationProgress;
+import es.situm.sdk.model.URL;
 import es.situm.sdk.model.realtime.RealTimeData;
 import es.situm.sdk.navigation.NavigationListener;
 import es.situm.sdk.navigation.NavigationManager;
@@ -66,6 +77,7 @@ import static com.situm.plugin.SitumPlugin.EVENT_LOCATION_CHANGED;
 import static com.situm.plugin.SitumPlugin.EVENT_LOCATION_ERROR;
 import static com.situm.plugin.SitumPlugin.EVENT_LOCATION_STATUS_CHANGED;
 import static com.situm.plugin.SitumPlugin.EVENT_LOCATION_STOPPED;
+import static com.situm.plugin.SitumPlugin.EVENT_LOCATIONS_BATCH;
 import static com.situm.plugin.SitumPlugin.EVENT_NAVIGATION_START;
 import static com.situm.plugin.SitumPlugin.EVENT_NAVIGATION_PROGRESS;
 import static com.situm.plugin.SitumPlugin.EVENT_NAVIGATION_DESTINATION_REACHED;
@@ -86,6 +98,20 @@ import static com.situm.plugin.utils.ReactNativeUtils.convertMapToReadableMap;
 public class PluginHelper {
 
     private static final String TAG = "PluginHelper";
+    private static final String SNAPSHOTS_DIRECTORY = "situm-building-info";
+    private static final String IMAGES_DIRECTORY = "situm-images";
+    private static final String TILES_DIRECTORY = "situm-tiles";
+    private static final String ATLAS_DIRECTORY = "situm-atlas";
+
+    // Operations coalesced by singleFlight, named after their ReactMethods.
+    private static final String FETCH_BUILDING_INFO = "fetchBuildingInfo";
+    private static final String FETCH_FLOORS = "fetchFloorsFromBuilding";
+    private static final String FETCH_GEOFENCES = "fetchGeofencesFromBuilding";
+    private static final String FETCH_INDOOR_POIS = "fetchIndoorPOIsFromBuilding";
+    private static final String FETCH_OUTDOOR_POIS = "fetchOutdoorPOIsFromBuilding";
+    private static final String FETCH_EVENTS = "fetchEventsFromBuilding";
+    private static final String GENERATE_FLOOR_TILES = "generateFloorTiles";
+    private static final String FETCH_POI_CATEGORY_ATLAS = "fetchPoiCategoryAtlas";
 
     private GeometryFactory geometryFactory = new GeometryFactory();
 
@@ -101,12 +127,47 @@ public class PluginHelper {
 
     private volatile NavigationManager nmInstance;
     private RealTimeListener realtimeListener;
+    private RealtimeDeviceStore realtimeDeviceStore;
     private volatile RealTimeManager rmInstance;
     private TextToSpeechManager ttsManager;
 
     private Route computedRoute;
     private Location computedLocation;
-    private Map<Geofence, Polygon> geofencePolygonMap = new HashMap<>();
+    private volatile LocationEmissionScheduler locationScheduler;
+    private volatile LocationBatcher locationBatcher;
+    // Non-null only while the matching stream was requested with useRecordBuffer.
+    private volatile PositionRecordBuffer locationRecords;
+    private volatile PositionRecordBuffer navigationRecords;
+    // Non-null only while navigation was requested with progressMode "delta".
+    private volatile NavigationProgressDeltaEncoder progressEncoder;
+    private volatile long lastBufferedProgressEvent = 0;
+    // Filled from the worker threads, read from the bridge thread.
+    private final Map<Geofence, Polygon> geofencePolygonMap = new ConcurrentHashMap<>();
+    // Field masks registered from JS, keyed by event name. Events without an entry get every field.
+    private final Map<String, FieldMask> eventFieldMasks = new ConcurrentHashMap<>();
+    private final EntityRegistry entityRegistry = new EntityRegistry();
+    private final PoiSearchIndex poiSearchIndex = new PoiSearchIndex();
+    private final PoiSpatialIndex poiSpatialIndex = new PoiSpatialIndex();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final RevalidationCache revalidationCache = new RevalidationCache();
+    private final CartographyDiffer cartographyDiffer = new CartographyDiffer();
+    private final CartographyCache cartographyCache = new CartographyCache(CartographyCache.DEFAULT_MAX_ENTRIES);
+    // Non-null only while building info snapshots are enabled.
+    private volatile BuildingInfoSnapshotStore snapshotStore;
+    private volatile DeviceEventManagerModule.RCTDeviceEventEmitter snapshotEmitter;
+    private volatile ImageFileStore imageFileStore;
+    private final Base64ImageEncoder base64Encoder = new Base64ImageEncoder();
+    // Leaves a core for the UI and JS threads.
+    private final WorkerPool workerPool =
+            new WorkerPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    private final CollectionStreamer collectionStreamer =
+            new CollectionStreamer(workerPool.executor(WorkerPool.CARTOGRAPHY));
+    private volatile FloorTileStore floorTileStore;
+    private volatile PoiCategoryAtlasStore poiCategoryAtlasStore;
+    // Set while the stale-while-revalidate mode is on.
+    private volatile DeviceEventManagerModule.RCTDeviceEventEmitter revalidationEmitter;
+    // Set while cartographyChanged events are enabled.
+    private volatile DeviceEventManagerModule.RCTDeviceEventEmitter changesEmitter;
 
     private CommunicationManager getCommunicationManagerInstance() {
         if (cmInstance == null) { // Check for the first time
@@ -147,35 +208,59 @@ public class PluginHelper {
 
     public void fetchBuildings(Callback success, Callback error) {
         try {
-            getCommunicationManagerInstance().fetchBuildings(new Handler<Collection<Building>>() {
-                public void onSuccess(Collection<Building> buildings) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Buildings fetched successfully.");
-                        JSONArray jsonArrayBuildings = new JSONArray();
-
-                        for (Building building : buildings) {
-                            Log.i(PluginHelper.TAG,
-                                    "onSuccess: " + building.getIdentifier() + " - " + building.getName());
-                            JSONObject jsonBuilding = SitumMapper.buildingToJsonObject(building);
-                            jsonArrayBuildings.put(jsonBuilding);
-                        }
+            final DeviceEventManagerModule.RCTDeviceEventEmitter revalidation = revalidationEmitter;
+            final RevalidationCache.Entry previous =
+                    revalidation != null ? revalidationCache.get(RevalidationCache.BUILDINGS) : null;
+            if (previous != null) {
+                invokeCallback(success, previous.array());
+            }
+            getCommunicationManagerInstance().fetchBuildings(
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Building>>() {
+                        public void onSuccess(Collection<Building> buildings) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Buildings fetched successfully.");
+                                entityRegistry.putBuildings(buildings);
+                                WritableArray arrayBuildings = Arguments.createArray();
 
-                        if (buildings.isEmpty()) {
-                            Log.e(PluginHelper.TAG, "onSuccess: you have no buildings. Create one in the Dashboard");
-                        }
+                                for (Building building : buildings) {
+                                    Log.i(PluginHelper.TAG,
+                                            "onSuccess: " + building.getIdentifier() + " - " + building.getName());
+                                    arrayBuildings.pushMap(cartographyCache.building(building));
+                                }
 
-                        invokeCallback(success, convertJsonToArray(jsonArrayBuildings));
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-                    }
-                }
+                                if (buildings.isEmpty()) {
+                                    Log.e(PluginHelper.TAG,
+                                            "onSuccess: you have no buildings. Create one in the Dashboard");
+                                }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure:" + e);
-                    invokeCallback(error, e.getMessage());
-                }
-            });
+                                if (revalidation != null) {
+                                    long fingerprint = RevalidationCache.fingerprint(buildings);
+                                    revalidationCache.putArray(RevalidationCache.BUILDINGS, fingerprint,
+                                            ReactNativeUtils.copyArray(arrayBuildings));
+                                    if (previous != null) {
+                                        if (fingerprint != previous.fingerprint) {
+                                            emitCartographyUpdated(revalidation, RevalidationCache.BUILDINGS, null,
+                                                    arrayBuildings);
+                                        }
+                                        return;
+                                    }
+                                }
+                                invokeCallback(success, arrayBuildings);
+                            } catch (JSONException e) {
+                                if (previous == null) {
+                                    invokeCallback(error, e.getMessage());
+                                }
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure:" + e);
+                            if (previous == null) {
+                                invokeCallback(error, e.getMessage());
+                            }
+                        }
+                    }));
         } catch (Exception e) {
             invokeCallback(error, e.getMessage());
         }
@@ -183,10 +268,15 @@ public class PluginHelper {
 
     // building, floors, events, indoorPois, outdoorPois, ¿geofences? ¿Paths?
     public void fetchTilesFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonBuilding = ReactNativeUtils.convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonBuilding);
+        withBuilding(buildingMap, error, building -> fetchTilesFromBuilding(building, success, error));
+    }
 
+    public void fetchTilesFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchTilesFromBuilding(building, success, error));
+    }
+
+    private void fetchTilesFromBuilding(Building building, Callback success, Callback error) {
+        try {
             getCommunicationManagerInstance().fetchTilesFromBuilding(building.getIdentifier(), new Handler<String>() {
                 @Override
                 public void onSuccess(String url) {
@@ -217,32 +307,74 @@ public class PluginHelper {
 
     // building, floors, events, indoorPois, outdoorPois, ¿geofences? ¿Paths?
     public void fetchBuildingInfo(ReadableMap buildingMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonBuilding = ReactNativeUtils.convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonBuilding);
+        withBuilding(buildingMap, error, building -> fetchBuildingInfo(building, success, error));
+    }
 
-            getCommunicationManagerInstance().fetchBuildingInfo(building, new Handler<BuildingInfo>() {
-                @Override
-                public void onSuccess(BuildingInfo object) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: building info fetched successfully.");
+    public void fetchBuildingInfoById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchBuildingInfo(building, success, error));
+    }
 
-                        JSONObject jsonObject = SitumMapper.buildingInfoToJsonObject(object); // Include geofences to
-                                                                                              // parse ? This needs to
-                                                                                              // be on sdk
+    private void fetchBuildingInfo(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_BUILDING_INFO, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
+        try {
+            // A previous result or a stored snapshot answers right away. The SDK fetch below then only refreshes it,
+            // and sends the refreshed content as cartographyUpdated if it changed.
+            final String buildingId = building.getIdentifier();
+            final BuildingInfoSnapshotStore snapshots = snapshotStore;
+            final DeviceEventManagerModule.RCTDeviceEventEmitter revalidation = revalidationEmitter;
+            final DeviceEventManagerModule.RCTDeviceEventEmitter updates =
+                    revalidation != null ? revalidation : snapshotEmitter;
+            RevalidationCache.Entry previous =
+                    revalidation != null ? revalidationCache.get(RevalidationCache.buildingInfoKey(buildingId)) : null;
+            BuildingInfoSnapshotStore.Snapshot snapshot =
+                    previous == null && snapshots != null ? snapshots.read(buildingId) : null;
+            final boolean answered = previous != null || snapshot != null;
+            final long answeredFingerprint;
+            if (previous != null) {
+                answeredFingerprint = previous.fingerprint;
+                invokeCallback(success, previous.map());
+            } else if (snapshot != null) {
+                answeredFingerprint = snapshot.fingerprint;
+                invokeCallback(success, snapshot.buildingInfo);
+            } else {
+                answeredFingerprint = 0;
+            }
 
-                        invokeCallback(success, ReactNativeUtils.convertJsonToMap(jsonObject));
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-                    }
-                }
+            getCommunicationManagerInstance().fetchBuildingInfo(building,
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<BuildingInfo>() {
+                        @Override
+                        public void onSuccess(BuildingInfo object) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: building info fetched successfully.");
+                                long fingerprint = RevalidationCache.fingerprint(object);
+                                WritableMap buildingInfo = registerBuildingInfo(object, fingerprint, snapshots);
+                                if (!answered) {
+                                    invokeCallback(success, buildingInfo);
+                                } else if (updates != null && fingerprint != answeredFingerprint) {
+                                    emitCartographyUpdated(updates, RevalidationCache.BUILDING_INFO, buildingId,
+                                            buildingInfo);
+                                }
+                            } catch (JSONException e) {
+                                if (!answered) {
+                                    invokeCallback(error, e.getMessage());
+                                }
+                            }
+                        }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure:" + e);
-                    invokeCallback(error, e.getMessage());
-                }
-            });
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure:" + e);
+                            if (!answered) {
+                                invokeCallback(error, e.getMessage());
+                            }
+                        }
+                    }));
 
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in building info response", e.getCause());
@@ -251,105 +383,220 @@ public class PluginHelper {
     }
 
     public void fetchFloorsFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonBuilding = ReactNativeUtils.convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonBuilding);
+        withBuilding(buildingMap, error, building -> fetchFloorsFromBuilding(building, success, error));
+    }
 
-            getCommunicationManagerInstance().fetchFloorsFromBuilding(building, new Handler<Collection<Floor>>() {
-                @Override
-                public void onSuccess(Collection<Floor> floors) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Floors fetched successfully.");
-                        JSONArray jsonArrayFloors = new JSONArray();
+    public void fetchFloorsFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchFloorsFromBuilding(building, success, error));
+    }
 
-                        for (Floor floor : floors) {
-                            Log.i(PluginHelper.TAG, "onSuccess: " + floor.getIdentifier());
-                            JSONObject jsonFloor = SitumMapper.floorToJsonObject(floor);
-                            jsonArrayFloors.put(jsonFloor);
-                        }
-                        if (floors.isEmpty()) {
-                            Log.e(PluginHelper.TAG, "onSuccess: you have no floors defined for this building");
+    private void fetchFloorsFromBuilding(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_FLOORS, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
+        try {
+            getCommunicationManagerInstance().fetchFloorsFromBuilding(building,
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Floor>>() {
+                        @Override
+                        public void onSuccess(Collection<Floor> floors) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Floors fetched successfully.");
+                                entityRegistry.putFloors(floors);
+                                WritableArray arrayFloors = Arguments.createArray();
+
+                                for (Floor floor : floors) {
+                                    Log.i(PluginHelper.TAG, "onSuccess: " + floor.getIdentifier());
+                                    arrayFloors.pushMap(cartographyCache.floor(floor));
+                                }
+                                if (floors.isEmpty()) {
+                                    Log.e(PluginHelper.TAG, "onSuccess: you have no floors defined for this building");
+                                }
+                                invokeCallback(success, arrayFloors);
+                            } catch (JSONException e) {
+                                invokeCallback(error, e.getMessage());
+                            }
                         }
-                        invokeCallback(success, convertJsonToArray(jsonArrayFloors));
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-                    }
-                }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure:" + e);
-                    invokeCallback(error, e.getMessage());
-                }
-            });
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure:" + e);
+                            invokeCallback(error, e.getMessage());
+                        }
+                    }));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in floor response", e.getCause());
             invokeCallback(error, e.getMessage());
         }
     }
 
-    public void fetchMapFromFloor(ReadableMap buildingMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonFloor = ReactNativeUtils.convertMapToJson(buildingMap);
-            Floor floor = SitumMapper.floorJsonObjectToFloor(jsonFloor);
+    public void fetchMapFromFloor(ReadableMap floorMap, Callback success, Callback error) {
+        withFloor(floorMap, error, floor -> fetchMapFromFloor(floor, success, error));
+    }
 
-            getCommunicationManagerInstance().fetchMapFromFloor(floor, new Handler<Bitmap>() {
-                @Override
-                public void onSuccess(Bitmap bitmap) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Map fetched successfully");
-                        invokeCallback(success, SitumMapper.bitmapToString(bitmap).getString("data"));
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-                    }
-                }
+    public void fetchMapFromFloorById(String floorId, Callback success, Callback error) {
+        Floor floor = entityRegistry.floor(floorId);
+        if (floor == null) {
+            invokeCallback(error, "Unknown floor " + floorId + ". Fetch the floors of its building first.");
+            return;
+        }
+        fetchMapFromFloor(floor, success, error);
+    }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure: " + error);
-                    invokeCallback(error, e.getMessage());
-                }
-            });
+    private void fetchMapFromFloor(Floor floor, Callback success, Callback error) {
+        try {
+            getCommunicationManagerInstance().fetchMapFromFloor(floor,
+                    workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
+                        @Override
+                        public void onSuccess(Bitmap bitmap) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Map fetched successfully");
+                                invokeCallback(success, base64Encoder.encode(bitmap).data);
+                            } catch (IOException e) {
+                                invokeCallback(error, e.getMessage());
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure: " + error);
+                            invokeCallback(error, e.getMessage());
+                        }
+                    }));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in map download", e.getCause());
             invokeCallback(error, e.getMessage());
         }
     }
 
-    public void fetchGeofencesFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonBuilding = ReactNativeUtils.convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonBuilding);
+    public void fetchMapFromFloorWithOptions(ReadableMap floorMap, ReadableMap options, Callback success,
+                                             Callback error, Context context) {
+        withFloor(floorMap, error, floor -> fetchImage(floorMapSource(floor), options, context, success, error,
+                handler -> getCommunicationManagerInstance().fetchMapFromFloor(floor, handler)));
+    }
 
-            getCommunicationManagerInstance().fetchGeofencesFromBuilding(building, new Handler<List<Geofence>>() {
-                @Override
-                public void onSuccess(List<Geofence> geofences) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Geofences fetched successfully.");
-                        JSONArray jsonArrayGeofences = new JSONArray();
+    private static String floorMapSource(Floor floor) {
+        String source = floor.getMapUrl() != null ? floor.getMapUrl().getValue() : floor.getIdentifier();
+        return source + "@" + floor.getUpdatedAt();
+    }
+
+    /**
+     * Answers with {uri, z, x, y} plus the pyramid metadata (width, height, maxZoom, tileSize) for one tile of the
+     * floor map, cutting the map into a tile pyramid on the first request.
+     */
+    public void fetchFloorTile(String floorId, int z, int x, int y, Callback success, Callback error,
+                               Context context) {
+        Floor floor = entityRegistry.floor(floorId);
+        if (floor == null) {
+            invokeCallback(error, "Unknown floor " + floorId + ". Fetch the floors of its building first.");
+            return;
+        }
+        FloorTileStore store = floorTileStore(context);
+        String source = floor.getMapUrl() != null ? floor.getMapUrl().getValue() : floor.getIdentifier();
+        String key = ImageFileStore.key(source, floor.getUpdatedAt(), FloorTileStore.TILE_SIZE);
+        Callback answer = args -> {
+            FloorTileStore.Pyramid pyramid = FloorTileStore.fromReadableMap((ReadableMap) args[0]);
+            File tile = store.tile(pyramid, z, x, y);
+            if (tile == null) {
+                invokeCallback(error, "No tile " + z + "/" + x + "/" + y + " for floor " + floorId);
+                return;
+            }
+            WritableMap result = FloorTileStore.toWritableMap(pyramid);
+            result.putString(SitumMapper.URI, "file://" + tile.getAbsolutePath());
+            result.putInt(SitumMapper.Z, z);
+            result.putInt(SitumMapper.X, x);
+            result.putInt(SitumMapper.Y, y);
+            invokeCallback(success, result);
+        };
 
-                        for (Geofence geofence : geofences) {
-                            Log.i(PluginHelper.TAG, "onSuccess: " + geofence.getIdentifier());
-                            JSONObject jsonoGeofence = SitumMapper.geofenceToJsonObject(geofence);
-                            jsonArrayGeofences.put(jsonoGeofence);
+        FloorTileStore.Pyramid pyramid = store.find(key);
+        if (pyramid != null) {
+            answer.invoke(FloorTileStore.toWritableMap(pyramid));
+            return;
+        }
+        // Tile requests arriving while the pyramid is generated wait for the same generation.
+        SingleFlight.Flight flight = singleFlight.join(GENERATE_FLOOR_TILES, key, answer, error);
+        if (flight == null) {
+            return;
+        }
+        try {
+            getCommunicationManagerInstance().fetchMapFromFloor(floor,
+                    workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
+                        @Override
+                        public void onSuccess(Bitmap bitmap) {
+                            store.generate(key, bitmap, flight.success(), flight.error());
                         }
-                        if (geofences.isEmpty()) {
-                            Log.e(PluginHelper.TAG, "onSuccess: you have no geofences defined for this building");
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure: " + e);
+                            flight.error().invoke(e.getMessage());
                         }
-                        invokeCallback(success, convertJsonToArray(jsonArrayGeofences));
+                    }));
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in map download", e.getCause());
+            flight.error().invoke(e.getMessage());
+        }
+    }
 
-                        createAndAssignPolygonsToGeofences(geofences);
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-                    }
-                }
+    private synchronized FloorTileStore floorTileStore(Context context) {
+        if (floorTileStore == null) {
+            floorTileStore = new FloorTileStore(new File(context.getCacheDir(), TILES_DIRECTORY),
+                    workerPool.serial(WorkerPool.IMAGES));
+        }
+        return floorTileStore;
+    }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure:" + e);
-                    invokeCallback(error, e.getMessage());
-                }
-            });
+    public void fetchGeofencesFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
+        withBuilding(buildingMap, error, building -> fetchGeofencesFromBuilding(building, success, error));
+    }
+
+    public void fetchGeofencesFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchGeofencesFromBuilding(building, success, error));
+    }
+
+    private void fetchGeofencesFromBuilding(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_GEOFENCES, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
+        try {
+            getCommunicationManagerInstance().fetchGeofencesFromBuilding(building,
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<List<Geofence>>() {
+                        @Override
+                        public void onSuccess(List<Geofence> geofences) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Geofences fetched successfully.");
+                                WritableArray arrayGeofences = Arguments.createArray();
+
+                                for (Geofence geofence : geofences) {
+                                    Log.i(PluginHelper.TAG, "onSuccess: " + geofence.getIdentifier());
+                                    arrayGeofences.pushMap(cartographyCache.geofence(geofence));
+                                }
+                                if (geofences.isEmpty()) {
+                                    Log.e(PluginHelper.TAG,
+                                            "onSuccess: you have no geofences defined for this building");
+                                }
+                                invokeCallback(success, arrayGeofences);
+
+                                createAndAssignPolygonsToGeofences(geofences);
+                            } catch (JSONException e) {
+                                invokeCallback(error, e.getMessage());
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure:" + e);
+                            invokeCallback(error, e.getMessage());
+                        }
+                    }));
 
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in building info response", e.getCause());
@@ -368,17 +615,40 @@ public class PluginHelper {
             LocationRequest.Builder locationBuilder = new LocationRequest.Builder();
             SitumMapper.locationRequestJSONObjectToLocationRequest(jsonRequst, locationBuilder);
             LocationRequest locationRequest = locationBuilder.build();
+            locationRecords = buildRecordBuffer(jsonRequst);
+            cancelLocationScheduler();
+            cancelLocationBatcher();
+            int batchSize = jsonRequst.optInt(SitumMapper.BATCH_SIZE, 0);
+            long batchInterval = jsonRequst.optLong(SitumMapper.BATCH_INTERVAL, 0);
+            if (LocationBatcher.isEnabled(batchSize, batchInterval)) {
+                locationBatcher = new LocationBatcher(batchSize, batchInterval,
+                        locations -> emitLocationsBatch(eventEmitter, locations));
+            }
+            double maxEmitRate = jsonRequst.optDouble(SitumMapper.MAX_EMIT_RATE,
+                    locationRecords != null ? PositionRecordBuffer.EVENT_RATE : 0);
+            double minEmitDisplacement = jsonRequst.optDouble(SitumMapper.MIN_EMIT_DISPLACEMENT, 0);
+            double minEmitBearingChange = jsonRequst.optDouble(SitumMapper.MIN_EMIT_BEARING_CHANGE, 0);
+            if (LocationEmissionScheduler.isEnabled(maxEmitRate, minEmitDisplacement, minEmitBearingChange)) {
+                locationScheduler = new LocationEmissionScheduler(maxEmitRate, minEmitDisplacement,
+                        minEmitBearingChange, location -> deliverLocation(eventEmitter, location));
+            }
 
             locationListener = new LocationListener() {
                 public void onLocationChanged(Location location) {
                     try {
                         PluginHelper.this.computedLocation = location; // This is for testing purposes
                         Log.i(PluginHelper.TAG, "onLocationChanged() called with: location = [" + location + "]");
-                        JSONObject jsonObject = SitumMapper.locationToJsonObject(location);
-
-                        eventEmitter.emit(EVENT_LOCATION_CHANGED, convertJsonToMap(jsonObject));
-
-                    } catch (JSONException e) {
+                        PositionRecordBuffer records = locationRecords;
+                        if (records != null) {
+                            records.write(location);
+                        }
+                        LocationEmissionScheduler scheduler = locationScheduler;
+                        if (scheduler != null) {
+                            scheduler.submit(location);
+                            return;
+                        }
+                        deliverLocation(eventEmitter, location);
+                    } catch (Exception e) {
                         eventEmitter.emit(EVENT_LOCATION_ERROR, e.getMessage());
                     }
                 }
@@ -386,9 +656,8 @@ public class PluginHelper {
                 public void onStatusChanged(@NonNull LocationStatus status) {
                     try {
                         Log.i(PluginHelper.TAG, "onStatusChanged() called with: status = [" + status + "]");
-                        JSONObject jsonObject = SitumMapper.locationStatusToJsonObject(status);
-                        eventEmitter.emit(EVENT_LOCATION_STATUS_CHANGED, convertJsonToMap(jsonObject));
-                    } catch (JSONException e) {
+                        eventEmitter.emit(EVENT_LOCATION_STATUS_CHANGED, SitumMapper.locationStatusToWritableMap(status));
+                    } catch (Exception e) {
                         eventEmitter.emit(EVENT_LOCATION_ERROR, e.getMessage());
                     }
                 }
@@ -397,9 +666,8 @@ public class PluginHelper {
                     Log.e(PluginHelper.TAG, "onError() called with: error = [" + error + "]");
                     locationListener = null;
                     try {
-                        JSONObject jsonObject = SitumMapper.locationErrorToJsonObject(error);
-                        eventEmitter.emit(EVENT_LOCATION_ERROR, convertJsonToMap(jsonObject));
-                    } catch (JSONException e) {
+                        eventEmitter.emit(EVENT_LOCATION_ERROR, SitumMapper.locationErrorToWritableMap(error));
+                    } catch (Exception e) {
                         Log.e(PluginHelper.TAG, "onError() could not throw error " + e);
                     }
                 }
@@ -419,6 +687,10 @@ public class PluginHelper {
     public void stopPositioning(Callback callback, DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
         try {
             SitumSdk.locationManager().removeUpdates();
+            locationRecords = null;
+            cancelLocationScheduler();
+            flushLocationBatch();
+            cancelLocationBatcher();
             WritableMap map = Arguments.createMap();
             map.putBoolean("success", true);
             map.putString("message", "Stopped Successfully");
@@ -429,10 +701,77 @@ public class PluginHelper {
         }
     }
 
+    private void emitLocation(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, Location location) {
+        try {
+            eventEmitter.emit(EVENT_LOCATION_CHANGED,
+                    SitumMapper.locationToWritableMap(location, fieldMaskFor(EVENT_LOCATION_CHANGED)));
+        } catch (Exception e) {
+            eventEmitter.emit(EVENT_LOCATION_ERROR, e.getMessage());
+        }
+    }
+
+    private void deliverLocation(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, Location location) {
+        LocationBatcher batcher = locationBatcher;
+        if (batcher != null) {
+            batcher.add(location);
+        } else {
+            emitLocation(eventEmitter, location);
+        }
+    }
+
+    private void emitLocationsBatch(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter,
+            List<Location> locations) {
+        try {
+            WritableMap batch = Arguments.createMap();
+            batch.putArray(SitumMapper.LOCATIONS,
+                    SitumMapper.locationsToWritableArray(locations, fieldMaskFor(EVENT_LOCATION_CHANGED)));
+            eventEmitter.emit(EVENT_LOCATIONS_BATCH, batch);
+        } catch (Exception e) {
+            eventEmitter.emit(EVENT_LOCATION_ERROR, e.getMessage());
+        }
+    }
+
+    private void flushLocationBatch() {
+        LocationBatcher batcher = locationBatcher;
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
+    private void cancelLocationBatcher() {
+        LocationBatcher batcher = locationBatcher;
+        if (batcher != null) {
+            batcher.cancel();
+            locationBatcher = null;
+        }
+    }
+
+    private void cancelLocationScheduler() {
+        LocationEmissionScheduler scheduler = locationScheduler;
+        if (scheduler != null) {
+            scheduler.cancel();
+            locationScheduler = null;
+        }
+    }
+
     public void requestDirections(ReadableArray requestArray, Callback success, Callback error,
             ReactApplicationContext context) {
         try {
-            JSONObject jsonBuilding = convertMapToJson(Objects.requireNonNull(requestArray.getMap(0)));
+            // The building can be passed as a full object or, once fetched, as its identifier.
+            Building building;
+            if (requestArray.getType(0) == ReadableType.String) {
+                building = entityRegistry.building(requestArray.getString(0));
+                if (building == null) {
+                    invokeCallback(error, "Unknown building " + requestArray.getString(0));
+                    return;
+                }
+            } else {
+                ReadableMap buildingMap = Objects.requireNonNull(requestArray.getMap(0));
+                building = entityRegistry.building(identifierFrom(buildingMap, SitumMapper.BUILDING_IDENTIFIER));
+                if (building == null) {
+                    building = SitumMapper.buildingJsonObjectToBuilding(convertMapToJson(buildingMap));
+                }
+            }
             JSONObject jsonFrom = convertMapToJson(Objects.requireNonNull(requestArray.getMap(1)));
             JSONObject jsonTo = convertMapToJson(Objects.requireNonNull(requestArray.getMap(2)));
             JSONObject jsonOptions = null;
@@ -440,7 +779,7 @@ public class PluginHelper {
                 jsonOptions = convertMapToJson(Objects.requireNonNull(requestArray.getMap(3)));
             }
 
-            DirectionsRequest directionRequest = SitumMapper.jsonObjectToDirectionsRequest(jsonBuilding, jsonFrom,
+            DirectionsRequest directionRequest = SitumMapper.jsonObjectToDirectionsRequest(building, jsonFrom,
                     jsonTo, jsonOptions);
             SitumSdk.directionsManager().requestDirections(directionRequest, new Handler<Route>() {
                 @Override
@@ -468,79 +807,298 @@ public class PluginHelper {
     }
 
     public void fetchPoiCategories(Callback success, Callback error) {
-        getCommunicationManagerInstance().fetchPoiCategories(new Handler<Collection<PoiCategory>>() {
-            @Override
-            public void onSuccess(Collection<PoiCategory> poiCategories) {
-                try {
-                    Log.d(PluginHelper.TAG, "onSuccess: POI Categories fetched successfully.");
-                    JSONArray jsonaPoiCategories = new JSONArray();
-                    for (PoiCategory poiCategory : poiCategories) {
-                        Log.i(PluginHelper.TAG, "onSuccess: " + poiCategory.getCode() + " - " + poiCategory.getName());
-                        JSONObject jsonoPoiCategory = SitumMapper.poiCategoryToJsonObject(poiCategory);
-                        jsonaPoiCategories.put(jsonoPoiCategory);
+        getCommunicationManagerInstance().fetchPoiCategories(
+                workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<PoiCategory>>() {
+                    @Override
+                    public void onSuccess(Collection<PoiCategory> poiCategories) {
+                        try {
+                            Log.d(PluginHelper.TAG, "onSuccess: POI Categories fetched successfully.");
+                            entityRegistry.putCategories(poiCategories);
+                            JSONArray jsonaPoiCategories = new JSONArray();
+                            for (PoiCategory poiCategory : poiCategories) {
+                                Log.i(PluginHelper.TAG,
+                                        "onSuccess: " + poiCategory.getCode() + " - " + poiCategory.getName());
+                                JSONObject jsonoPoiCategory = SitumMapper.poiCategoryToJsonObject(poiCategory);
+                                jsonaPoiCategories.put(jsonoPoiCategory);
+                            }
+                            if (poiCategories.isEmpty()) {
+                                Log.e(PluginHelper.TAG, "onSuccess: you have no categories defined for POIs");
+                            }
+                            invokeCallback(success, convertJsonToArray(jsonaPoiCategories));
+                        } catch (JSONException e) {
+                            invokeCallback(error, e.getMessage());
+                        }
                     }
-                    if (poiCategories.isEmpty()) {
-                        Log.e(PluginHelper.TAG, "onSuccess: you have no categories defined for POIs");
+
+                    @Override
+                    public void onFailure(Error e) {
+                        Log.e(PluginHelper.TAG, "onFailure:" + e);
+                        invokeCallback(error, e.getMessage());
                     }
-                    invokeCallback(success, convertJsonToArray(jsonaPoiCategories));
-                } catch (JSONException e) {
-                    invokeCallback(error, e.getMessage());
+                }));
+    }
+
+    public void fetchPoiCategoryIconNormal(ReadableMap categoryMap, Callback success, Callback error) {
+        withCategory(categoryMap, error, category -> fetchPoiCategoryIconNormal(category, success, error));
+    }
+
+    public void fetchPoiCategoryIconNormalById(String categoryCode, Callback success, Callback error) {
+        withCategory(categoryCode, error, category -> fetchPoiCategoryIconNormal(category, success, error));
+    }
+
+    private void fetchPoiCategoryIconNormal(PoiCategory category, Callback success, Callback error) {
+        try {
+            getCommunicationManagerInstance().fetchPoiCategoryIconNormal(category,
+                    workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
+                        @Override
+                        public void onSuccess(Bitmap bitmap) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Poi icon fetched successfully");
+                                invokeCallback(success, base64Encoder.encode(bitmap).toWritableMap());
+                            } catch (IOException e) {
+                                invokeCallback(error, e.getMessage());
+
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure: " + e);
+                            invokeCallback(error, e.getMessage());
+
+                        }
+                    }));
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in situm POI response", e.getCause());
+            invokeCallback(error, e.getMessage());
+
+        }
+    }
+
+    public void fetchPoiCategoryIconSelected(ReadableMap categoryMap, Callback success, Callback error) {
+        withCategory(categoryMap, error, category -> fetchPoiCategoryIconSelected(category, success, error));
+    }
+
+    public void fetchPoiCategoryIconSelectedById(String categoryCode, Callback success, Callback error) {
+        withCategory(categoryCode, error, category -> fetchPoiCategoryIconSelected(category, success, error));
+    }
+
+    private void fetchPoiCategoryIconSelected(PoiCategory category, Callback success, Callback error) {
+        try {
+            getCommunicationManagerInstance().fetchPoiCategoryIconSelected(category,
+                    workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
+                        @Override
+                        public void onSuccess(Bitmap bitmap) {
+                            try {
+                                Log.d(PluginHelper.TAG, "onSuccess: Poi icon fetched successfully");
+                                invokeCallback(success, base64Encoder.encode(bitmap).toWritableMap());
+                            } catch (IOException e) {
+                                invokeCallback(error, e.getMessage());
+
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure: " + e);
+                            invokeCallback(error, e.getMessage());
+
+                        }
+                    }));
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in situm POI response", e.getCause());
+            invokeCallback(error, e.getMessage());
+        }
+    }
+
+    public void fetchPoiCategoryIconWithOptions(ReadableMap categoryMap, ReadableMap options, Callback success,
+                                                Callback error, Context context) {
+        final boolean selected = options != null && options.hasKey(SitumMapper.SELECTED)
+                && options.getBoolean(SitumMapper.SELECTED);
+        withCategory(categoryMap, error, category -> fetchImage(categoryIconSource(category, selected), options,
+                context, success, error, handler -> {
+                    if (selected) {
+                        getCommunicationManagerInstance().fetchPoiCategoryIconSelected(category, handler);
+                    } else {
+                        getCommunicationManagerInstance().fetchPoiCategoryIconNormal(category, handler);
+                    }
+                }));
+    }
+
+    private static String categoryIconSource(PoiCategory category, boolean selected) {
+        URL url = selected ? category.getSelectedIconUrl() : category.getUnselectedIconUrl();
+        String source = url != null ? url.getValue() : category.getCode() + (selected ? ":selected" : ":normal");
+        return source + "@" + category.getUpdatedAt();
+    }
+
+    /**
+     * Answers with the sprite sheets of every POI category icon, see {@link PoiCategoryAtlasStore}. The atlas is built
+     * once per set of categories, from icons fetched in parallel. Icons that can't be fetched are left out of it, and
+     * such an atlas is built again on the next request.
+     */
+    public void fetchPoiCategoryAtlas(Callback success, Callback error, Context context) {
+        SingleFlight.Flight flight = singleFlight.join(FETCH_POI_CATEGORY_ATLAS, "all", success, error);
+        if (flight == null) {
+            return;
+        }
+        Callback flightSuccess = flight.success();
+        Callback flightError = flight.error();
+        try {
+            getCommunicationManagerInstance().fetchPoiCategories(
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<PoiCategory>>() {
+                        @Override
+                        public void onSuccess(Collection<PoiCategory> categories) {
+                            entityRegistry.putCategories(categories);
+                            PoiCategoryAtlasStore store = poiCategoryAtlasStore(context);
+                            String key = atlasKey(categories);
+                            JSONObject stored = store.find(key);
+                            if (stored != null) {
+                                try {
+                                    flightSuccess.invoke(convertJsonToMap(stored));
+                                } catch (JSONException e) {
+                                    flightError.invoke(e.getMessage());
+                                }
+                                return;
+                            }
+
+                            Map<String, Bitmap> normal = new HashMap<>();
+                            Map<String, Bitmap> selected = new HashMap<>();
+                            AtomicInteger pending = new AtomicInteger(categories.size() * 2);
+                            AtomicBoolean complete = new AtomicBoolean(true);
+                            Runnable done = () -> store.write(key, normal, selected, complete.get(), flightSuccess,
+                                    flightError);
+                            if (categories.isEmpty()) {
+                                done.run();
+                                return;
+                            }
+                            for (PoiCategory category : categories) {
+                                getCommunicationManagerInstance().fetchPoiCategoryIconNormal(category,
+                                        atlasIconHandler(category.getCode(), normal, pending, complete, done));
+                                getCommunicationManagerInstance().fetchPoiCategoryIconSelected(category,
+                                        atlasIconHandler(category.getCode(), selected, pending, complete, done));
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Error e) {
+                            Log.e(PluginHelper.TAG, "onFailure: " + e);
+                            flightError.invoke(e.getMessage());
+                        }
+                    }));
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in situm POI category response", e.getCause());
+            flightError.invoke(e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the fetched icon to the sheet icons, or clears complete when it fails, and runs done once the last pending
+     * icon arrives or fails.
+     */
+    private Handler<Bitmap> atlasIconHandler(String code, Map<String, Bitmap> icons, AtomicInteger pending,
+                                             AtomicBoolean complete, Runnable done) {
+        return workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
+            @Override
+            public void onSuccess(Bitmap bitmap) {
+                synchronized (icons) {
+                    icons.put(code, bitmap);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    done.run();
                 }
             }
 
             @Override
             public void onFailure(Error e) {
-                Log.e(PluginHelper.TAG, "onFailure:" + e);
-                invokeCallback(error, e.getMessage());
+                Log.w(PluginHelper.TAG, "Leaving POI category " + code + " out of the atlas: " + e);
+                complete.set(false);
+                if (pending.decrementAndGet() == 0) {
+                    done.run();
+                }
             }
         });
     }
 
-    public void fetchPoiCategoryIconNormal(ReadableMap categoryMap, Callback success, Callback error) {
-        try {
-            JSONObject jsonoCategory = convertMapToJson(categoryMap);
-            PoiCategory category = SitumMapper.poiCategoryFromJsonObject(jsonoCategory);
-            getCommunicationManagerInstance().fetchPoiCategoryIconNormal(category, new Handler<Bitmap>() {
-                @Override
-                public void onSuccess(Bitmap bitmap) {
-                    try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Poi icon fetched successfully");
-                        JSONObject jsonoMap = SitumMapper.bitmapToString(bitmap);
-                        invokeCallback(success, convertJsonToMap(jsonoMap));
-                    } catch (JSONException e) {
-                        invokeCallback(error, e.getMessage());
-
-                    }
-                }
+    /**
+     * Content key of the atlas of these categories: their codes, updatedAt and icon URLs, in code order.
+     */
+    private static String atlasKey(Collection<PoiCategory> categories) {
+        List<String> parts = new ArrayList<>();
+        for (PoiCategory category : categories) {
+            URL normal = category.getUnselectedIconUrl();
+            URL selected = category.getSelectedIconUrl();
+            parts.add(category.getCode() + "@" + category.getUpdatedAt()
+                    + "|" + (normal != null ? normal.getValue() : null)
+                    + "|" + (selected != null ? selected.getValue() : null));
+        }
+        Collections.sort(parts);
+        return ImageFileStore.key(parts.toArray());
+    }
 
-                @Override
-                public void onFailure(Error e) {
-                    Log.e(PluginHelper.TAG, "onFailure: " + e);
-                    invokeCallback(error, e.getMessage());
+    private synchronized PoiCategoryAtlasStore poiCategoryAtlasStore(Context context) {
+        if (poiCategoryAtlasStore == null) {
+            poiCategoryAtlasStore = new PoiCategoryAtlasStore(new File(context.getCacheDir(), ATLAS_DIRECTORY),
+                    workerPool.serial(WorkerPool.IMAGES));
+        }
+        return poiCategoryAtlasStore;
+    }
 
-                }
-            });
+    private interface ImageSource {
+        void fetch(Handler<Bitmap> handler);
+    }
+
+    /**
+     * Answers with {uri, width, height} from the image file store, fetching and storing the image on a miss, or with
+     * {data, width, height} when the options ask for a Base64 output. The image is downscaled and encoded as the
+     * options say, see {@link ImageEncoding}.
+     */
+    private void fetchImage(String source, ReadableMap options, Context context, Callback success, Callback error,
+                            ImageSource imageSource) {
+        boolean toFile;
+        ImageEncoding encoding;
+        try {
+            JSONObject jsonOptions = convertMapToJson(options);
+            toFile = !SitumMapper.OUTPUT_BASE64.equals(
+                    jsonOptions.optString(SitumMapper.OUTPUT, SitumMapper.OUTPUT_FILE));
+            encoding = ImageEncoding.fromJson(jsonOptions);
         } catch (Exception e) {
-            Log.e(TAG, "Unexpected error in situm POI response", e.getCause());
+            Log.e(TAG, "Invalid image options " + options, e);
             invokeCallback(error, e.getMessage());
-
+            return;
         }
+        fetchImage(source, encoding, toFile, context, success, error, imageSource);
     }
 
-    public void fetchPoiCategoryIconSelected(ReadableMap categoryMap, Callback success, Callback error) {
+    private void fetchImage(String source, ImageEncoding encoding, boolean toFile, Context context, Callback success,
+                            Callback error, ImageSource imageSource) {
         try {
-            JSONObject jsonoCategory = convertMapToJson(categoryMap);
-            PoiCategory category = SitumMapper.poiCategoryFromJsonObject(jsonoCategory);
-            getCommunicationManagerInstance().fetchPoiCategoryIconSelected(category, new Handler<Bitmap>() {
+            String key = ImageFileStore.key(source, encoding);
+            ImageFileStore store = toFile ? imageStore(context) : null;
+            WritableMap stored = store != null ? store.find(key, encoding) : null;
+            if (stored != null) {
+                invokeCallback(success, stored);
+                return;
+            }
+            imageSource.fetch(workerPool.handler(WorkerPool.IMAGES, new Handler<Bitmap>() {
                 @Override
                 public void onSuccess(Bitmap bitmap) {
+                    if (store != null) {
+                        store.write(key, bitmap, encoding, success, error);
+                        return;
+                    }
+                    Bitmap scaled = encoding.scale(bitmap);
                     try {
-                        Log.d(PluginHelper.TAG, "onSuccess: Poi icon fetched successfully");
-                        JSONObject jsonoMap = SitumMapper.bitmapToString(bitmap);
-                        invokeCallback(success, convertJsonToMap(jsonoMap));
-                    } catch (JSONException e) {
+                        WritableMap image = base64Encoder
+                                .encode(scaled, encoding.compressFormat(), encoding.quality).toWritableMap();
+                        image.putInt(SitumMapper.WIDTH, scaled.getWidth());
+                        image.putInt(SitumMapper.HEIGHT, scaled.getHeight());
+                        invokeCallback(success, image);
+                    } catch (IOException e) {
                         invokeCallback(error, e.getMessage());
-
+                    } finally {
+                        if (scaled != bitmap) {
+                            scaled.recycle();
+                        }
                     }
                 }
 
@@ -548,15 +1106,22 @@ public class PluginHelper {
                 public void onFailure(Error e) {
                     Log.e(PluginHelper.TAG, "onFailure: " + e);
                     invokeCallback(error, e.getMessage());
-
                 }
-            });
+            }));
         } catch (Exception e) {
-            Log.e(TAG, "Unexpected error in situm POI response", e.getCause());
+            Log.e(TAG, "Unexpected error in image download", e.getCause());
             invokeCallback(error, e.getMessage());
         }
     }
 
+    private synchronized ImageFileStore imageStore(Context context) {
+        if (imageFileStore == null) {
+            imageFileStore = new ImageFileStore(new File(context.getCacheDir(), IMAGES_DIRECTORY),
+                    workerPool.serial(WorkerPool.IMAGES));
+        }
+        return imageFileStore;
+    }
+
     public void requestNavigationUpdates(ReadableMap options,
             DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, Context context) {
         // 1) Parse and check arguments
@@ -577,6 +1142,11 @@ public class PluginHelper {
 
         try {
             JSONObject navigationJSONOptions = convertMapToJson(options);
+            navigationRecords = buildRecordBuffer(navigationJSONOptions);
+            progressEncoder = SitumMapper.PROGRESS_MODE_DELTA.equals(
+                    navigationJSONOptions.optString(SitumMapper.PROGRESS_MODE))
+                    ? new NavigationProgressDeltaEncoder(route)
+                    : null;
 
             if (navigationJSONOptions.has(SitumMapper.DISTANCE_TO_IGNORE_FIRST_INDICATION)) {
                 Double distanceToIgnoreFirstIndication = navigationJSONOptions
@@ -680,22 +1250,39 @@ public class PluginHelper {
     public void removeNavigationUpdates(Callback callback) {
         Log.i(TAG, "Remove navigation updates");
         boolean success = getNavigationManagerInstance().removeUpdates();
+        navigationRecords = null;
+        progressEncoder = null;
         WritableMap map = Arguments.createMap();
         map.putBoolean("success", success);
         invokeCallback(callback, map);
     }
 
     public void fetchIndoorPOIsFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
+        withBuilding(buildingMap, error, building -> fetchIndoorPOIsFromBuilding(building, success, error));
+    }
+
+    public void fetchIndoorPOIsFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchIndoorPOIsFromBuilding(building, success, error));
+    }
+
+    private void fetchIndoorPOIsFromBuilding(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_INDOOR_POIS, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
         try {
-            JSONObject jsonoBuilding = convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonoBuilding);
             getCommunicationManagerInstance().fetchIndoorPOIsFromBuilding(building, new HashMap<String, Object>(),
-                    new Handler<Collection<Poi>>() {
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Poi>>() {
                         @Override
                         public void onSuccess(Collection<Poi> pois) {
                             try {
                                 Log.d(PluginHelper.TAG, "onSuccess: Pois fetched successfully.");
-                                JSONArray jsonaPois = new JSONArray();
+                                poiSearchIndex.replace(building.getIdentifier(), false, pois);
+                                poiSpatialIndex.replace(building.getIdentifier(), false, pois);
+                                WritableArray arrayPois = Arguments.createArray();
 
                                 for (Poi poi : pois) {
                                     Log.i(PluginHelper.TAG,
@@ -703,14 +1290,13 @@ public class PluginHelper {
                                                     + poi.getCustomFields());
 
                                     Log.d(PluginHelper.TAG, "Some log that should appear");
-                                    JSONObject jsonoPoi = SitumMapper.poiToJsonObject(poi);
-                                    jsonaPois.put(jsonoPoi);
+                                    arrayPois.pushMap(cartographyCache.poi(poi));
                                 }
                                 if (pois.isEmpty()) {
                                     Log.e(PluginHelper.TAG,
                                             "onSuccess: you have no indoor pois defined for this building");
                                 }
-                                invokeCallback(success, convertJsonToArray(jsonaPois));
+                                invokeCallback(success, arrayPois);
                             } catch (JSONException e) {
                                 invokeCallback(error, e.getMessage());
                             }
@@ -721,7 +1307,7 @@ public class PluginHelper {
                             Log.e(PluginHelper.TAG, "onFailure:" + e);
                             invokeCallback(error, e.getMessage());
                         }
-                    });
+                    }));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in poi response", e.getCause());
             invokeCallback(error, e.getMessage());
@@ -729,28 +1315,42 @@ public class PluginHelper {
     }
 
     public void fetchOutdoorPOIsFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
+        withBuilding(buildingMap, error, building -> fetchOutdoorPOIsFromBuilding(building, success, error));
+    }
+
+    public void fetchOutdoorPOIsFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchOutdoorPOIsFromBuilding(building, success, error));
+    }
+
+    private void fetchOutdoorPOIsFromBuilding(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_OUTDOOR_POIS, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
         try {
-            JSONObject jsonoBuilding = convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonoBuilding);
             getCommunicationManagerInstance().fetchOutdoorPOIsFromBuilding(building, new HashMap<String, Object>(),
-                    new Handler<Collection<Poi>>() {
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Poi>>() {
                         @Override
                         public void onSuccess(Collection<Poi> pois) {
                             try {
                                 Log.d(PluginHelper.TAG, "onSuccess: Floors fetched successfully.");
-                                JSONArray jsonaPois = new JSONArray();
+                                poiSearchIndex.replace(building.getIdentifier(), true, pois);
+                                poiSpatialIndex.replace(building.getIdentifier(), true, pois);
+                                WritableArray arrayPois = Arguments.createArray();
 
                                 for (Poi poi : pois) {
                                     Log.i(PluginHelper.TAG,
                                             "onSuccess: " + poi.getIdentifier() + " - " + poi.getName());
-                                    JSONObject jsonoPoi = SitumMapper.poiToJsonObject(poi);
-                                    jsonaPois.put(jsonoPoi);
+                                    arrayPois.pushMap(cartographyCache.poi(poi));
                                 }
                                 if (pois.isEmpty()) {
                                     Log.e(PluginHelper.TAG,
                                             "onSuccess: you have no outdoor pois defined for this building");
                                 }
-                                invokeCallback(success, convertJsonToArray(jsonaPois));
+                                invokeCallback(success, arrayPois);
                             } catch (JSONException e) {
                                 invokeCallback(error, e.getMessage());
                             }
@@ -761,7 +1361,7 @@ public class PluginHelper {
                             Log.e(PluginHelper.TAG, "onFailure:" + e);
                             invokeCallback(error, e.getMessage());
                         }
-                    });
+                    }));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in poi response", e.getCause());
             invokeCallback(error, e.getMessage());
@@ -769,11 +1369,24 @@ public class PluginHelper {
     }
 
     public void fetchEventsFromBuilding(ReadableMap buildingMap, Callback success, Callback error) {
+        withBuilding(buildingMap, error, building -> fetchEventsFromBuilding(building, success, error));
+    }
+
+    public void fetchEventsFromBuildingById(String buildingId, Callback success, Callback error) {
+        withBuilding(buildingId, error, building -> fetchEventsFromBuilding(building, success, error));
+    }
+
+    private void fetchEventsFromBuilding(Building building, Callback callerSuccess, Callback callerError) {
+        SingleFlight.Flight flight =
+                singleFlight.join(FETCH_EVENTS, building.getIdentifier(), callerSuccess, callerError);
+        if (flight == null) {
+            return;
+        }
+        Callback success = flight.success();
+        Callback error = flight.error();
         try {
-            JSONObject jsonoBuilding = convertMapToJson(buildingMap);
-            Building building = SitumMapper.buildingJsonObjectToBuilding(jsonoBuilding);
             getCommunicationManagerInstance().fetchEventsFromBuilding(building, new HashMap<String, Object>(),
-                    new Handler<Collection<SitumEvent>>() {
+                    workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<SitumEvent>>() {
                         @Override
                         public void onSuccess(Collection<SitumEvent> situmEvents) {
                             try {
@@ -799,19 +1412,316 @@ public class PluginHelper {
                             Log.e(PluginHelper.TAG, "onFailure:" + e);
                             invokeCallback(error, e.getMessage());
                         }
-                    });
+                    }));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error in poi response", e.getCause());
             invokeCallback(error, e.getMessage());
         }
     }
 
+    public void streamIndoorPOIsFromBuilding(String buildingId, ReadableMap options,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        CollectionStreamer.Request request = collectionRequest(options, SitumMapper.INDOOR_POIS, eventEmitter);
+        if (request == null) {
+            return;
+        }
+        withBuilding(buildingId, request.errorCallback(), building -> getCommunicationManagerInstance()
+                .fetchIndoorPOIsFromBuilding(building, new HashMap<String, Object>(),
+                        workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Poi>>() {
+                            @Override
+                            public void onSuccess(Collection<Poi> pois) {
+                                poiSearchIndex.replace(building.getIdentifier(), false, pois);
+                                poiSpatialIndex.replace(building.getIdentifier(), false, pois);
+                                request.stream(pois, cartographyCache::poi);
+                            }
+
+                            @Override
+                            public void onFailure(Error e) {
+                                Log.e(PluginHelper.TAG, "onFailure:" + e);
+                                request.fail(e.getMessage());
+                            }
+                        })));
+    }
+
+    public void streamOutdoorPOIsFromBuilding(String buildingId, ReadableMap options,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        CollectionStreamer.Request request = collectionRequest(options, SitumMapper.OUTDOOR_POIS, eventEmitter);
+        if (request == null) {
+            return;
+        }
+        withBuilding(buildingId, request.errorCallback(), building -> getCommunicationManagerInstance()
+                .fetchOutdoorPOIsFromBuilding(building, new HashMap<String, Object>(),
+                        workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Poi>>() {
+                            @Override
+                            public void onSuccess(Collection<Poi> pois) {
+                                poiSearchIndex.replace(building.getIdentifier(), true, pois);
+                                poiSpatialIndex.replace(building.getIdentifier(), true, pois);
+                                request.stream(pois, cartographyCache::poi);
+                            }
+
+                            @Override
+                            public void onFailure(Error e) {
+                                Log.e(PluginHelper.TAG, "onFailure:" + e);
+                                request.fail(e.getMessage());
+                            }
+                        })));
+    }
+
+    public void streamEventsFromBuilding(String buildingId, ReadableMap options,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        CollectionStreamer.Request request = collectionRequest(options, SitumMapper.EVENTS, eventEmitter);
+        if (request == null) {
+            return;
+        }
+        withBuilding(buildingId, request.errorCallback(), building -> getCommunicationManagerInstance()
+                .fetchEventsFromBuilding(building, new HashMap<String, Object>(),
+                        workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<SitumEvent>>() {
+                            @Override
+                            public void onSuccess(Collection<SitumEvent> situmEvents) {
+                                request.stream(situmEvents,
+                                        event -> convertJsonToMap(SitumMapper.situmEventToJsonObject(event)));
+                            }
+
+                            @Override
+                            public void onFailure(Error e) {
+                                Log.e(PluginHelper.TAG, "onFailure:" + e);
+                                request.fail(e.getMessage());
+                            }
+                        })));
+    }
+
+    public void streamGeofencesFromBuilding(String buildingId, ReadableMap options,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        CollectionStreamer.Request request = collectionRequest(options, SitumMapper.GEOFENCES, eventEmitter);
+        if (request == null) {
+            return;
+        }
+        withBuilding(buildingId, request.errorCallback(), building -> getCommunicationManagerInstance()
+                .fetchGeofencesFromBuilding(building,
+                        workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<List<Geofence>>() {
+                            @Override
+                            public void onSuccess(List<Geofence> geofences) {
+                                request.stream(geofences, cartographyCache::geofence);
+                                createAndAssignPolygonsToGeofences(geofences);
+                            }
+
+                            @Override
+                            public void onFailure(Error e) {
+                                Log.e(PluginHelper.TAG, "onFailure:" + e);
+                                request.fail(e.getMessage());
+                            }
+                        })));
+    }
+
+    public WritableMap getFetchCoalescingStats() {
+        return singleFlight.stats();
+    }
+
+    public WritableMap getImageEncodingStats() {
+        return base64Encoder.stats();
+    }
+
+    public WritableMap getWorkerStats() {
+        return workerPool.stats();
+    }
+
+    public WritableArray searchPois(String query, int limit) {
+        return poiSearchIndex.search(query, limit);
+    }
+
+    public void queryPoisInBounds(String floorId, ReadableMap bounds, Callback success, Callback error) {
+        double[] southWestNorthEast;
+        try {
+            if (PoiSpatialIndex.isOutdoorFloor(floorId)) {
+                throw new IllegalArgumentException("Missing floor identifier");
+            }
+            if (bounds == null) {
+                throw new IllegalArgumentException("Missing bounds");
+            }
+            double[] southWest = coordinateFrom(bounds, SitumMapper.SOUTH_WEST);
+            double[] northEast = coordinateFrom(bounds, SitumMapper.NORTH_EAST);
+            if (southWest[0] > northEast[0] || southWest[1] > northEast[1]) {
+                throw new IllegalArgumentException("southWest is not south-west of northEast");
+            }
+            southWestNorthEast = new double[]{southWest[0], southWest[1], northEast[0], northEast[1]};
+        } catch (RuntimeException e) {
+            Log.e(TAG, "queryPoisInBounds: invalid bounds " + bounds, e);
+            invokeCallback(error, e.getMessage());
+            return;
+        }
+        workerPool.submit(WorkerPool.CARTOGRAPHY, () -> invokeCallback(success,
+                poiSpatialIndex.queryInBounds(floorId, southWestNorthEast[0], southWestNorthEast[1],
+                        southWestNorthEast[2], southWestNorthEast[3])));
+    }
+
+    public void nearestPois(ReadableMap point, int k, ReadableArray categoryFilter, Callback success,
+                            Callback error) {
+        double[] coordinate;
+        String buildingId;
+        String floorId;
+        try {
+            if (point == null) {
+                throw new IllegalArgumentException("Missing point");
+            }
+            if (k <= 0) {
+                throw new IllegalArgumentException("k must be positive, was " + k);
+            }
+            coordinate = coordinateFrom(point, SitumMapper.COORDINATE);
+            buildingId = identifierFrom(point, SitumMapper.BUILDING_IDENTIFIER);
+            floorId = identifierFrom(point, SitumMapper.FLOOR_IDENTIFIER);
+            if (buildingId == null && PoiSpatialIndex.isOutdoorFloor(floorId)) {
+                throw new IllegalArgumentException("Missing building identifier for an outdoor point");
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "nearestPois: invalid point " + point, e);
+            invokeCallback(error, e.getMessage());
+            return;
+        }
+        Set<String> categoryCodes = PoiSpatialIndex.codes(categoryFilter != null ? categoryFilter.toArrayList() : null);
+        workerPool.submit(WorkerPool.CARTOGRAPHY, () -> invokeCallback(success,
+                poiSpatialIndex.nearest(buildingId, floorId, coordinate[0], coordinate[1], k, categoryCodes)));
+    }
+
+    /**
+     * The {latitude, longitude} map under the key, as [latitude, longitude].
+     *
+     * @throws IllegalArgumentException if it is missing or out of range.
+     */
+    private static double[] coordinateFrom(ReadableMap map, String key) {
+        if (!map.hasKey(key) || map.getType(key) != ReadableType.Map) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        ReadableMap coordinate = map.getMap(key);
+        double latitude = numberFrom(coordinate, SitumMapper.LATITUDE, 90, key);
+        double longitude = numberFrom(coordinate, SitumMapper.LONGITUDE, 180, key);
+        return new double[]{latitude, longitude};
+    }
+
+    private static double numberFrom(ReadableMap map, String key, double limit, String parent) {
+        if (!map.hasKey(key) || map.getType(key) != ReadableType.Number) {
+            throw new IllegalArgumentException("Missing " + parent + "." + key);
+        }
+        double value = map.getDouble(key);
+        if (Double.isNaN(value) || Math.abs(value) > limit) {
+            throw new IllegalArgumentException("Invalid " + parent + "." + key + ": " + value);
+        }
+        return value;
+    }
+
+    public void prefetchBuildings(ReadableArray buildingIds, ReadableMap options,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, Context context) {
+        JSONObject jsonOptions;
+        try {
+            jsonOptions = convertMapToJson(options);
+        } catch (Exception e) {
+            Log.e(TAG, "prefetchBuildings: invalid options " + options, e);
+            jsonOptions = new JSONObject();
+        }
+        final boolean includeGeofences = jsonOptions.optBoolean(SitumMapper.INCLUDE_GEOFENCES, true);
+        final boolean includeMaps = jsonOptions.optBoolean(SitumMapper.INCLUDE_MAPS, true);
+        PrefetchJob job = new PrefetchJob(eventEmitter, jsonOptions.optString(SitumMapper.REQUEST_ID, null),
+                jsonOptions.optInt(SitumMapper.CONCURRENCY, PrefetchJob.DEFAULT_CONCURRENCY));
+
+        for (int i = 0; i < buildingIds.size(); i++) {
+            String buildingId = buildingIds.getType(i) == ReadableType.Number
+                    ? String.valueOf((long) buildingIds.getDouble(i))
+                    : buildingIds.getString(i);
+            // Same flight as fetchBuildingInfo, so a prefetch and a screen asking for the building share one fetch.
+            job.add(buildingId, PrefetchJob.STEP_BUILDING_INFO, (success, error) ->
+                    withBuilding(buildingId, error, building -> fetchBuildingInfo(building, args -> {
+                        ReadableMap buildingInfo = (ReadableMap) args[0];
+                        if (includeGeofences) {
+                            job.add(buildingId, PrefetchJob.STEP_GEOFENCES, (s, e) ->
+                                    fetchGeofencesFromBuilding(building, s, e));
+                        }
+                        if (includeMaps && buildingInfo.hasKey(SitumMapper.FLOORS)) {
+                            ReadableArray floors = buildingInfo.getArray(SitumMapper.FLOORS);
+                            for (int j = 0; j < floors.size(); j++) {
+                                ReadableMap floorMap = floors.getMap(j);
+                                job.add(buildingId, PrefetchJob.STEP_FLOOR_MAP, (s, e) ->
+                                        withFloor(floorMap, e, floor -> prefetchImage(floorMapSource(floor), context,
+                                                s, e, handler -> getCommunicationManagerInstance()
+                                                        .fetchMapFromFloor(floor, handler))));
+                            }
+                        }
+                        success.invoke(buildingInfo);
+                    }, error)));
+        }
+
+        if (jsonOptions.optBoolean(SitumMapper.INCLUDE_CATEGORY_ICONS, true)) {
+            job.add(null, PrefetchJob.STEP_POI_CATEGORIES, (success, error) ->
+                    getCommunicationManagerInstance().fetchPoiCategories(
+                            workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<PoiCategory>>() {
+                                @Override
+                                public void onSuccess(Collection<PoiCategory> categories) {
+                                    entityRegistry.putCategories(categories);
+                                    for (PoiCategory category : categories) {
+                                        job.add(null, PrefetchJob.STEP_CATEGORY_ICON, (s, e) ->
+                                                prefetchImage(categoryIconSource(category, false), context, s, e,
+                                                        handler -> getCommunicationManagerInstance()
+                                                                .fetchPoiCategoryIconNormal(category, handler)));
+                                    }
+                                    success.invoke();
+                                }
+
+                                @Override
+                                public void onFailure(Error e) {
+                                    Log.e(PluginHelper.TAG, "onFailure:" + e);
+                                    error.invoke(e.getMessage());
+                                }
+                            })));
+        }
+        job.start();
+    }
+
+    /**
+     * Stores the image in the image file store with the default encoding, the one fetchMapFromFloorWithOptions and
+     * fetchPoiCategoryIconWithOptions use without options, and answers with the size of the stored file.
+     */
+    private void prefetchImage(String source, Context context, Callback success, Callback error,
+                               ImageSource imageSource) {
+        fetchImage(source, ImageEncoding.DEFAULT, true, context,
+                args -> success.invoke((double) ImageFileStore.size((ReadableMap) args[0])), error, imageSource);
+    }
+
+    /**
+     * Parses the streaming options. Returns null, after emitting the error, when they are invalid.
+     */
+    private CollectionStreamer.Request collectionRequest(ReadableMap options, String type,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        String requestId = null;
+        int chunkSize = CollectionStreamer.DEFAULT_CHUNK_SIZE;
+        try {
+            JSONObject jsonOptions = convertMapToJson(options);
+            requestId = jsonOptions.getString(SitumMapper.REQUEST_ID);
+            chunkSize = jsonOptions.optInt(SitumMapper.CHUNK_SIZE, CollectionStreamer.DEFAULT_CHUNK_SIZE);
+        } catch (Exception e) {
+            collectionStreamer.request(eventEmitter, requestId, type, chunkSize).fail(e.getMessage());
+            return null;
+        }
+        return collectionStreamer.request(eventEmitter, requestId, type, chunkSize);
+    }
+
     public void requestRealTimeUpdates(ReadableMap options,
             DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
         try {
             // Convert request to native
             JSONObject jsonRequest = convertMapToJson(options);
             RealTimeRequest request = SitumMapper.jsonObjectRealtimeRequest(jsonRequest);
+            boolean columnar = SitumMapper.PAYLOAD_FORMAT_COLUMNAR.equals(
+                    jsonRequest.optString(SitumMapper.PAYLOAD_FORMAT));
+            RealtimeDeviceStore deviceStore = null;
+            if (jsonRequest.optBoolean(SitumMapper.DELTA_UPDATES, false)) {
+                deviceStore = new RealtimeDeviceStore(
+                        jsonRequest.optDouble(SitumMapper.DELTA_DISTANCE_THRESHOLD,
+                                RealtimeDeviceStore.DEFAULT_DISTANCE_THRESHOLD),
+                        jsonRequest.optLong(SitumMapper.DELTA_TIME_THRESHOLD,
+                                RealtimeDeviceStore.DEFAULT_TIME_THRESHOLD),
+                        jsonRequest.optInt(SitumMapper.KEYFRAME_INTERVAL,
+                                RealtimeDeviceStore.DEFAULT_KEYFRAME_INTERVAL));
+            }
+            final RealtimeDeviceStore store = deviceStore;
+            realtimeDeviceStore = store;
             // Call
 
             realtimeListener = new RealTimeListener() {
@@ -821,6 +1731,27 @@ public class PluginHelper {
                     Log.d(TAG, "Success retrieving realtime data" + realTimeData);
 
                     try {
+                        if (store != null) {
+                            RealtimeDeviceStore.Delta delta = store.diff(realTimeData.getLocations());
+                            if (!delta.isEmpty()) {
+                                eventEmitter.emit(EVENT_REALTIME_UPDATE, SitumMapper.realtimeDeltaToWritableMap(
+                                        delta, columnar, fieldMaskFor(EVENT_REALTIME_UPDATE)));
+                            }
+                            return;
+                        }
+                        if (columnar) {
+                            eventEmitter.emit(EVENT_REALTIME_UPDATE,
+                                    SitumMapper.realtimeDataToColumnarWritableMap(realTimeData));
+                            return;
+                        }
+                        FieldMask mask = fieldMaskFor(EVENT_REALTIME_UPDATE);
+                        if (!mask.isAll()) {
+                            WritableMap result = Arguments.createMap();
+                            result.putArray(SitumMapper.LOCATIONS,
+                                    SitumMapper.locationsToWritableArray(realTimeData.getLocations(), mask));
+                            eventEmitter.emit(EVENT_REALTIME_UPDATE, result);
+                            return;
+                        }
                         // Parse information
                         JSONObject jsonResult = SitumMapper.realtimeDataToJson(realTimeData);
 
@@ -855,6 +1786,10 @@ public class PluginHelper {
     public void removeRealTimeUpdates() {
         Log.i(TAG, "Remove realtime updates");
         getRealtimeManagerInstance().removeRealTimeUpdates();
+        if (realtimeDeviceStore != null) {
+            realtimeDeviceStore.clear();
+            realtimeDeviceStore = null;
+        }
     }
 
     public void startShareLiveLocation(ReadableMap payload) {
@@ -911,11 +1846,352 @@ public class PluginHelper {
         }
     }
 
+    public synchronized void setBuildingInfoSnapshotsEnabled(boolean enabled,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, Context context) {
+        snapshotEmitter = enabled ? eventEmitter : null;
+        BuildingInfoSnapshotStore snapshots = snapshotStore;
+        if (enabled && snapshots == null) {
+            snapshotStore = new BuildingInfoSnapshotStore(new File(context.getFilesDir(), SNAPSHOTS_DIRECTORY),
+                    workerPool.serial(WorkerPool.CARTOGRAPHY));
+        } else if (!enabled && snapshots != null) {
+            snapshotStore = null;
+            snapshots.clear();
+        }
+    }
+
+    public void setStaleWhileRevalidate(boolean enabled,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        revalidationEmitter = enabled ? eventEmitter : null;
+        if (!enabled) {
+            revalidationCache.clear();
+        }
+    }
+
+    public void setCartographyChangeEventsEnabled(boolean enabled,
+            DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter) {
+        changesEmitter = enabled ? eventEmitter : null;
+        if (!enabled) {
+            cartographyDiffer.clear();
+        }
+    }
+
+    private void emitCartographyUpdated(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, String type,
+                                        String buildingId, Object data) {
+        WritableMap event = Arguments.createMap();
+        event.putString(SitumMapper.COLLECTION_TYPE, type);
+        if (buildingId != null) {
+            event.putString(SitumMapper.BUILDING_IDENTIFIER, buildingId);
+        }
+        if (data instanceof WritableArray) {
+            event.putArray(SitumMapper.DATA, (WritableArray) data);
+        } else {
+            event.putMap(SitumMapper.DATA, (WritableMap) data);
+        }
+        eventEmitter.emit(SitumPlugin.EVENT_CARTOGRAPHY_UPDATED, event);
+    }
+
+    public void setEventFieldMask(String eventName, ReadableArray fields) {
+        FieldMask mask = FieldMask.fromArray(fields);
+        if (mask.isAll()) {
+            eventFieldMasks.remove(eventName);
+            return;
+        }
+        if (EVENT_LOCATION_CHANGED.equals(eventName)) {
+            // JS hands every location to the MapView and to updateNavigationWithLocation, which need these back.
+            mask = mask.with(SitumMapper.LOCATION_REQUIRED_FIELDS);
+        }
+        eventFieldMasks.put(eventName, mask);
+    }
+
+    private FieldMask fieldMaskFor(String eventName) {
+        FieldMask mask = eventFieldMasks.get(eventName);
+        return mask != null ? mask : FieldMask.ALL;
+    }
+
+    public void readPositionRecords(Callback callback) {
+        WritableMap response = Arguments.createMap();
+        PositionRecordBuffer records = locationRecords;
+        if (records != null) {
+            response.putMap(SitumMapper.LOCATIONS, records.drain());
+        }
+        records = navigationRecords;
+        if (records != null) {
+            response.putMap(SitumMapper.NAVIGATION, records.drain());
+        }
+        invokeCallback(callback, response);
+    }
+
+    private PositionRecordBuffer buildRecordBuffer(JSONObject options) {
+        if (!options.optBoolean(SitumMapper.USE_RECORD_BUFFER, false)) {
+            return null;
+        }
+        return new PositionRecordBuffer(
+                options.optInt(SitumMapper.RECORD_BUFFER_CAPACITY, PositionRecordBuffer.DEFAULT_CAPACITY));
+    }
+
     public void invalidateCache() {
-        geofencePolygonMap = new HashMap<>();
+        geofencePolygonMap.clear();
+        cartographyCache.clear();
+        entityRegistry.clear();
+        poiSearchIndex.clear();
+        poiSpatialIndex.clear();
+        revalidationCache.clear();
+        cartographyDiffer.clear();
+        BuildingInfoSnapshotStore snapshots = snapshotStore;
+        if (snapshots != null) {
+            snapshots.clear();
+        }
+        ImageFileStore images = imageFileStore;
+        if (images != null) {
+            images.clear();
+        }
+        FloorTileStore tiles = floorTileStore;
+        if (tiles != null) {
+            tiles.clear();
+        }
+        PoiCategoryAtlasStore atlases = poiCategoryAtlasStore;
+        if (atlases != null) {
+            atlases.clear();
+        }
         getCommunicationManagerInstance().invalidateCache();
     }
 
+    private interface EntityAction<T> {
+        void run(T entity);
+    }
+
+    /**
+     * Resolves a building sent by JS, reusing the registered one when its identifier is known.
+     */
+    private void withBuilding(ReadableMap buildingMap, Callback error, EntityAction<Building> action) {
+        Building building;
+        try {
+            building = entityRegistry.building(identifierFrom(buildingMap, SitumMapper.BUILDING_IDENTIFIER));
+            if (building == null) {
+                building = SitumMapper.buildingJsonObjectToBuilding(convertMapToJson(buildingMap));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error parsing building", e.getCause());
+            invokeCallback(error, e.getMessage());
+            return;
+        }
+        action.run(building);
+    }
+
+    /**
+     * Resolves a building identifier, fetching the building list once if it is not registered yet.
+     */
+    private void withBuilding(String buildingId, Callback error, EntityAction<Building> action) {
+        Building building = entityRegistry.building(buildingId);
+        if (building != null) {
+            action.run(building);
+            return;
+        }
+        getCommunicationManagerInstance().fetchBuildings(
+                workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<Building>>() {
+                    @Override
+                    public void onSuccess(Collection<Building> buildings) {
+                        entityRegistry.putBuildings(buildings);
+                        Building fetched = entityRegistry.building(buildingId);
+                        if (fetched != null) {
+                            action.run(fetched);
+                        } else {
+                            invokeCallback(error, "Unknown building " + buildingId);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Error e) {
+                        Log.e(PluginHelper.TAG, "onFailure:" + e);
+                        invokeCallback(error, e.getMessage());
+                    }
+                }));
+    }
+
+    private void withFloor(ReadableMap floorMap, Callback error, EntityAction<Floor> action) {
+        Floor floor;
+        try {
+            floor = entityRegistry.floor(identifierFrom(floorMap, SitumMapper.FLOOR_IDENTIFIER));
+            if (floor == null) {
+                floor = SitumMapper.floorJsonObjectToFloor(ReactNativeUtils.convertMapToJson(floorMap));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in map download", e.getCause());
+            invokeCallback(error, e.getMessage());
+            return;
+        }
+        action.run(floor);
+    }
+
+    private void withCategory(ReadableMap categoryMap, Callback error, EntityAction<PoiCategory> action) {
+        PoiCategory category;
+        try {
+            category = entityRegistry.category(identifierFrom(categoryMap, SitumMapper.POI_CATEGORY_CODE));
+            if (category == null) {
+                category = SitumMapper.poiCategoryFromJsonObject(convertMapToJson(categoryMap));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Unexpected error in situm POI response", e.getCause());
+            invokeCallback(error, e.getMessage());
+            return;
+        }
+        action.run(category);
+    }
+
+    /**
+     * Resolves a category code, fetching the category list once if it is not registered yet.
+     */
+    private void withCategory(String categoryCode, Callback error, EntityAction<PoiCategory> action) {
+        PoiCategory category = entityRegistry.category(categoryCode);
+        if (category != null) {
+            action.run(category);
+            return;
+        }
+        getCommunicationManagerInstance().fetchPoiCategories(
+                workerPool.handler(WorkerPool.CARTOGRAPHY, new Handler<Collection<PoiCategory>>() {
+                    @Override
+                    public void onSuccess(Collection<PoiCategory> categories) {
+                        entityRegistry.putCategories(categories);
+                        PoiCategory fetched = entityRegistry.category(categoryCode);
+                        if (fetched != null) {
+                            action.run(fetched);
+                        } else {
+                            invokeCallback(error, "Unknown POI category " + categoryCode);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Error e) {
+                        Log.e(PluginHelper.TAG, "onFailure:" + e);
+                        invokeCallback(error, e.getMessage());
+                    }
+                }));
+    }
+
+    private static String identifierFrom(ReadableMap map, String key) {
+        if (map == null || !map.hasKey(key)) {
+            return null;
+        }
+        switch (map.getType(key)) {
+            case String:
+                return map.getString(key);
+            case Number:
+                return String.valueOf((long) map.getDouble(key));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Keeps the entities of a fetched building info and returns its mapped form, storing it as snapshot and as last
+     * result when enabled.
+     */
+    private WritableMap registerBuildingInfo(BuildingInfo object, long fingerprint,
+                                             BuildingInfoSnapshotStore snapshots) throws JSONException {
+        entityRegistry.putBuilding(object.getBuilding());
+        entityRegistry.putFloors(object.getFloors());
+        String buildingId = object.getBuilding().getIdentifier();
+        poiSearchIndex.replace(buildingId, false, object.getIndoorPOIs());
+        poiSearchIndex.replace(buildingId, true, object.getOutdoorPOIs());
+        poiSpatialIndex.replace(buildingId, false, object.getIndoorPOIs());
+        poiSpatialIndex.replace(buildingId, true, object.getOutdoorPOIs());
+
+        WritableMap buildingInfo = buildingInfoToWritableMap(object);
+        if (snapshots != null) {
+            snapshots.write(buildingId, buildingInfo.copy(), fingerprint);
+        }
+        if (revalidationEmitter != null) {
+            revalidationCache.putMap(RevalidationCache.buildingInfoKey(buildingId), fingerprint, buildingInfo.copy());
+        }
+        DeviceEventManagerModule.RCTDeviceEventEmitter changes = changesEmitter;
+        if (changes != null) {
+            emitCartographyChanges(changes, object);
+        }
+        return buildingInfo;
+    }
+
+    private void emitCartographyChanges(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter,
+                                        BuildingInfo object) throws JSONException {
+        String buildingId = object.getBuilding().getIdentifier();
+        List<Poi> pois = new ArrayList<>(object.getIndoorPOIs());
+        pois.addAll(object.getOutdoorPOIs());
+        CartographyDiffer.Diff<Floor> floors = cartographyDiffer.diff(buildingId, SitumMapper.FLOORS,
+                object.getFloors(), CartographyDiffer.FLOORS);
+        CartographyDiffer.Diff<Poi> poiChanges = cartographyDiffer.diff(buildingId, SitumMapper.POIS,
+                pois, CartographyDiffer.POIS);
+        CartographyDiffer.Diff<SitumEvent> events = cartographyDiffer.diff(buildingId, SitumMapper.EVENTS,
+                object.getEvents(), CartographyDiffer.EVENTS);
+        CartographyDiffer.Diff<Geofence> geofences = cartographyDiffer.diff(buildingId, SitumMapper.GEOFENCES,
+                object.getGeofences(), CartographyDiffer.GEOFENCES);
+        // All four are recorded together, so they are either all null (first fetch) or none is.
+        if (floors == null || (floors.isEmpty() && poiChanges.isEmpty() && events.isEmpty() && geofences.isEmpty())) {
+            return;
+        }
+
+        WritableMap event = Arguments.createMap();
+        event.putString(SitumMapper.BUILDING_IDENTIFIER, buildingId);
+        event.putMap(SitumMapper.FLOORS, diffToWritableMap(floors, cartographyCache::floor));
+        event.putMap(SitumMapper.POIS, diffToWritableMap(poiChanges, cartographyCache::poi));
+        event.putMap(SitumMapper.EVENTS, diffToWritableMap(events,
+                situmEvent -> convertJsonToMap(SitumMapper.situmEventToJsonObject(situmEvent))));
+        event.putMap(SitumMapper.GEOFENCES, diffToWritableMap(geofences, cartographyCache::geofence));
+        eventEmitter.emit(SitumPlugin.EVENT_CARTOGRAPHY_CHANGED, event);
+    }
+
+    private <T> WritableMap diffToWritableMap(CartographyDiffer.Diff<T> diff, CollectionStreamer.ItemMapper<T> mapper)
+            throws JSONException {
+        WritableMap map = Arguments.createMap();
+        WritableArray added = Arguments.createArray();
+        WritableArray changed = Arguments.createArray();
+        WritableArray removed = Arguments.createArray();
+        try {
+            for (T entity : diff.added) {
+                added.pushMap(mapper.map(entity));
+            }
+            for (T entity : diff.changed) {
+                changed.pushMap(mapper.map(entity));
+            }
+        } catch (JSONException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JSONException(e.getMessage());
+        }
+        for (String identifier : diff.removed) {
+            removed.pushString(identifier);
+        }
+        map.putArray(SitumMapper.ADDED, added);
+        map.putArray(SitumMapper.CHANGED, changed);
+        map.putArray(SitumMapper.REMOVED, removed);
+        return map;
+    }
+
+    private WritableMap buildingInfoToWritableMap(BuildingInfo buildingInfo) throws JSONException {
+        WritableMap map = Arguments.createMap();
+        map.putMap(SitumMapper.BUILDING, cartographyCache.building(buildingInfo.getBuilding()));
+        WritableArray floors = Arguments.createArray();
+        for (Floor floor : buildingInfo.getFloors()) {
+            floors.pushMap(cartographyCache.floor(floor));
+        }
+        map.putArray(SitumMapper.FLOORS, floors);
+        map.putArray(SitumMapper.INDOOR_POIS, poisToWritableArray(buildingInfo.getIndoorPOIs()));
+        map.putArray(SitumMapper.OUTDOOR_POIS, poisToWritableArray(buildingInfo.getOutdoorPOIs()));
+        map.putArray(SitumMapper.EVENTS, convertJsonToArray(SitumMapper.arrayFromEvents(buildingInfo.getEvents())));
+        WritableArray geofences = Arguments.createArray();
+        for (Geofence geofence : buildingInfo.getGeofences()) {
+            geofences.pushMap(cartographyCache.geofence(geofence));
+        }
+        map.putArray(SitumMapper.GEOFENCES, geofences);
+        return map;
+    }
+
+    private WritableArray poisToWritableArray(Collection<Poi> pois) throws JSONException {
+        WritableArray array = Arguments.createArray();
+        for (Poi poi : pois) {
+            array.pushMap(cartographyCache.poi(poi));
+        }
+        return array;
+    }
+
     private void createAndAssignPolygonsToGeofences(List<Geofence> geofences) {
         if (geofences.isEmpty()) {
             return;
@@ -998,7 +2274,22 @@ public class PluginHelper {
             public void onProgress(NavigationProgress progress) {
                 Log.d(TAG, "NavigationListener.onProgress() called with: " + progress);
                 try {
-                    eventEmitter.emit(EVENT_NAVIGATION_PROGRESS, convertMapToReadableMap(progress.toMap()));
+                    PositionRecordBuffer records = navigationRecords;
+                    if (records != null) {
+                        records.write(progress.getClosestLocationInRoute());
+                        long now = SystemClock.elapsedRealtime();
+                        if (now - lastBufferedProgressEvent < 1000 / PositionRecordBuffer.EVENT_RATE) {
+                            return;
+                        }
+                        lastBufferedProgressEvent = now;
+                    }
+                    NavigationProgressDeltaEncoder encoder = progressEncoder;
+                    if (encoder != null) {
+                        eventEmitter.emit(EVENT_NAVIGATION_PROGRESS, encoder.encode(progress));
+                        return;
+                    }
+                    FieldMask mask = fieldMaskFor(EVENT_NAVIGATION_PROGRESS);
+                    eventEmitter.emit(EVENT_NAVIGATION_PROGRESS, convertMapToReadableMap(mask.apply(progress.toMap())));
                 } catch (Exception e) {
                     Log.e(TAG, "error building onProgress() hybrid message with native NavigationProgress: " + progress);
                     eventEmitter.emit(EVENT_NAVIGATION_ERROR, e.getMessage());
@@ -1084,13 +2375,17 @@ public class PluginHelper {
 
     public void onHostResume() {
         ttsManager.setCanSpeak(true);
+        // Hand over whatever was batched while in background.
+        flushLocationBatch();
     }
 
     public void onHostPause() {
         ttsManager.setCanSpeak(false);
+        flushLocationBatch();
     }
 
     public void onHostDestroy() {
         ttsManager.shutdown();
+        workerPool.shutdown();
     }
 }
@@ -0,0 +1,226 @@
+package com.situm.plugin;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.Log;
+
+import com.facebook.react.bridge.Callback;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.situm.plugin.utils.ReactNativeUtils.convertJsonToMap;
+
+/**
+ * POI category icons packed into sprite sheets on disk, one for the normal icons and one for the selected ones, so a
+ * map layer draws every category marker from a single texture.
+ *
+ * An atlas is described by {normal: sheet, selected: sheet}, where a sheet is {uri, width, height, rects} and rects
+ * maps each category code to the {x, y, width, height} of its icon. Atlases are named after a content key of the
+ * categories they hold. The description file is written after both sheets and marks the atlas as complete. Packing
+ * and writing happen in the background, one atlas at a time, on the given serial executor.
+ */
+class PoiCategoryAtlasStore {
+
+    // Keeps filtered sampling of an icon from bleeding into its neighbours.
+    private static final int PADDING = 1;
+
+    private static final String TAG = "PoiCategoryAtlasStore";
+
+    private static class Slot {
+        final String code;
+        final Bitmap icon;
+        int x;
+        int y;
+
+        Slot(String code, Bitmap icon) {
+            this.code = code;
+            this.icon = icon;
+        }
+    }
+
+    private final File directory;
+    private final Executor writer;
+
+    PoiCategoryAtlasStore(File directory, Executor writer) {
+        this.directory = directory;
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the atlas stored for the key, or null.
+     */
+    JSONObject find(String key) {
+        File description = descriptionFile(key);
+        if (!description.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(description)) {
+            byte[] bytes = new byte[(int) description.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new IOException("Truncated atlas description");
+                }
+                read += n;
+            }
+            return new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Discarding unreadable POI category atlas " + key, e);
+            description.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Packs and stores the icons, keyed by category code, in the background, then answers with the atlas map. An
+     * incomplete atlas, missing icons that could not be fetched, gets no description file: it is answered once and
+     * {@link #find} does not serve it later.
+     */
+    void write(String key, Map<String, Bitmap> normal, Map<String, Bitmap> selected, boolean complete,
+               Callback success, Callback error) {
+        writer.execute(() -> {
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Cannot create " + directory);
+                }
+                JSONObject atlas = new JSONObject();
+                atlas.put(SitumMapper.NORMAL, writeSheet(key, SitumMapper.NORMAL, normal));
+                atlas.put(SitumMapper.SELECTED, writeSheet(key, SitumMapper.SELECTED, selected));
+                if (!complete) {
+                    success.invoke(convertJsonToMap(atlas));
+                    return;
+                }
+                File description = descriptionFile(key);
+                File tmp = new File(directory, description.getName() + ".tmp");
+                try (OutputStream out = new FileOutputStream(tmp)) {
+                    out.write(atlas.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                if (!tmp.renameTo(description)) {
+                    throw new IOException("Cannot replace " + description);
+                }
+                success.invoke(convertJsonToMap(atlas));
+            } catch (IOException | JSONException | RuntimeException e) {
+                Log.w(TAG, "Could not store POI category atlas " + key, e);
+                error.invoke(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Deletes every stored atlas. Runs on the writer, after any pending write.
+     */
+    void clear() {
+        writer.execute(() -> {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    private JSONObject writeSheet(String key, String name, Map<String, Bitmap> icons)
+            throws IOException, JSONException {
+        List<Slot> slots = new ArrayList<>();
+        for (Map.Entry<String, Bitmap> icon : icons.entrySet()) {
+            slots.add(new Slot(icon.getKey(), icon.getValue()));
+        }
+        int[] size = pack(slots);
+
+        JSONObject rects = new JSONObject();
+        File file = new File(directory, key + "-" + name + ".png");
+        if (!slots.isEmpty()) {
+            Bitmap sheet = Bitmap.createBitmap(size[0], size[1], Bitmap.Config.ARGB_8888);
+            try {
+                Canvas canvas = new Canvas(sheet);
+                Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+                for (Slot slot : slots) {
+                    canvas.drawBitmap(slot.icon, slot.x, slot.y, paint);
+                    JSONObject rect = new JSONObject();
+                    rect.put(SitumMapper.X, slot.x);
+                    rect.put(SitumMapper.Y, slot.y);
+                    rect.put(SitumMapper.WIDTH, slot.icon.getWidth());
+                    rect.put(SitumMapper.HEIGHT, slot.icon.getHeight());
+                    rects.put(slot.code, rect);
+                }
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                    if (!sheet.compress(Bitmap.CompressFormat.PNG, 100, out)) {
+                        throw new IOException("Cannot encode POI category atlas");
+                    }
+                }
+            } finally {
+                sheet.recycle();
+            }
+        }
+
+        JSONObject json = new JSONObject();
+        // An atlas without icons has no sheet file.
+        json.put(SitumMapper.URI, slots.isEmpty() ? JSONObject.NULL : "file://" + file.getAbsolutePath());
+        json.put(SitumMapper.WIDTH, size[0]);
+        json.put(SitumMapper.HEIGHT, size[1]);
+        json.put(SitumMapper.RECTS, rects);
+        return json;
+    }
+
+    /**
+     * Shelf packing: tallest icons first, left to right in rows as wide as a square sheet of the same area would be.
+     * Sets the position of every slot and returns the sheet {width, height}.
+     */
+    private static int[] pack(List<Slot> slots) {
+        Collections.sort(slots, new Comparator<Slot>() {
+            @Override
+            public int compare(Slot a, Slot b) {
+                int byHeight = Integer.compare(b.icon.getHeight(), a.icon.getHeight());
+                return byHeight != 0 ? byHeight : a.code.compareTo(b.code);
+            }
+        });
+        long area = 0;
+        int widest = 0;
+        for (Slot slot : slots) {
+            area += (long) (slot.icon.getWidth() + PADDING) * (slot.icon.getHeight() + PADDING);
+            widest = Math.max(widest, slot.icon.getWidth() + PADDING);
+        }
+        int rowWidth = Math.max(widest, (int) Math.ceil(Math.sqrt(area)));
+
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        int width = 0;
+        for (Slot slot : slots) {
+            if (x > 0 && x + slot.icon.getWidth() + PADDING > rowWidth) {
+                y += rowHeight;
+                x = 0;
+                rowHeight = 0;
+            }
+            slot.x = x;
+            slot.y = y;
+            x += slot.icon.getWidth() + PADDING;
+            rowHeight = Math.max(rowHeight, slot.icon.getHeight() + PADDING);
+            width = Math.max(width, x);
+        }
+        return new int[]{width, y + rowHeight};
+    }
+
+    private File descriptionFile(String key) {
+        return new File(directory, key + ".json");
+    }
+}
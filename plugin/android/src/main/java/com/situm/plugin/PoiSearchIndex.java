@@ -0,0 +1,366 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.model.cartography.PoiCategory;
+
+/**
+ * In-memory search index over fetched POIs, so JS can search without holding every POI.
+ *
+ * POI names, category names and codes, and custom field values are normalised (lowercase, no diacritics) and split
+ * into tokens. Every query token has to match some token of a POI, trying in order:
+ * <ul>
+ *     <li>exact token,</li>
+ *     <li>token prefix,</li>
+ *     <li>similar token, by trigram similarity (only when the first two found nothing).</li>
+ * </ul>
+ * Matches are weighted by field (name over category over custom fields) and match kind, and results are ranked by
+ * the summed score.
+ *
+ * Each fetch replaces the indoor or outdoor POIs indexed for its building, so POIs deleted since the last fetch stop
+ * matching.
+ */
+class PoiSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float CUSTOM_FIELD_WEIGHT = 1f;
+
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.8f;
+    private static final float FUZZY_MATCH = 0.5f;
+    private static final float MIN_TRIGRAM_SIMILARITY = 0.45f;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static class Document {
+        final String identifier;
+        final String name;
+        final String buildingIdentifier;
+        final String floorIdentifier;
+        final String categoryCode;
+        final boolean outdoor;
+        final long updatedAt;
+        boolean removed = false;
+
+        Document(Poi poi) {
+            identifier = poi.getIdentifier();
+            name = poi.getName();
+            buildingIdentifier = poi.getBuildingIdentifier();
+            outdoor = poi.isOutdoor();
+            floorIdentifier = poi.getFloorIdentifier();
+            categoryCode = poi.getCategory() != null ? poi.getCategory().getCode() : null;
+            updatedAt = poi.getUpdatedAt() != null ? poi.getUpdatedAt().getTime() : 0;
+        }
+    }
+
+    private static class Posting {
+        final int document;
+        final float weight;
+
+        Posting(int document, float weight) {
+            this.document = document;
+            this.weight = weight;
+        }
+    }
+
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> documentsById = new HashMap<>();
+    private final TreeMap<String, List<Posting>> postings = new TreeMap<>();
+    private final Map<String, List<String>> tokensByTrigram = new HashMap<>();
+    private int removedCount = 0;
+
+    /**
+     * Replaces the indoor (or outdoor) POIs indexed for the building with the fetched ones.
+     */
+    synchronized void replace(String buildingIdentifier, boolean outdoor, Collection<Poi> pois) {
+        Set<String> fetched = new HashSet<>();
+        for (Poi poi : pois) {
+            fetched.add(poi.getIdentifier());
+        }
+        for (Document document : documents) {
+            if (!document.removed && document.outdoor == outdoor
+                    && document.buildingIdentifier != null && document.buildingIdentifier.equals(buildingIdentifier)
+                    && !fetched.contains(document.identifier)) {
+                remove(document);
+            }
+        }
+        for (Poi poi : pois) {
+            add(poi);
+        }
+        if (removedCount > documents.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the best matches for the query, best first, as {identifier, poiName, buildingIdentifier,
+     * floorIdentifier, poiCategoryCode, score} maps.
+     */
+    synchronized WritableArray search(String query, int limit) {
+        WritableArray results = Arguments.createArray();
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        Map<Integer, Float> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<Integer, Float> tokenScores = scoreToken(queryToken);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Every query token has to match.
+                Map<Integer, Float> combined = new HashMap<>();
+                for (Map.Entry<Integer, Float> entry : tokenScores.entrySet()) {
+                    Float previous = scores.get(entry.getKey());
+                    if (previous != null) {
+                        combined.put(entry.getKey(), previous + entry.getValue());
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return results;
+            }
+        }
+
+        List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(scores.entrySet());
+        Collections.sort(ranked, new Comparator<Map.Entry<Integer, Float>>() {
+            @Override
+            public int compare(Map.Entry<Integer, Float> a, Map.Entry<Integer, Float> b) {
+                int byScore = Float.compare(b.getValue(), a.getValue());
+                if (byScore != 0) {
+                    return byScore;
+                }
+                // Shorter names first: "Gate 1" before "Gate 1 Lounge".
+                return Integer.compare(nameLength(a.getKey()), nameLength(b.getKey()));
+            }
+        });
+
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            Document document = documents.get(ranked.get(i).getKey());
+            WritableMap result = Arguments.createMap();
+            result.putString(SitumMapper.IDENTIFIER, document.identifier);
+            result.putString(SitumMapper.POI_NAME, document.name);
+            result.putString(SitumMapper.BUILDING_IDENTIFIER, document.buildingIdentifier);
+            result.putString(SitumMapper.FLOOR_IDENTIFIER, document.floorIdentifier);
+            result.putString(SitumMapper.POI_CATEGORY_CODE, document.categoryCode);
+            result.putDouble(SitumMapper.SCORE, ranked.get(i).getValue());
+            results.pushMap(result);
+        }
+        return results;
+    }
+
+    synchronized void clear() {
+        documents.clear();
+        documentsById.clear();
+        postings.clear();
+        tokensByTrigram.clear();
+        removedCount = 0;
+    }
+
+    private void add(Poi poi) {
+        if (poi.getIdentifier() == null) {
+            return;
+        }
+        Document document = new Document(poi);
+        Integer previous = documentsById.get(document.identifier);
+        if (previous != null) {
+            Document existing = documents.get(previous);
+            if (existing.updatedAt == document.updatedAt && document.updatedAt != 0) {
+                return;
+            }
+            remove(existing);
+        }
+        int index = documents.size();
+        documents.add(document);
+        documentsById.put(document.identifier, index);
+
+        Map<String, Float> weights = new HashMap<>();
+        addTokens(weights, poi.getName(), NAME_WEIGHT);
+        PoiCategory category = poi.getCategory();
+        if (category != null) {
+            addTokens(weights, category.getName(), CATEGORY_WEIGHT);
+            addTokens(weights, category.getCode(), CATEGORY_WEIGHT);
+        }
+        if (poi.getCustomFields() != null) {
+            for (String value : poi.getCustomFields().values()) {
+                addTokens(weights, value, CUSTOM_FIELD_WEIGHT);
+            }
+        }
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            List<Posting> list = postings.get(entry.getKey());
+            if (list == null) {
+                list = new ArrayList<>();
+                postings.put(entry.getKey(), list);
+                indexTrigrams(entry.getKey());
+            }
+            list.add(new Posting(index, entry.getValue()));
+        }
+    }
+
+    private void remove(Document document) {
+        document.removed = true;
+        documentsById.remove(document.identifier);
+        removedCount++;
+    }
+
+    /**
+     * Drops replaced documents and renumbers the postings of the live ones.
+     */
+    private void compact() {
+        Map<Integer, Integer> newIndexes = new HashMap<>();
+        List<Document> live = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            if (!document.removed) {
+                newIndexes.put(i, live.size());
+                live.add(document);
+            }
+        }
+        documents.clear();
+        documentsById.clear();
+        for (Document document : live) {
+            documentsById.put(document.identifier, documents.size());
+            documents.add(document);
+        }
+        for (Map.Entry<String, List<Posting>> entry : postings.entrySet()) {
+            List<Posting> kept = new ArrayList<>();
+            for (Posting posting : entry.getValue()) {
+                Integer newIndex = newIndexes.get(posting.document);
+                if (newIndex != null) {
+                    kept.add(new Posting(newIndex, posting.weight));
+                }
+            }
+            // Emptied tokens stay, so the trigram index never points to a missing token.
+            entry.setValue(kept);
+        }
+        removedCount = 0;
+    }
+
+    private void addTokens(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            Float previous = weights.get(token);
+            if (previous == null || previous < weight) {
+                weights.put(token, weight);
+            }
+        }
+    }
+
+    private void indexTrigrams(String token) {
+        for (String trigram : trigrams(token)) {
+            List<String> tokens = tokensByTrigram.get(trigram);
+            if (tokens == null) {
+                tokens = new ArrayList<>();
+                tokensByTrigram.put(trigram, tokens);
+            }
+            tokens.add(token);
+        }
+    }
+
+    private Map<Integer, Float> scoreToken(String queryToken) {
+        Map<Integer, Float> scores = new HashMap<>();
+        List<Posting> exact = postings.get(queryToken);
+        if (exact != null) {
+            collect(scores, exact, EXACT_MATCH);
+        }
+        for (Map.Entry<String, List<Posting>> entry
+                : postings.subMap(queryToken, false, queryToken + Character.MAX_VALUE, true).entrySet()) {
+            collect(scores, entry.getValue(), PREFIX_MATCH);
+        }
+        if (scores.isEmpty() && queryToken.length() >= 3) {
+            for (Map.Entry<String, Float> similar : similarTokens(queryToken).entrySet()) {
+                collect(scores, postings.get(similar.getKey()), FUZZY_MATCH * similar.getValue());
+            }
+        }
+        return scores;
+    }
+
+    private void collect(Map<Integer, Float> scores, List<Posting> list, float factor) {
+        for (Posting posting : list) {
+            if (documents.get(posting.document).removed) {
+                continue;
+            }
+            float score = posting.weight * factor;
+            Float previous = scores.get(posting.document);
+            if (previous == null || previous < score) {
+                scores.put(posting.document, score);
+            }
+        }
+    }
+
+    /**
+     * Indexed tokens whose trigram (Dice) similarity to the query token is high enough, with that similarity.
+     */
+    private Map<String, Float> similarTokens(String queryToken) {
+        Set<String> queryTrigrams = trigrams(queryToken);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            List<String> tokens = tokensByTrigram.get(trigram);
+            if (tokens == null) {
+                continue;
+            }
+            for (String token : tokens) {
+                Integer count = shared.get(token);
+                shared.put(token, count == null ? 1 : count + 1);
+            }
+        }
+        Map<String, Float> similar = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            // A token of length n has n trigrams once padded.
+            float similarity = 2f * entry.getValue() / (queryTrigrams.size() + entry.getKey().length());
+            if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                similar.put(entry.getKey(), similarity);
+            }
+        }
+        return similar;
+    }
+
+    private int nameLength(int document) {
+        String name = documents.get(document).name;
+        return name != null ? name.length() : Integer.MAX_VALUE;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "  " + token;
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,257 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import es.situm.sdk.model.cartography.Poi;
+
+/**
+ * Spatial index over fetched POI positions, so the map and "nearby" lists can query POIs natively instead of scanning
+ * every POI in JS on each camera move or location update.
+ *
+ * POIs are grouped by floor (outdoor POIs by building) and each group is kept in an STRtree over geographic
+ * coordinates, x being the longitude and y the latitude. An STRtree can't be modified once built, so changed groups are
+ * only marked dirty and rebuilt on their next query.
+ *
+ * Each fetch replaces the indoor or outdoor POIs indexed for its building, so POIs deleted since the last fetch are
+ * dropped.
+ */
+class PoiSpatialIndex {
+
+    private static final double METERS_PER_DEGREE = 111320;
+    private static final double INITIAL_SEARCH_RADIUS = 25;
+
+    private static class Entry {
+        final String identifier;
+        final String name;
+        final String buildingIdentifier;
+        final String floorIdentifier;
+        final String categoryCode;
+        final boolean outdoor;
+        final double latitude;
+        final double longitude;
+
+        Entry(Poi poi) {
+            identifier = poi.getIdentifier();
+            name = poi.getName();
+            buildingIdentifier = poi.getBuildingIdentifier();
+            floorIdentifier = poi.getFloorIdentifier();
+            outdoor = poi.isOutdoor();
+            categoryCode = poi.getCategory() != null ? poi.getCategory().getCode() : null;
+            latitude = poi.getCoordinate().getLatitude();
+            longitude = poi.getCoordinate().getLongitude();
+        }
+    }
+
+    private static class Group {
+        final Map<String, Entry> entries = new HashMap<>();
+        STRtree tree;
+        Envelope extent;
+
+        void build() {
+            tree = new STRtree();
+            extent = new Envelope();
+            for (Entry entry : entries.values()) {
+                tree.insert(new Envelope(entry.longitude, entry.longitude, entry.latitude, entry.latitude), entry);
+                extent.expandToInclude(entry.longitude, entry.latitude);
+            }
+            tree.build();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Entry> query(Envelope envelope) {
+            if (tree == null) {
+                build();
+            }
+            return tree.query(envelope);
+        }
+    }
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<String, String> groupByPoi = new HashMap<>();
+
+    /**
+     * Replaces the indoor (or outdoor) POIs indexed for the building with the fetched ones.
+     */
+    synchronized void replace(String buildingIdentifier, boolean outdoor, Collection<Poi> pois) {
+        Set<String> fetched = new HashSet<>();
+        for (Poi poi : pois) {
+            fetched.add(poi.getIdentifier());
+        }
+        for (Group group : groups.values()) {
+            Iterator<Entry> entries = group.entries.values().iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.outdoor == outdoor && entry.buildingIdentifier != null
+                        && entry.buildingIdentifier.equals(buildingIdentifier) && !fetched.contains(entry.identifier)) {
+                    entries.remove();
+                    groupByPoi.remove(entry.identifier);
+                    group.tree = null;
+                }
+            }
+        }
+        for (Poi poi : pois) {
+            if (poi.getIdentifier() == null || poi.getCoordinate() == null) {
+                continue;
+            }
+            Entry entry = new Entry(poi);
+            String key = groupKey(entry.buildingIdentifier, entry.outdoor ? null : entry.floorIdentifier);
+            String previousKey = groupByPoi.put(entry.identifier, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                Group previous = groups.get(previousKey);
+                previous.entries.remove(entry.identifier);
+                previous.tree = null;
+            }
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group();
+                groups.put(key, group);
+            }
+            group.entries.put(entry.identifier, entry);
+            group.tree = null;
+        }
+    }
+
+    /**
+     * POIs of the floor inside the given bounds, as {identifier, poiName, buildingIdentifier, floorIdentifier,
+     * poiCategoryCode, coordinate} maps.
+     */
+    synchronized WritableArray queryInBounds(String floorIdentifier, double south, double west, double north,
+                                             double east) {
+        WritableArray results = Arguments.createArray();
+        Group group = groups.get(groupKey(null, floorIdentifier));
+        if (group == null) {
+            return results;
+        }
+        for (Entry entry : group.query(new Envelope(west, east, south, north))) {
+            results.pushMap(entryToWritableMap(entry));
+        }
+        return results;
+    }
+
+    /**
+     * Up to k POIs closest to the given position, closest first, with their distance in meters. Only POIs of the same
+     * floor (or outdoor POIs of the same building when floorIdentifier is an outdoor one, see {@link #isOutdoorFloor})
+     * are considered. A null categoryCodes means any category.
+     */
+    synchronized WritableArray nearest(String buildingIdentifier, String floorIdentifier, double latitude,
+                                       double longitude, int k, Set<String> categoryCodes) {
+        WritableArray results = Arguments.createArray();
+        Group group = groups.get(groupKey(buildingIdentifier, floorIdentifier));
+        if (group == null || group.entries.isEmpty() || k <= 0) {
+            return results;
+        }
+        if (group.tree == null) {
+            group.build();
+        }
+
+        // Widen the search window until it holds k matches within its radius, or covers the whole group. Matches
+        // outside the radius could still be farther than unseen POIs near the window corners.
+        double metersPerDegreeOfLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        List<Entry> matches = new ArrayList<>();
+        Map<Entry, Double> distances = new HashMap<>();
+        for (double radius = INITIAL_SEARCH_RADIUS; ; radius *= 2) {
+            double deltaLatitude = radius / METERS_PER_DEGREE;
+            double deltaLongitude = radius / Math.max(metersPerDegreeOfLongitude, 1);
+            Envelope window = new Envelope(longitude - deltaLongitude, longitude + deltaLongitude,
+                    latitude - deltaLatitude, latitude + deltaLatitude);
+            matches.clear();
+            int withinRadius = 0;
+            for (Entry entry : group.query(window)) {
+                if (categoryCodes != null && !categoryCodes.contains(entry.categoryCode)) {
+                    continue;
+                }
+                double distance = distance(latitude, longitude, entry, metersPerDegreeOfLongitude);
+                distances.put(entry, distance);
+                matches.add(entry);
+                if (distance <= radius) {
+                    withinRadius++;
+                }
+            }
+            if (withinRadius >= k || window.contains(group.extent)) {
+                break;
+            }
+        }
+
+        Collections.sort(matches, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return Double.compare(distances.get(a), distances.get(b));
+            }
+        });
+        for (int i = 0; i < matches.size() && i < k; i++) {
+            WritableMap result = entryToWritableMap(matches.get(i));
+            result.putDouble(SitumMapper.DISTANCE, distances.get(matches.get(i)));
+            results.pushMap(result);
+        }
+        return results;
+    }
+
+    synchronized void clear() {
+        groups.clear();
+        groupByPoi.clear();
+    }
+
+    static Set<String> codes(List<Object> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        Set<String> codes = new HashSet<>();
+        for (Object value : values) {
+            if (value != null) {
+                codes.add(value.toString());
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Whether the floor identifier stands for outdoors: missing, empty or "-1", as found in outdoor positions.
+     */
+    static boolean isOutdoorFloor(String floorIdentifier) {
+        return floorIdentifier == null || floorIdentifier.isEmpty() || floorIdentifier.equals("-1");
+    }
+
+    private static String groupKey(String buildingIdentifier, String floorIdentifier) {
+        // Floor identifiers are unique across buildings.
+        return isOutdoorFloor(floorIdentifier) ? "outdoor:" + buildingIdentifier : floorIdentifier;
+    }
+
+    /**
+     * Equirectangular approximation, accurate enough at building scale.
+     */
+    private static double distance(double latitude, double longitude, Entry entry, double metersPerDegreeOfLongitude) {
+        double dx = (entry.longitude - longitude) * metersPerDegreeOfLongitude;
+        double dy = (entry.latitude - latitude) * METERS_PER_DEGREE;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static WritableMap entryToWritableMap(Entry entry) {
+        WritableMap map = Arguments.createMap();
+        map.putString(SitumMapper.IDENTIFIER, entry.identifier);
+        map.putString(SitumMapper.POI_NAME, entry.name);
+        map.putString(SitumMapper.BUILDING_IDENTIFIER, entry.buildingIdentifier);
+        map.putString(SitumMapper.FLOOR_IDENTIFIER, entry.floorIdentifier);
+        map.putString(SitumMapper.POI_CATEGORY_CODE, entry.categoryCode);
+        WritableMap coordinate = Arguments.createMap();
+        coordinate.putDouble(SitumMapper.LATITUDE, entry.latitude);
+        coordinate.putDouble(SitumMapper.LONGITUDE, entry.longitude);
+        map.putMap(SitumMapper.COORDINATE, coordinate);
+        return map;
+    }
+}
@@ -0,0 +1,134 @@
+package com.situm.plugin;
+
+import android.util.Base64;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import es.situm.sdk.model.location.Location;
+
+/**
+ * Fixed-capacity ring buffer of fixed-layout position records.
+ *
+ * Every record takes {@link #RECORD_SIZE} doubles laid out as described by the field offsets below. Floor
+ * identifiers are replaced by an index into a floor table that is returned alongside the records, so a drain only
+ * carries flat numbers instead of one nested map per location.
+ *
+ * A drain packs the records as little-endian doubles into a single Base64 string, which JS decodes into a
+ * Float64Array. Crossing the bridge as one string avoids boxing every number into its own array entry.
+ *
+ * When JS does not drain fast enough the oldest records are overwritten and reported as dropped.
+ *
+ * The events the buffer replaces are still emitted at {@link #EVENT_RATE}, so the MapView and the navigation, which
+ * follow them, keep working.
+ */
+class PositionRecordBuffer {
+
+    static final int LATITUDE = 0;
+    static final int LONGITUDE = 1;
+    static final int X = 2;
+    static final int Y = 3;
+    static final int ACCURACY = 4;
+    static final int BEARING = 5;
+    static final int FLOOR_INDEX = 6;
+    static final int TIMESTAMP = 7;
+    static final int RECORD_SIZE = 8;
+
+    static final int DEFAULT_CAPACITY = 64;
+    // Hz
+    static final double EVENT_RATE = 1;
+    static final int NO_FLOOR = -1;
+
+    static final String RECORDS = "records";
+    static final String RECORD_SIZE_KEY = "recordSize";
+    static final String COUNT = "count";
+    static final String FLOORS = "floors";
+    static final String DROPPED = "dropped";
+
+    private final double[] records;
+    private final int capacity;
+    private final List<String> floorTable = new ArrayList<>();
+    private final Map<String, Integer> floorIndexes = new HashMap<>();
+    // Monotonic counters: the write/read positions in the ring are derived from them.
+    private long written = 0;
+    private long read = 0;
+
+    PositionRecordBuffer(int capacity) {
+        this.capacity = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+        this.records = new double[this.capacity * RECORD_SIZE];
+    }
+
+    synchronized void write(Location location) {
+        int offset = (int) (written % capacity) * RECORD_SIZE;
+        records[offset + LATITUDE] = location.getCoordinate().getLatitude();
+        records[offset + LONGITUDE] = location.getCoordinate().getLongitude();
+        if (location.isIndoor()) {
+            records[offset + X] = location.getCartesianCoordinate().getX();
+            records[offset + Y] = location.getCartesianCoordinate().getY();
+        } else {
+            records[offset + X] = Double.NaN;
+            records[offset + Y] = Double.NaN;
+        }
+        records[offset + ACCURACY] = location.getAccuracy();
+        records[offset + BEARING] = location.getBearing().degrees();
+        records[offset + FLOOR_INDEX] = floorIndexOf(location.getFloorIdentifier());
+        records[offset + TIMESTAMP] = location.getTime();
+        written++;
+    }
+
+    /**
+     * Returns every record written since the previous drain, packed as described above, together with the floor table
+     * and the number of records that were overwritten before JS could read them.
+     */
+    synchronized WritableMap drain() {
+        long dropped = 0;
+        if (written - read > capacity) {
+            dropped = written - read - capacity;
+            read = written - capacity;
+        }
+
+        int count = (int) (written - read);
+        ByteBuffer packed = ByteBuffer.allocate(count * RECORD_SIZE * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (long i = read; i < written; i++) {
+            int offset = (int) (i % capacity) * RECORD_SIZE;
+            for (int field = 0; field < RECORD_SIZE; field++) {
+                packed.putDouble(records[offset + field]);
+            }
+        }
+        read = written;
+
+        WritableArray floors = Arguments.createArray();
+        for (String floor : floorTable) {
+            floors.pushString(floor);
+        }
+
+        WritableMap result = Arguments.createMap();
+        result.putString(RECORDS, Base64.encodeToString(packed.array(), Base64.NO_WRAP));
+        result.putInt(COUNT, count);
+        result.putInt(RECORD_SIZE_KEY, RECORD_SIZE);
+        result.putArray(FLOORS, floors);
+        result.putDouble(DROPPED, dropped);
+        return result;
+    }
+
+    private int floorIndexOf(String floorIdentifier) {
+        if (floorIdentifier == null || floorIdentifier.isEmpty() || floorIdentifier.equals("-1")) {
+            return NO_FLOOR;
+        }
+        Integer index = floorIndexes.get(floorIdentifier);
+        if (index == null) {
+            index = floorTable.size();
+            floorTable.add(floorIdentifier);
+            floorIndexes.put(floorIdentifier, index);
+        }
+        return index;
+    }
+}
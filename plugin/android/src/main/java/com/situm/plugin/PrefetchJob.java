@@ -0,0 +1,248 @@
+package com.situm.plugin;
+
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static com.situm.plugin.SitumPlugin.EVENT_PREFETCH_COMPLETED;
+import static com.situm.plugin.SitumPlugin.EVENT_PREFETCH_PROGRESS;
+
+/**
+ * Runs the fetches of one prefetchBuildings request with at most {@code concurrency} of them in flight.
+ *
+ * Steps can be added while the job runs (floor maps once the building info is known, icons once the categories are).
+ * Each finished step is reported with a prefetchProgress event, and prefetchCompleted is emitted once nothing is
+ * running or queued. Image steps answer with the size of the stored file. For the other steps, byte counts are
+ * estimates of the mapped payloads. Neither is the network traffic.
+ */
+class PrefetchJob {
+
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    static final String STEP_BUILDING_INFO = "buildingInfo";
+    static final String STEP_GEOFENCES = "geofences";
+    static final String STEP_FLOOR_MAP = "floorMap";
+    static final String STEP_POI_CATEGORIES = "poiCategories";
+    static final String STEP_CATEGORY_ICON = "categoryIcon";
+
+    /**
+     * A fetch reporting its result to exactly one of the callbacks.
+     */
+    interface Step {
+        void run(Callback success, Callback error);
+    }
+
+    private static class Pending {
+        final String buildingIdentifier;
+        final String name;
+        final Step step;
+
+        Pending(String buildingIdentifier, String name, Step step) {
+            this.buildingIdentifier = buildingIdentifier;
+            this.name = name;
+            this.step = step;
+        }
+    }
+
+    /**
+     * Guards against steps reporting more than once.
+     */
+    private static class Once {
+        private boolean claimed = false;
+
+        synchronized boolean claim() {
+            if (claimed) {
+                return false;
+            }
+            claimed = true;
+            return true;
+        }
+    }
+
+    private final DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter;
+    private final String requestId;
+    private final int concurrency;
+    private final Queue<Pending> queue = new ArrayDeque<>();
+    private final long startedAt = SystemClock.elapsedRealtime();
+    private boolean started = false;
+    private boolean finished = false;
+    private int running = 0;
+    private int total = 0;
+    private int completed = 0;
+    private int failed = 0;
+    private long bytes = 0;
+
+    PrefetchJob(DeviceEventManagerModule.RCTDeviceEventEmitter eventEmitter, String requestId, int concurrency) {
+        this.eventEmitter = eventEmitter;
+        this.requestId = requestId;
+        this.concurrency = concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+    }
+
+    void add(String buildingIdentifier, String name, Step step) {
+        synchronized (this) {
+            total++;
+            queue.add(new Pending(buildingIdentifier, name, step));
+        }
+        pump();
+    }
+
+    /**
+     * Starts running the steps added so far. Steps added before this call can't complete the job early.
+     */
+    void start() {
+        synchronized (this) {
+            started = true;
+        }
+        pump();
+    }
+
+    private void pump() {
+        List<Pending> toRun = new ArrayList<>();
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            while (running < concurrency && !queue.isEmpty()) {
+                toRun.add(queue.poll());
+                running++;
+            }
+            if (running == 0 && !finished) {
+                finished = true;
+                emitCompleted();
+            }
+        }
+        // Outside the lock: steps may answer synchronously and call back into the job.
+        for (Pending pending : toRun) {
+            run(pending);
+        }
+    }
+
+    private void run(Pending pending) {
+        Once once = new Once();
+        try {
+            pending.step.run(
+                    args -> {
+                        if (once.claim()) {
+                            finish(pending, args.length > 0 ? args[0] : null, null);
+                        }
+                    },
+                    args -> {
+                        if (once.claim()) {
+                            finish(pending, null, args.length > 0 ? String.valueOf(args[0]) : null);
+                        }
+                    });
+        } catch (Exception e) {
+            if (once.claim()) {
+                finish(pending, null, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(Pending pending, Object result, String error) {
+        synchronized (this) {
+            running--;
+            long size = 0;
+            if (error == null) {
+                completed++;
+                size = estimateSize(result);
+                bytes += size;
+            } else {
+                failed++;
+            }
+            WritableMap progress = Arguments.createMap();
+            progress.putString(SitumMapper.REQUEST_ID, requestId);
+            progress.putString(SitumMapper.BUILDING_IDENTIFIER, pending.buildingIdentifier);
+            progress.putString(SitumMapper.PREFETCH_STEP, pending.name);
+            progress.putDouble(SitumMapper.BYTES, size);
+            if (error != null) {
+                progress.putString(SitumMapper.ERROR_MESSAGE, error);
+            }
+            putCounters(progress);
+            eventEmitter.emit(EVENT_PREFETCH_PROGRESS, progress);
+        }
+        pump();
+    }
+
+    private void emitCompleted() {
+        WritableMap result = Arguments.createMap();
+        result.putString(SitumMapper.REQUEST_ID, requestId);
+        putCounters(result);
+        result.putDouble(SitumMapper.BYTES, bytes);
+        result.putDouble(SitumMapper.ELAPSED_TIME, SystemClock.elapsedRealtime() - startedAt);
+        eventEmitter.emit(EVENT_PREFETCH_COMPLETED, result);
+    }
+
+    private void putCounters(WritableMap map) {
+        map.putInt(SitumMapper.COMPLETED, completed);
+        map.putInt(SitumMapper.FAILED, failed);
+        map.putInt(SitumMapper.TOTAL, total);
+    }
+
+    /**
+     * Rough size of a result: string lengths plus eight bytes per number, or the result itself when it is a number.
+     */
+    private static long estimateSize(Object value) {
+        if (value instanceof Number) {
+            // Steps that know their size answer with it.
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof ReadableMap) {
+            ReadableMap map = (ReadableMap) value;
+            long size = 0;
+            ReadableMapKeySetIterator iterator = map.keySetIterator();
+            while (iterator.hasNextKey()) {
+                String key = iterator.nextKey();
+                size += key.length() + estimateEntrySize(map, key);
+            }
+            return size;
+        }
+        if (value instanceof ReadableArray) {
+            ReadableArray array = (ReadableArray) value;
+            long size = 0;
+            for (int i = 0; i < array.size(); i++) {
+                switch (array.getType(i)) {
+                    case String:
+                        size += array.getString(i).length();
+                        break;
+                    case Map:
+                        size += estimateSize(array.getMap(i));
+                        break;
+                    case Array:
+                        size += estimateSize(array.getArray(i));
+                        break;
+                    default:
+                        size += 8;
+                }
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    private static long estimateEntrySize(ReadableMap map, String key) {
+        switch (map.getType(key)) {
+            case String:
+                return map.getString(key).length();
+            case Map:
+                return estimateSize(map.getMap(key));
+            case Array:
+                return estimateSize(map.getArray(key));
+            default:
+                return 8;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.situm.plugin;
+
+import com.situm.plugin.utils.LocationUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import es.situm.sdk.model.location.Location;
+
+/**
+ * Keeps the last location emitted to JS for every realtime device and diffs each new poll against it, so only
+ * devices that appeared, moved or disappeared have to cross the bridge.
+ *
+ * A device counts as moved when it changed floor, when it is farther than the distance threshold from the last
+ * emitted location, or (if a time threshold is set) when its last emitted location is older than that threshold.
+ * Every {@code keyframeInterval} polls a full snapshot is emitted instead, so JS can resynchronise. Polls that change
+ * nothing, including the first ones while there are no devices at all, produce an empty delta and are not emitted.
+ */
+class RealtimeDeviceStore {
+
+    static final double DEFAULT_DISTANCE_THRESHOLD = 0.5;
+    static final long DEFAULT_TIME_THRESHOLD = 0;
+    static final int DEFAULT_KEYFRAME_INTERVAL = 10;
+
+    static class Delta {
+        final boolean keyframe;
+        final List<Location> added = new ArrayList<>();
+        final List<Location> moved = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+        private final boolean hadDevices;
+
+        Delta(boolean keyframe, boolean hadDevices) {
+            this.keyframe = keyframe;
+            this.hadDevices = hadDevices;
+        }
+
+        /**
+         * Whether there is nothing to tell JS. A keyframe over previously known devices is never empty, even with no
+         * devices left, because it replaces the whole state on the JS side.
+         */
+        boolean isEmpty() {
+            return added.isEmpty() && moved.isEmpty() && removed.isEmpty() && !(keyframe && hadDevices);
+        }
+    }
+
+    private final double distanceThreshold;
+    private final long timeThreshold;
+    private final int keyframeInterval;
+    private final Map<String, Location> emitted = new HashMap<>();
+    private int pollsSinceKeyframe = 0;
+
+    RealtimeDeviceStore(double distanceThreshold, long timeThreshold, int keyframeInterval) {
+        this.distanceThreshold = Math.max(0, distanceThreshold);
+        this.timeThreshold = Math.max(0, timeThreshold);
+        this.keyframeInterval = keyframeInterval > 0 ? keyframeInterval : DEFAULT_KEYFRAME_INTERVAL;
+    }
+
+    synchronized Delta diff(List<Location> locations) {
+        boolean hadDevices = !emitted.isEmpty();
+        boolean keyframe = !hadDevices || pollsSinceKeyframe >= keyframeInterval - 1;
+        Delta delta = new Delta(keyframe, hadDevices);
+        Set<String> seen = new HashSet<>();
+
+        for (Location location : locations) {
+            String deviceId = location.getDeviceId();
+            if (deviceId == null || !seen.add(deviceId)) {
+                continue;
+            }
+            Location previous = emitted.get(deviceId);
+            if (previous == null) {
+                delta.added.add(location);
+                emitted.put(deviceId, location);
+            } else if (keyframe) {
+                delta.added.add(location);
+                emitted.put(deviceId, location);
+            } else if (hasMoved(previous, location)) {
+                delta.moved.add(location);
+                emitted.put(deviceId, location);
+            }
+        }
+
+        List<String> gone = new ArrayList<>();
+        for (String deviceId : emitted.keySet()) {
+            if (!seen.contains(deviceId)) {
+                gone.add(deviceId);
+            }
+        }
+        for (String deviceId : gone) {
+            emitted.remove(deviceId);
+            if (!keyframe) {
+                delta.removed.add(deviceId);
+            }
+        }
+
+        pollsSinceKeyframe = keyframe ? 0 : pollsSinceKeyframe + 1;
+        return delta;
+    }
+
+    synchronized void clear() {
+        emitted.clear();
+        pollsSinceKeyframe = 0;
+    }
+
+    private boolean hasMoved(Location previous, Location current) {
+        if (timeThreshold > 0 && current.getTime() - previous.getTime() >= timeThreshold) {
+            return true;
+        }
+        if (!LocationUtils.sameFloor(previous, current)) {
+            return true;
+        }
+        return LocationUtils.distance(previous, current) > distanceThreshold;
+    }
+}
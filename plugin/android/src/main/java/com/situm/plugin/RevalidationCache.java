@@ -0,0 +1,119 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.situm.plugin.utils.ReactNativeUtils;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import es.situm.sdk.model.cartography.Building;
+import es.situm.sdk.model.cartography.BuildingInfo;
+import es.situm.sdk.model.cartography.Floor;
+import es.situm.sdk.model.cartography.Geofence;
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.model.cartography.PoiCategory;
+import es.situm.sdk.v1.SitumEvent;
+
+/**
+ * Last results sent to JS by fetchBuildings and fetchBuildingInfo, kept for the stale-while-revalidate mode.
+ *
+ * Each result is stored with a fingerprint of its content, built from the identifiers and updatedAt dates of the
+ * entities it holds, and of the category embedded in each POI. A refresh only has to be sent again when its
+ * fingerprint differs.
+ */
+class RevalidationCache {
+
+    static final String BUILDINGS = "buildings";
+    static final String BUILDING_INFO = "buildingInfo";
+
+    static class Entry {
+        final long fingerprint;
+        private final WritableMap map;
+        private final WritableArray array;
+
+        private Entry(long fingerprint, WritableMap map, WritableArray array) {
+            this.fingerprint = fingerprint;
+            this.map = map;
+            this.array = array;
+        }
+
+        WritableMap map() {
+            return map.copy();
+        }
+
+        WritableArray array() {
+            return ReactNativeUtils.copyArray(array);
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a result. The map must not be sent to JS afterwards, pass a copy.
+     */
+    void putMap(String key, long fingerprint, WritableMap map) {
+        entries.put(key, new Entry(fingerprint, map, null));
+    }
+
+    /**
+     * Stores a result. The array must not be sent to JS afterwards, pass a copy.
+     */
+    void putArray(String key, long fingerprint, WritableArray array) {
+        entries.put(key, new Entry(fingerprint, null, array));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    static String buildingInfoKey(String buildingIdentifier) {
+        return BUILDING_INFO + ":" + buildingIdentifier;
+    }
+
+    static long fingerprint(Collection<Building> buildings) {
+        long hash = 17;
+        for (Building building : buildings) {
+            hash = combine(hash, building.getIdentifier(), building.getUpdatedAt());
+        }
+        return hash;
+    }
+
+    static long fingerprint(BuildingInfo buildingInfo) {
+        Building building = buildingInfo.getBuilding();
+        long hash = combine(17, building.getIdentifier(), building.getUpdatedAt());
+        for (Floor floor : buildingInfo.getFloors()) {
+            hash = combine(hash, floor.getIdentifier(), floor.getUpdatedAt());
+        }
+        for (Poi poi : buildingInfo.getIndoorPOIs()) {
+            hash = combine(hash, poi);
+        }
+        for (Poi poi : buildingInfo.getOutdoorPOIs()) {
+            hash = combine(hash, poi);
+        }
+        for (SitumEvent event : buildingInfo.getEvents()) {
+            hash = combine(hash, event.getIdentifier(), event.getUpdatedAt());
+        }
+        for (Geofence geofence : buildingInfo.getGeofences()) {
+            hash = combine(hash, geofence.getIdentifier(), geofence.getUpdatedAt());
+        }
+        return hash;
+    }
+
+    static long combine(long hash, Poi poi) {
+        hash = combine(hash, poi.getIdentifier(), poi.getUpdatedAt());
+        PoiCategory category = poi.getCategory();
+        return category != null ? combine(hash, category.getIdentifier(), category.getUpdatedAt()) : 31 * hash;
+    }
+
+    private static long combine(long hash, String identifier, Date updatedAt) {
+        hash = 31 * hash + (identifier != null ? identifier.hashCode() : 0);
+        return 31 * hash + (updatedAt != null ? updatedAt.getTime() : 0);
+    }
+}
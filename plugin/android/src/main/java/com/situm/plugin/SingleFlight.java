@@ -0,0 +1,133 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.situm.plugin.utils.ReactNativeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Coalesces concurrent identical fetches. While a fetch for an operation and entity is in flight, later callers join
+ * it instead of starting their own, and all of them get its result once it arrives.
+ *
+ * Bridge maps and arrays can only be sent to JS once, so every caller after the first gets a copy of the result.
+ */
+class SingleFlight {
+
+    private static class Waiter {
+        final Callback success;
+        final Callback error;
+
+        Waiter(Callback success, Callback error) {
+            this.success = success;
+            this.error = error;
+        }
+    }
+
+    private static class Counters {
+        int executed = 0;
+        int coalesced = 0;
+    }
+
+    /**
+     * One in-flight fetch. Its callbacks answer every caller that joined it.
+     */
+    class Flight {
+        private final String key;
+
+        private Flight(String key) {
+            this.key = key;
+        }
+
+        Callback success() {
+            return args -> {
+                Object result = args.length > 0 ? args[0] : null;
+                List<Waiter> waiters = finish(key);
+                // Copy before anything is sent, a sent result can't be read anymore.
+                List<Object> results = new ArrayList<>();
+                results.add(result);
+                for (int i = 1; i < waiters.size(); i++) {
+                    results.add(share(result));
+                }
+                for (int i = 0; i < waiters.size(); i++) {
+                    Callback success = waiters.get(i).success;
+                    if (success != null) {
+                        success.invoke(results.get(i));
+                    }
+                }
+            };
+        }
+
+        Callback error() {
+            return args -> {
+                for (Waiter waiter : finish(key)) {
+                    if (waiter.error != null) {
+                        waiter.error.invoke(args);
+                    }
+                }
+            };
+        }
+    }
+
+    private final Map<String, List<Waiter>> inFlight = new HashMap<>();
+    private final Map<String, Counters> counters = new TreeMap<>();
+
+    /**
+     * Registers a caller. Returns the flight to run when there is none for this operation and entity yet, or null when
+     * the caller joined a pending one.
+     */
+    synchronized Flight join(String operation, String identifier, Callback success, Callback error) {
+        String key = operation + ":" + identifier;
+        Counters operationCounters = counters.get(operation);
+        if (operationCounters == null) {
+            operationCounters = new Counters();
+            counters.put(operation, operationCounters);
+        }
+        List<Waiter> waiters = inFlight.get(key);
+        if (waiters != null) {
+            waiters.add(new Waiter(success, error));
+            operationCounters.coalesced++;
+            return null;
+        }
+        waiters = new ArrayList<>();
+        waiters.add(new Waiter(success, error));
+        inFlight.put(key, waiters);
+        operationCounters.executed++;
+        return new Flight(key);
+    }
+
+    /**
+     * Fetches started and calls coalesced so far, per operation.
+     */
+    synchronized WritableMap stats() {
+        WritableMap stats = Arguments.createMap();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            WritableMap operation = Arguments.createMap();
+            operation.putInt(SitumMapper.EXECUTED, entry.getValue().executed);
+            operation.putInt(SitumMapper.COALESCED, entry.getValue().coalesced);
+            stats.putMap(entry.getKey(), operation);
+        }
+        return stats;
+    }
+
+    private synchronized List<Waiter> finish(String key) {
+        List<Waiter> waiters = inFlight.remove(key);
+        return waiters != null ? waiters : new ArrayList<Waiter>();
+    }
+
+    private static Object share(Object result) {
+        if (result instanceof WritableMap) {
+            return ((WritableMap) result).copy();
+        }
+        if (result instanceof ReadableArray) {
+            return ReactNativeUtils.copyArray((ReadableArray) result);
+        }
+        return result;
+    }
+}
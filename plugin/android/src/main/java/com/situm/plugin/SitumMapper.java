@@ -1,8 +1,6 @@
 package com.situm.plugin;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.util.Base64;
 import android.util.Log;
 
 import androidx.annotation.Nullable;
@@ -13,12 +11,12 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeArray;
+import com.situm.plugin.utils.ReactNativeUtils;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -26,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -227,6 +226,9 @@ class SitumMapper {
     public static final String IGNORE_LOW_QUALITY_LOCATIONS = "ignoreLowQualityLocations";
 
     public static final String CURRENT_STEP_INDEX = "currentStepIndex";
+    public static final String CURRENT_INDICATION_INDEX = "currentIndicationIndex";
+    public static final String PROGRESS_MODE = "progressMode";
+    public static final String PROGRESS_MODE_DELTA = "delta";
     public static final String CLOSEST_LOCATION_IN_ROUTE = "closestLocationInRoute";
 
     public static final String STARTING_ANGLE = "startingAngle";
@@ -247,6 +249,94 @@ class SitumMapper {
     public static final String OUTDOOR_POIS = "outdoorPOIs";
     public static final String LOCATIONS = "locations";
     public static final String POLL_TIME = "pollTime";
+    public static final String NAVIGATION = "navigation";
+
+    public static final String PAYLOAD_FORMAT = "payloadFormat";
+    public static final String PAYLOAD_FORMAT_COLUMNAR = "columnar";
+    public static final String COUNT = "count";
+    public static final String STRINGS = "strings";
+    public static final String LATITUDES = "latitudes";
+    public static final String LONGITUDES = "longitudes";
+    public static final String XS = "xs";
+    public static final String YS = "ys";
+    public static final String ACCURACIES = "accuracies";
+    public static final String TIMESTAMPS = "timestamps";
+    public static final String DEVICE_IDS = "deviceIds";
+    public static final String BUILDING_IDS = "buildingIdentifiers";
+    public static final String FLOOR_IDS = "floorIdentifiers";
+
+    public static final String DELTA_UPDATES = "deltaUpdates";
+    public static final String DELTA_DISTANCE_THRESHOLD = "deltaDistanceThreshold";
+    public static final String DELTA_TIME_THRESHOLD = "deltaTimeThreshold";
+    public static final String KEYFRAME_INTERVAL = "keyframeInterval";
+    public static final String KEYFRAME = "keyframe";
+    public static final String ADDED = "added";
+    public static final String MOVED = "moved";
+    public static final String REMOVED = "removed";
+
+    public static final String MAX_EMIT_RATE = "maxEmitRate";
+    public static final String MIN_EMIT_DISPLACEMENT = "minEmitDisplacement";
+    public static final String MIN_EMIT_BEARING_CHANGE = "minEmitBearingChange";
+
+    public static final String BATCH_SIZE = "batchSize";
+    public static final String BATCH_INTERVAL = "batchInterval";
+
+    public static final String USE_RECORD_BUFFER = "useRecordBuffer";
+    public static final String RECORD_BUFFER_CAPACITY = "recordBufferCapacity";
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String CHUNK_SIZE = "chunkSize";
+    public static final String CHUNK_INDEX = "chunkIndex";
+    public static final String COLLECTION_TYPE = "type";
+    public static final String ITEMS = "items";
+    public static final String LAST = "last";
+    public static final String SCORE = "score";
+
+    public static final String CONCURRENCY = "concurrency";
+    public static final String INCLUDE_GEOFENCES = "includeGeofences";
+    public static final String INCLUDE_MAPS = "includeMaps";
+    public static final String INCLUDE_CATEGORY_ICONS = "includeCategoryIcons";
+    public static final String PREFETCH_STEP = "step";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+    public static final String TOTAL = "total";
+    public static final String BYTES = "bytes";
+    public static final String ELAPSED_TIME = "elapsedTime";
+
+    public static final String EXECUTED = "executed";
+    public static final String COALESCED = "coalesced";
+    public static final String DATA = "data";
+    public static final String PEAK_BYTES = "peakBytes";
+    public static final String CALLS = "calls";
+    public static final String ALLOCATIONS = "allocations";
+    public static final String LAST_PEAK_BYTES = "lastPeakBytes";
+    public static final String MAX_PEAK_BYTES = "maxPeakBytes";
+    public static final String POOLED_BYTES = "pooledBytes";
+    public static final String MAIN_THREAD = "mainThread";
+    public static final String CALLBACKS = "callbacks";
+    public static final String MAIN_THREAD_CALLBACKS = "mainThreadCallbacks";
+    public static final String TIME = "time";
+    public static final String MAX_TIME = "maxTime";
+    public static final String OFFLOADED_TIME = "offloadedTime";
+    public static final String LANES = "lanes";
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String POIS = "pois";
+    public static final String CHANGED = "changed";
+
+    public static final String OUTPUT = "output";
+    public static final String OUTPUT_FILE = "file";
+    public static final String OUTPUT_BASE64 = "base64";
+    public static final String SELECTED = "selected";
+    public static final String NORMAL = "normal";
+    public static final String RECTS = "rects";
+    public static final String URI = "uri";
+    public static final String FORMAT = "format";
+    public static final String MAX_SIZE = "maxSize";
+    public static final String KEY = "key";
+    public static final String MAX_ZOOM = "maxZoom";
+    public static final String TILE_SIZE = "tileSize";
+    public static final String Z = "z";
 
   public static final String FOREGROUND_SERVICE_NOTIFICATION_OPTIONS = "foregroundServiceNotificationOptions";
   public static final String TITLE = "title";
@@ -260,7 +350,13 @@ class SitumMapper {
     public static final String TTS_PITCH = "pitch";
     public static final String TTS_RATE = "rate";
 
-    public static final DateFormat dateFormat = new SimpleDateFormat("E MMM dd HH:mm:ss Z yyyy", Locale.US);
+    // SimpleDateFormat is not thread safe and mappers run on the bridge, SDK and worker threads.
+    private static final ThreadLocal<DateFormat> dateFormat = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat("E MMM dd HH:mm:ss Z yyyy", Locale.US);
+        }
+    };
 
     private static final String TAG = "PluginHelper";
 
@@ -279,8 +375,8 @@ class SitumMapper {
         jo.put(USER_IDENTIFIER, building.getUserIdentifier());
         jo.put(BUILDING_IDENTIFIER, building.getIdentifier());
         jo.put(CUSTOM_FIELDS, mapStringToJsonObject(building.getCustomFields()));
-        jo.put(CREATED_AT, dateFormat.format(building.getCreatedAt()));
-        jo.put(UPDATED_AT, dateFormat.format(building.getUpdatedAt()));
+        jo.put(CREATED_AT, dateFormat.get().format(building.getCreatedAt()));
+        jo.put(UPDATED_AT, dateFormat.get().format(building.getUpdatedAt()));
         return jo;
     }
 
@@ -311,8 +407,8 @@ class SitumMapper {
                 jo.getJSONObject(DIMENSIONS).getDouble(HEIGHT));
         building = new Building.Builder().identifier(jo.getString(BUILDING_IDENTIFIER)).address(jo.getString(ADDRESS))
                 .rotation(Angle.fromRadians(jo.getDouble(ROTATION)))
-                .updatedAt(dateFormat.parse(jo.getString(UPDATED_AT)))
-                .createdAt(dateFormat.parse(jo.getString(CREATED_AT)))
+                .updatedAt(dateFormat.get().parse(jo.getString(UPDATED_AT)))
+                .createdAt(dateFormat.get().parse(jo.getString(CREATED_AT)))
                 .customFields(jsonObjectToMapString(jo.getJSONObject(CUSTOM_FIELDS)))
                 .name(jo.getString(BUILDING_NAME)).userIdentifier(jo.getString(USER_IDENTIFIER)).center(center)
                 .dimensions(dimesnsions).infoHtml(jo.getString(INFO_HTML)).build();
@@ -354,6 +450,111 @@ class SitumMapper {
         return jsonObject;
     }
 
+    /**
+     * Columnar alternative to {@link #realtimeDataToJson}: one numeric array per field and, for identifiers, indexes
+     * into a de-duplicated string table. Entry i of every array belongs to the same device. Outdoor locations have
+     * NaN cartesian coordinates.
+     */
+    static WritableMap realtimeDataToColumnarWritableMap(RealTimeData realtimeData) {
+        return locationsToColumnarWritableMap(realtimeData.getLocations());
+    }
+
+    static WritableMap locationsToColumnarWritableMap(Collection<Location> locations) {
+        WritableArray latitudes = Arguments.createArray();
+        WritableArray longitudes = Arguments.createArray();
+        WritableArray xs = Arguments.createArray();
+        WritableArray ys = Arguments.createArray();
+        WritableArray accuracies = Arguments.createArray();
+        WritableArray timestamps = Arguments.createArray();
+        WritableArray deviceIds = Arguments.createArray();
+        WritableArray buildingIds = Arguments.createArray();
+        WritableArray floorIds = Arguments.createArray();
+        Map<String, Integer> stringTable = new LinkedHashMap<>();
+
+        int count = 0;
+        for (Location location : locations) {
+            latitudes.pushDouble(location.getCoordinate().getLatitude());
+            longitudes.pushDouble(location.getCoordinate().getLongitude());
+            if (location.isIndoor()) {
+                xs.pushDouble(location.getCartesianCoordinate().getX());
+                ys.pushDouble(location.getCartesianCoordinate().getY());
+            } else {
+                xs.pushDouble(Double.NaN);
+                ys.pushDouble(Double.NaN);
+            }
+            accuracies.pushDouble(location.getAccuracy());
+            timestamps.pushDouble(location.getTime());
+            deviceIds.pushInt(stringIndex(stringTable, location.getDeviceId()));
+            buildingIds.pushInt(stringIndex(stringTable, location.getBuildingIdentifier()));
+            floorIds.pushInt(stringIndex(stringTable, location.getFloorIdentifier()));
+            count++;
+        }
+
+        WritableArray strings = Arguments.createArray();
+        for (String value : stringTable.keySet()) {
+            strings.pushString(value);
+        }
+
+        WritableMap map = Arguments.createMap();
+        map.putString(PAYLOAD_FORMAT, PAYLOAD_FORMAT_COLUMNAR);
+        map.putInt(COUNT, count);
+        map.putArray(STRINGS, strings);
+        map.putArray(LATITUDES, latitudes);
+        map.putArray(LONGITUDES, longitudes);
+        map.putArray(XS, xs);
+        map.putArray(YS, ys);
+        map.putArray(ACCURACIES, accuracies);
+        map.putArray(TIMESTAMPS, timestamps);
+        map.putArray(DEVICE_IDS, deviceIds);
+        map.putArray(BUILDING_IDS, buildingIds);
+        map.putArray(FLOOR_IDS, floorIds);
+        return map;
+    }
+
+    /**
+     * Added and moved devices are written as location maps, or as columnar maps when {@code columnar} is set.
+     * On keyframes every current device is listed as added and JS should replace its whole state.
+     */
+    static WritableMap realtimeDeltaToWritableMap(RealtimeDeviceStore.Delta delta, boolean columnar, FieldMask mask) {
+        // Deltas are keyed by device, so the id survives any mask.
+        mask = mask.with(DEVICE_ID);
+        WritableMap map = Arguments.createMap();
+        map.putBoolean(KEYFRAME, delta.keyframe);
+        if (columnar) {
+            map.putMap(ADDED, locationsToColumnarWritableMap(delta.added));
+            map.putMap(MOVED, locationsToColumnarWritableMap(delta.moved));
+        } else {
+            map.putArray(ADDED, locationsToWritableArray(delta.added, mask));
+            map.putArray(MOVED, locationsToWritableArray(delta.moved, mask));
+        }
+        WritableArray removed = Arguments.createArray();
+        for (String deviceId : delta.removed) {
+            removed.pushString(deviceId);
+        }
+        map.putArray(REMOVED, removed);
+        return map;
+    }
+
+    static WritableArray locationsToWritableArray(Collection<Location> locations, FieldMask mask) {
+        WritableArray array = Arguments.createArray();
+        for (Location location : locations) {
+            array.pushMap(locationToWritableMap(location, mask));
+        }
+        return array;
+    }
+
+    private static int stringIndex(Map<String, Integer> stringTable, String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer index = stringTable.get(value);
+        if (index == null) {
+            index = stringTable.size();
+            stringTable.put(value, index);
+        }
+        return index;
+    }
+
     static JSONArray arrayFromEvents(Collection<SitumEvent> situmEvents) throws JSONException {
         JSONArray array = new JSONArray();
         for (SitumEvent situmEvent : situmEvents) {
@@ -406,8 +607,8 @@ class SitumMapper {
 
         jo.put(IDENTIFIER, geofence.getIdentifier());
         jo.put(CUSTOM_FIELDS, mapStringToJsonObject(geofence.getCustomFields()));
-        jo.put(CREATED_AT, dateFormat.format(geofence.getCreatedAt()));
-        jo.put(UPDATED_AT, dateFormat.format(geofence.getUpdatedAt()));
+        jo.put(CREATED_AT, dateFormat.get().format(geofence.getCreatedAt()));
+        jo.put(UPDATED_AT, dateFormat.get().format(geofence.getUpdatedAt()));
 
         return jo;
     }
@@ -435,8 +636,8 @@ class SitumMapper {
         jo.put(FLOOR_IDENTIFIER, floor.getIdentifier());
         jo.put(IDENTIFIER, floor.getIdentifier());
         jo.put(CUSTOM_FIELDS, mapStringToJsonObject(floor.getCustomFields()));
-        jo.put(CREATED_AT, dateFormat.format(floor.getCreatedAt()));
-        jo.put(UPDATED_AT, dateFormat.format(floor.getUpdatedAt()));
+        jo.put(CREATED_AT, dateFormat.get().format(floor.getCreatedAt()));
+        jo.put(UPDATED_AT, dateFormat.get().format(floor.getUpdatedAt()));
         return jo;
     }
 
@@ -518,8 +719,8 @@ class SitumMapper {
         jo.put(POI_CATEGORY, poiCategoryToJsonObject(poi.getCategory()));
         jo.put(INFO_HTML, poi.getInfoHtml());
         jo.put(CUSTOM_FIELDS, mapStringToJsonObject(poi.getCustomFields()));
-        jo.put(CREATED_AT, dateFormat.format(poi.getCreatedAt()));
-        jo.put(UPDATED_AT, dateFormat.format(poi.getUpdatedAt()));
+        jo.put(CREATED_AT, dateFormat.get().format(poi.getCreatedAt()));
+        jo.put(UPDATED_AT, dateFormat.get().format(poi.getUpdatedAt()));
         return jo;
     }
 
@@ -613,6 +814,12 @@ class SitumMapper {
         return point;
     }
 
+    /**
+     * Location fields read by {@link #jsonLocationObjectToLocation}, kept in masked locationChanged events.
+     */
+    static final String[] LOCATION_REQUIRED_FIELDS = {TIMESTAMP, PROVIDER, POSITION, ACCURACY, DEVICE_ID, BEARING,
+            BEARING_QUALITY, IS_INDOOR, CARTESIAN_BEARING, QUALITY};
+
     static Location jsonLocationObjectToLocation(JSONObject jo) throws JSONException {
         Location.Builder builder = new Location.Builder(jo.getLong(TIMESTAMP), jo.getString(PROVIDER),
                 jsonPointToPoint(jo.getJSONObject(POSITION)), (float) jo.getDouble(ACCURACY));
@@ -672,8 +879,10 @@ class SitumMapper {
     }
 
     static Point pointJsonObjectToPoint(JSONObject jo, JSONObject joBuilding) throws JSONException, ParseException {
+        return pointJsonObjectToPoint(jo, buildingJsonObjectToBuilding(joBuilding));
+    }
 
-        Building building = buildingJsonObjectToBuilding(joBuilding);
+    static Point pointJsonObjectToPoint(JSONObject jo, Building building) throws JSONException {
         CoordinateConverter coordinateConverter = new CoordinateConverter(building.getDimensions(),
                 building.getCenter(),
                 building.getRotation());
@@ -743,6 +952,118 @@ class SitumMapper {
         return jo;
     }
 
+    // WritableMap serializers: write straight into bridge maps, skipping the JSONObject intermediary used above.
+    // Keys must stay in sync with their *ToJsonObject counterparts.
+
+    static WritableMap locationToWritableMap(Location location) {
+        return locationToWritableMap(location, FieldMask.ALL);
+    }
+
+    static WritableMap locationToWritableMap(Location location, FieldMask mask) {
+        WritableMap map = Arguments.createMap();
+        if (mask.includes(ACCURACY)) {
+            map.putDouble(ACCURACY, location.getAccuracy());
+        }
+        if (mask.includes(BEARING)) {
+            map.putMap(BEARING, angleToWritableMap(location.getBearing()));
+        }
+        if (mask.includes(BEARING_QUALITY)) {
+            map.putString(BEARING_QUALITY, location.getBearingQuality().toString());
+        }
+        if (mask.includes(BUILDING_IDENTIFIER)) {
+            map.putString(BUILDING_IDENTIFIER, location.getBuildingIdentifier());
+        }
+        if (mask.includes(CARTESIAN_BEARING)) {
+            map.putMap(CARTESIAN_BEARING, angleToWritableMap(location.getCartesianBearing()));
+        }
+        if (mask.includes(CARTESIAN_COORDINATE)) {
+            map.putMap(CARTESIAN_COORDINATE, cartesianCoordinateToWritableMap(location.getCartesianCoordinate()));
+        }
+        if (mask.includes(COORDINATE)) {
+            map.putMap(COORDINATE, coordinateToWritableMap(location.getCoordinate()));
+        }
+        if (mask.includes(FLOOR_IDENTIFIER)) {
+            map.putString(FLOOR_IDENTIFIER, location.getFloorIdentifier());
+        }
+        if (mask.includes(POSITION)) {
+            map.putMap(POSITION, pointToWritableMap(location.getPosition()));
+        }
+        if (mask.includes(PROVIDER)) {
+            map.putString(PROVIDER, location.getProvider());
+        }
+        if (mask.includes(QUALITY)) {
+            map.putString(QUALITY, location.getQuality().toString());
+        }
+        if (mask.includes(HAS_BEARING)) {
+            map.putBoolean(HAS_BEARING, location.hasBearing());
+        }
+        if (mask.includes(TIMESTAMP)) {
+            // Emitted as a number, like iOS does. The JSON path ended up sending the boxed Long as a string.
+            map.putDouble(TIMESTAMP, location.getTime());
+        }
+        if (mask.includes(HAS_CARTESIAN_BEARING)) {
+            map.putBoolean(HAS_CARTESIAN_BEARING, location.hasCartesianBearing());
+        }
+        if (mask.includes(IS_INDOOR)) {
+            map.putBoolean(IS_INDOOR, location.isIndoor());
+        }
+        if (mask.includes(IS_OUTDOOR)) {
+            map.putBoolean(IS_OUTDOOR, location.isOutdoor());
+        }
+        if (mask.includes(DEVICE_ID)) {
+            map.putString(DEVICE_ID, location.getDeviceId());
+        }
+        return map;
+    }
+
+    static WritableMap locationStatusToWritableMap(LocationStatus locationStatus) {
+        WritableMap map = Arguments.createMap();
+        map.putString(STATUS_NAME, locationStatus.name());
+        map.putInt(STATUS_ORDINAL, locationStatus.ordinal());
+        return map;
+    }
+
+    static WritableMap locationErrorToWritableMap(Error error) {
+        WritableMap map = Arguments.createMap();
+        map.putInt(ERROR_CODE, error.getCode());
+        map.putString(ERROR_MESSAGE, error.getMessage());
+        return map;
+    }
+
+    static WritableMap pointToWritableMap(Point point) {
+        WritableMap map = Arguments.createMap();
+        map.putString(BUILDING_IDENTIFIER, point.getBuildingIdentifier());
+        map.putMap(CARTESIAN_COORDINATE, cartesianCoordinateToWritableMap(point.getCartesianCoordinate()));
+        map.putMap(COORDINATE, coordinateToWritableMap(point.getCoordinate()));
+        map.putString(FLOOR_IDENTIFIER, point.getFloorIdentifier());
+        map.putBoolean(IS_INDOOR, point.isIndoor());
+        map.putBoolean(IS_OUTDOOR, point.isOutdoor());
+        return map;
+    }
+
+    static WritableMap coordinateToWritableMap(Coordinate coordinate) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble(LATITUDE, coordinate.getLatitude());
+        map.putDouble(LONGITUDE, coordinate.getLongitude());
+        return map;
+    }
+
+    static WritableMap cartesianCoordinateToWritableMap(CartesianCoordinate cartesianCoordinate) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble(X, cartesianCoordinate.getX());
+        map.putDouble(Y, cartesianCoordinate.getY());
+        return map;
+    }
+
+    static WritableMap angleToWritableMap(Angle angle) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble(DEGREES, angle.degrees());
+        map.putDouble(DEGREES_CLOCKWISE, angle.degreesClockwise());
+        map.putDouble(RADIANS, angle.radians());
+        map.putDouble(RADIANS_MINUS_PI_PI, angle.radiansMinusPiPi());
+        return map;
+    }
+
     // Route
 
     static JSONObject routeToJsonObject(Route route) throws JSONException {
@@ -836,16 +1157,6 @@ class SitumMapper {
 
     // Utils
 
-    static JSONObject bitmapToString(Bitmap bitmap) throws JSONException {
-        JSONObject jo = new JSONObject();
-        String encodedImage;
-        ByteArrayOutputStream byteArrayOS = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, byteArrayOS);
-        encodedImage = Base64.encodeToString(byteArrayOS.toByteArray(), Base64.DEFAULT);
-        jo.put("data", encodedImage);
-        return jo;
-    }
-
     static RealTimeRequest jsonObjectRealtimeRequest(JSONObject object) throws JSONException, ParseException {
         RealTimeRequest.Builder builder = new RealTimeRequest.Builder();
 
@@ -1182,8 +1493,13 @@ class SitumMapper {
 
     static DirectionsRequest jsonObjectToDirectionsRequest(JSONObject joBuilding, JSONObject joFrom,
             JSONObject joTo, @Nullable JSONObject joOptions) throws JSONException, ParseException {
-        Point from = SitumMapper.pointJsonObjectToPoint(joFrom, joBuilding);
-        Point to = SitumMapper.pointJsonObjectToPoint(joTo, joBuilding);
+        return jsonObjectToDirectionsRequest(buildingJsonObjectToBuilding(joBuilding), joFrom, joTo, joOptions);
+    }
+
+    static DirectionsRequest jsonObjectToDirectionsRequest(Building building, JSONObject joFrom,
+            JSONObject joTo, @Nullable JSONObject joOptions) throws JSONException {
+        Point from = SitumMapper.pointJsonObjectToPoint(joFrom, building);
+        Point to = SitumMapper.pointJsonObjectToPoint(joTo, building);
         DirectionsRequest.AccessibilityMode accessibilityMode = DirectionsRequest.AccessibilityMode.CHOOSE_SHORTEST;
         Boolean minimizeFloorChanges = false;
         double startingAngle = 0.0;
@@ -1238,58 +1554,12 @@ class SitumMapper {
 
         WritableArray mappedList = new WritableNativeArray();
         for (MapperInterface modelObject : modelObjects) {
-            ReadableMap modelMap = convertMapToReadableMap(modelObject.toMap());
+            ReadableMap modelMap = ReactNativeUtils.convertMapToReadableMap(modelObject.toMap());
             mappedList.pushMap(modelMap);
         }
         return mappedList;
     }
 
-    public static ReadableMap convertMapToReadableMap(Map<String, Object> map) {
-        WritableMap response = Arguments.createMap();
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                response.putString(key, (String) value);
-            } else if (value instanceof Integer) {
-                response.putInt(key, (Integer) value);
-            } else if (value instanceof Double) {
-                response.putDouble(key, (Double) value);
-            } else if (value instanceof Boolean) {
-                response.putBoolean(key, (Boolean) value);
-            } else if (value instanceof List) {
-                // Warning: #convertMapToReadableMap maybe called here:
-                response.putArray(key, convertListToReadableArray((List<Object>) value));
-            } else if (value instanceof Map) {
-                // TODO: avoid recursive calls using a stack throws
-                // ObjectAlreadyConsumedException while
-                // processing nested WritableMaps. Is there a way to avoid recursion?
-                response.putMap(key, convertMapToReadableMap((Map) value));
-            }
-        }
-        return response;
-    }
-
-    public static ReadableArray convertListToReadableArray(List<Object> list) {
-        WritableArray response = new WritableNativeArray();
-        for (Object value : list) {
-            if (value instanceof String) {
-                response.pushString((String) value);
-            } else if (value instanceof Integer) {
-                response.pushInt((Integer) value);
-            } else if (value instanceof Double) {
-                response.pushDouble((Double) value);
-            } else if (value instanceof Boolean) {
-                response.pushBoolean((Boolean) value);
-            } else if (value instanceof Map) {
-                response.pushMap(convertMapToReadableMap((Map) value));
-            } else if (value instanceof List) {
-                response.pushArray(convertListToReadableArray((List) value));
-            }
-        }
-        return response;
-    }
-
     static UserHelperColorScheme jsonObjectToUserHelperColorScheme(JSONObject args) throws JSONException {
         UserHelperColorScheme.Builder builder = new UserHelperColorScheme.Builder();
 
@@ -3,12 +3,15 @@ package com.situm.plugin;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
 
 public interface SitumPlugin {
     String EVENT_LOCATION_CHANGED = "locationChanged";
     String EVENT_LOCATION_ERROR = "locationError";
     String EVENT_LOCATION_STATUS_CHANGED = "statusChanged";
     String EVENT_LOCATION_STOPPED = "locationStopped";
+    String EVENT_LOCATIONS_BATCH = "locationsBatch";
 
     String EVENT_NAVIGATION_START = "onNavigationStart";
     String EVENT_NAVIGATION_PROGRESS = "onNavigationProgress";
@@ -24,6 +27,15 @@ public interface SitumPlugin {
     String EVENT_ENTER_GEOFENCES = "onEnterGeofences";
     String EVENT_EXIT_GEOFENCES = "onExitGeofences";
 
+    String EVENT_COLLECTION_CHUNK = "collectionChunk";
+    String EVENT_COLLECTION_ERROR = "collectionError";
+
+    String EVENT_PREFETCH_PROGRESS = "prefetchProgress";
+    String EVENT_PREFETCH_COMPLETED = "prefetchCompleted";
+
+    String EVENT_CARTOGRAPHY_UPDATED = "cartographyUpdated";
+    String EVENT_CARTOGRAPHY_CHANGED = "cartographyChanged";
+
     void initSitumSDK();
 
     void setUseRemoteConfig(String useRemoteConfig, Callback callback);
@@ -50,10 +62,43 @@ public interface SitumPlugin {
 
     void fetchGeofencesFromBuilding(ReadableMap map, Callback success, Callback error);
 
+    void fetchBuildingInfoById(String buildingId, Callback success, Callback error);
+
+    void fetchTilesFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchFloorsFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchMapFromFloorById(String floorId, Callback success, Callback error);
+
+    void fetchMapFromFloorWithOptions(ReadableMap floor, ReadableMap options, Callback success, Callback error);
+
+    void fetchPoiCategoryIconWithOptions(ReadableMap category, ReadableMap options, Callback success,
+                                         Callback error);
+
+    void fetchFloorTile(String floorId, int z, int x, int y, Callback success, Callback error);
+
+    void fetchPoiCategoryAtlas(Callback success, Callback error);
+
+    void fetchGeofencesFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchIndoorPOIsFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchOutdoorPOIsFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchEventsFromBuildingById(String buildingId, Callback success, Callback error);
+
+    void fetchPoiCategoryIconNormalById(String categoryCode, Callback success, Callback error);
+
+    void fetchPoiCategoryIconSelectedById(String categoryCode, Callback success, Callback error);
+
     void startPositioning(ReadableMap map);
 
     void stopPositioning(Callback callback);
 
+    void readPositionRecords(Callback callback);
+
+    void setEventFieldMask(String eventName, ReadableArray fields);
+
     void requestDirections(ReadableArray requestArray, Callback success, Callback error);
 
     void fetchPoiCategories(Callback success, Callback error);
@@ -76,6 +121,28 @@ public interface SitumPlugin {
 
     void removeNavigationUpdates(Callback callback);
 
+    void streamIndoorPOIsFromBuilding(String buildingId, ReadableMap options);
+
+    void streamOutdoorPOIsFromBuilding(String buildingId, ReadableMap options);
+
+    void streamEventsFromBuilding(String buildingId, ReadableMap options);
+
+    void streamGeofencesFromBuilding(String buildingId, ReadableMap options);
+
+    void prefetchBuildings(ReadableArray buildingIds, ReadableMap options);
+
+    WritableMap getFetchCoalescingStats();
+
+    WritableMap getImageEncodingStats();
+
+    WritableMap getWorkerStats();
+
+    WritableArray searchPois(String query, int limit);
+
+    void queryPoisInBounds(String floorId, ReadableMap bounds, Callback success, Callback error);
+
+    void nearestPois(ReadableMap point, int k, ReadableArray categoryFilter, Callback success, Callback error);
+
     void requestRealTimeUpdates(ReadableMap map);
 
     void removeRealTimeUpdates();
@@ -88,6 +155,12 @@ public interface SitumPlugin {
 
     void invalidateCache();
 
+    void setBuildingInfoSnapshotsEnabled(boolean enabled);
+
+    void setStaleWhileRevalidate(boolean enabled);
+
+    void setCartographyChangeEventsEnabled(boolean enabled);
+
     void getDeviceId(Callback callback);
 
     void onEnterGeofences();
@@ -8,6 +8,7 @@ import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
@@ -190,6 +191,94 @@ public class SitumPluginImpl extends ReactContextBaseJavaModule implements Situm
         getPluginInstance().fetchGeofencesFromBuilding(map, success, error);
     }
 
+    @Override
+    @ReactMethod
+    public void fetchBuildingInfoById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchBuildingInfoById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchTilesFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchTilesFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchFloorsFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchFloorsFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchMapFromFloorById(String floorId, Callback success, Callback error) {
+        getPluginInstance().fetchMapFromFloorById(floorId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchMapFromFloorWithOptions(ReadableMap floor, ReadableMap options, Callback success,
+                                             Callback error) {
+        getPluginInstance().fetchMapFromFloorWithOptions(floor, options, success, error,
+                getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchPoiCategoryIconWithOptions(ReadableMap category, ReadableMap options, Callback success,
+                                                Callback error) {
+        getPluginInstance().fetchPoiCategoryIconWithOptions(category, options, success, error,
+                getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchFloorTile(String floorId, int z, int x, int y, Callback success, Callback error) {
+        getPluginInstance().fetchFloorTile(floorId, z, x, y, success, error, getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchPoiCategoryAtlas(Callback success, Callback error) {
+        getPluginInstance().fetchPoiCategoryAtlas(success, error, getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchGeofencesFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchGeofencesFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchIndoorPOIsFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchIndoorPOIsFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchOutdoorPOIsFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchOutdoorPOIsFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchEventsFromBuildingById(String buildingId, Callback success, Callback error) {
+        getPluginInstance().fetchEventsFromBuildingById(buildingId, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchPoiCategoryIconNormalById(String categoryCode, Callback success, Callback error) {
+        getPluginInstance().fetchPoiCategoryIconNormalById(categoryCode, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void fetchPoiCategoryIconSelectedById(String categoryCode, Callback success, Callback error) {
+        getPluginInstance().fetchPoiCategoryIconSelectedById(categoryCode, success, error);
+    }
+
     @Override
     @ReactMethod
     public void startPositioning(ReadableMap map) {
@@ -203,6 +292,18 @@ public class SitumPluginImpl extends ReactContextBaseJavaModule implements Situm
        getPluginInstance().stopPositioning(callback, getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
     }
 
+    @Override
+    @ReactMethod
+    public void readPositionRecords(Callback callback) {
+        getPluginInstance().readPositionRecords(callback);
+    }
+
+    @Override
+    @ReactMethod
+    public void setEventFieldMask(String eventName, ReadableArray fields) {
+        getPluginInstance().setEventFieldMask(eventName, fields);
+    }
+
     @Override
     @ReactMethod
     public void requestDirections(ReadableArray requestArray, Callback success, Callback error) {
@@ -271,6 +372,79 @@ public class SitumPluginImpl extends ReactContextBaseJavaModule implements Situm
         getPluginInstance().removeNavigationUpdates(callback);
     }
 
+    @Override
+    @ReactMethod
+    public void streamIndoorPOIsFromBuilding(String buildingId, ReadableMap options) {
+        getPluginInstance().streamIndoorPOIsFromBuilding(buildingId, options,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
+    @Override
+    @ReactMethod
+    public void streamOutdoorPOIsFromBuilding(String buildingId, ReadableMap options) {
+        getPluginInstance().streamOutdoorPOIsFromBuilding(buildingId, options,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
+    @Override
+    @ReactMethod
+    public void streamEventsFromBuilding(String buildingId, ReadableMap options) {
+        getPluginInstance().streamEventsFromBuilding(buildingId, options,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
+    @Override
+    @ReactMethod
+    public void streamGeofencesFromBuilding(String buildingId, ReadableMap options) {
+        getPluginInstance().streamGeofencesFromBuilding(buildingId, options,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
+    @Override
+    @ReactMethod
+    public void prefetchBuildings(ReadableArray buildingIds, ReadableMap options) {
+        getPluginInstance().prefetchBuildings(buildingIds, options,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class),
+                getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getFetchCoalescingStats() {
+        return getPluginInstance().getFetchCoalescingStats();
+    }
+
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getImageEncodingStats() {
+        return getPluginInstance().getImageEncodingStats();
+    }
+
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getWorkerStats() {
+        return getPluginInstance().getWorkerStats();
+    }
+
+    @Override
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableArray searchPois(String query, int limit) {
+        return getPluginInstance().searchPois(query, limit);
+    }
+
+    @Override
+    @ReactMethod
+    public void queryPoisInBounds(String floorId, ReadableMap bounds, Callback success, Callback error) {
+        getPluginInstance().queryPoisInBounds(floorId, bounds, success, error);
+    }
+
+    @Override
+    @ReactMethod
+    public void nearestPois(ReadableMap point, int k, ReadableArray categoryFilter, Callback success,
+                            Callback error) {
+        getPluginInstance().nearestPois(point, k, categoryFilter, success, error);
+    }
+
     @Override
     @ReactMethod
     public void requestRealTimeUpdates(ReadableMap map) {
@@ -308,6 +482,28 @@ public class SitumPluginImpl extends ReactContextBaseJavaModule implements Situm
         getPluginInstance().invalidateCache();
     }
 
+    @Override
+    @ReactMethod
+    public void setBuildingInfoSnapshotsEnabled(boolean enabled) {
+        getPluginInstance().setBuildingInfoSnapshotsEnabled(enabled,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class),
+                getReactApplicationContext());
+    }
+
+    @Override
+    @ReactMethod
+    public void setStaleWhileRevalidate(boolean enabled) {
+        getPluginInstance().setStaleWhileRevalidate(enabled,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
+    @Override
+    @ReactMethod
+    public void setCartographyChangeEventsEnabled(boolean enabled) {
+        getPluginInstance().setCartographyChangeEventsEnabled(enabled,
+                getReactApplicationContext().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class));
+    }
+
     @Override
     @ReactMethod
     public void getDeviceId(Callback callback) {
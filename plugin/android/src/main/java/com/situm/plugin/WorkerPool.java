@@ -0,0 +1,281 @@
+package com.situm.plugin;
+
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import es.situm.sdk.error.Error;
+import es.situm.sdk.utils.Handler;
+
+/**
+ * Bounded pool of background threads for the mapping, encoding and bridge conversion of SDK results, which the SDK
+ * often delivers on the main thread, where location updates are emitted too.
+ *
+ * Work is queued per operation lane. Workers take tasks from the lanes in turn and a lane never holds every thread, so
+ * a burst of large POI or image jobs does not hold back the other lanes. Workers run at background priority. The disk
+ * stores get {@link #serial} executors, which run their tasks one at a time on a lane instead of owning a thread.
+ *
+ * For the SDK callbacks wrapped with {@link #handler}, the pool measures the whole callback: the time the main thread
+ * still spends in it, handing it over, and the time its work then takes on a worker, which the main thread is spared.
+ */
+class WorkerPool {
+
+    static final String CARTOGRAPHY = "cartography";
+    static final String IMAGES = "images";
+
+    private static final String TAG = "WorkerPool";
+
+    private static class Lane {
+        final Queue<Runnable> queue = new ArrayDeque<>();
+        int running = 0;
+        int executed = 0;
+        long busyNanos = 0;
+    }
+
+    private final int threads;
+    private final int laneLimit;
+    // Created on demand, so the pool can be used again after shutdown.
+    private ExecutorService executor;
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final List<Lane> order = new ArrayList<>();
+    private int next = 0;
+    private int workers = 0;
+
+    private int callbacks = 0;
+    private int mainThreadCallbacks = 0;
+    private long mainThreadNanos = 0;
+    private long maxMainThreadNanos = 0;
+    private long offloadedNanos = 0;
+
+    WorkerPool(int threads) {
+        this.threads = Math.max(1, threads);
+        this.laneLimit = Math.max(1, this.threads - 1);
+    }
+
+    /**
+     * Wraps an SDK handler so its callbacks run on the lane instead of the calling thread.
+     */
+    <T> Handler<T> handler(String lane, Handler<T> delegate) {
+        return new Handler<T>() {
+            @Override
+            public void onSuccess(T result) {
+                dispatch(lane, () -> delegate.onSuccess(result));
+            }
+
+            @Override
+            public void onFailure(Error e) {
+                dispatch(lane, () -> delegate.onFailure(e));
+            }
+        };
+    }
+
+    synchronized void submit(String laneName, Runnable task) {
+        lane(laneName).queue.add(task);
+        if (workers < threads) {
+            workers++;
+            if (executor == null) {
+                executor = Executors.newFixedThreadPool(threads, runnable -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "situm-plugin-worker"));
+            }
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * An executor for the lane.
+     */
+    Executor executor(String lane) {
+        return task -> submit(lane, task);
+    }
+
+    /**
+     * An executor that runs its tasks on the lane one at a time, in submission order.
+     */
+    Executor serial(String lane) {
+        return new SerialExecutor(lane);
+    }
+
+    /**
+     * Stops the threads once the running and queued tasks are done. Work submitted later starts new threads.
+     */
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * {mainThread: {callbacks, mainThreadCallbacks, time, maxTime, offloadedTime}, lanes: {lane: {queued, running,
+     * executed, time}}}, times in milliseconds. time and maxTime are spent on the main thread by the callbacks called
+     * there, offloadedTime is the time their work took on the workers.
+     */
+    synchronized WritableMap stats() {
+        WritableMap mainThread = Arguments.createMap();
+        mainThread.putInt(SitumMapper.CALLBACKS, callbacks);
+        mainThread.putInt(SitumMapper.MAIN_THREAD_CALLBACKS, mainThreadCallbacks);
+        mainThread.putDouble(SitumMapper.TIME, mainThreadNanos / 1e6);
+        mainThread.putDouble(SitumMapper.MAX_TIME, maxMainThreadNanos / 1e6);
+        mainThread.putDouble(SitumMapper.OFFLOADED_TIME, offloadedNanos / 1e6);
+
+        WritableMap laneStats = Arguments.createMap();
+        for (Map.Entry<String, Lane> entry : lanes.entrySet()) {
+            Lane lane = entry.getValue();
+            WritableMap stats = Arguments.createMap();
+            stats.putInt(SitumMapper.QUEUED, lane.queue.size());
+            stats.putInt(SitumMapper.RUNNING, lane.running);
+            stats.putInt(SitumMapper.EXECUTED, lane.executed);
+            stats.putDouble(SitumMapper.TIME, lane.busyNanos / 1e6);
+            laneStats.putMap(entry.getKey(), stats);
+        }
+
+        WritableMap result = Arguments.createMap();
+        result.putMap(SitumMapper.MAIN_THREAD, mainThread);
+        result.putMap(SitumMapper.LANES, laneStats);
+        return result;
+    }
+
+    private void drain() {
+        while (true) {
+            Lane lane;
+            Runnable task;
+            synchronized (this) {
+                lane = nextLane();
+                if (lane == null) {
+                    // Capped lanes are picked up again by the worker running their current task.
+                    workers--;
+                    return;
+                }
+                task = lane.queue.poll();
+                lane.running++;
+            }
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // Errors too, such as an OutOfMemoryError while scaling a bitmap: a worker that left the loop without
+                // being counted out would never be replaced.
+                Log.e(TAG, "Worker task failed", e);
+            } finally {
+                synchronized (this) {
+                    lane.running--;
+                    lane.executed++;
+                    lane.busyNanos += System.nanoTime() - start;
+                }
+            }
+        }
+    }
+
+    /**
+     * The next lane, in turn, with queued work and a free thread.
+     */
+    private Lane nextLane() {
+        for (int i = 0; i < order.size(); i++) {
+            int index = (next + i) % order.size();
+            Lane lane = order.get(index);
+            if (!lane.queue.isEmpty() && lane.running < laneLimit) {
+                next = index + 1;
+                return lane;
+            }
+        }
+        return null;
+    }
+
+    private Lane lane(String name) {
+        Lane lane = lanes.get(name);
+        if (lane == null) {
+            lane = new Lane();
+            lanes.put(name, lane);
+            order.add(lane);
+        }
+        return lane;
+    }
+
+    private class SerialExecutor implements Executor {
+        private final String lane;
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean active = false;
+
+        SerialExecutor(String lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                tasks.add(task);
+                if (active) {
+                    return;
+                }
+                active = true;
+            }
+            submit(lane, this::runNext);
+        }
+
+        private void runNext() {
+            Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+            }
+            try {
+                task.run();
+            } finally {
+                boolean more;
+                synchronized (this) {
+                    more = !tasks.isEmpty();
+                    active = more;
+                }
+                if (more) {
+                    submit(lane, this::runNext);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the callback on the lane, timing both the hand-off on the calling thread and the callback itself.
+     */
+    private void dispatch(String lane, Runnable callback) {
+        boolean onMainThread = Looper.myLooper() == Looper.getMainLooper();
+        long start = System.nanoTime();
+        submit(lane, () -> {
+            long runStart = System.nanoTime();
+            try {
+                callback.run();
+            } finally {
+                if (onMainThread) {
+                    recordOffloaded(System.nanoTime() - runStart);
+                }
+            }
+        });
+        recordCallback(onMainThread, System.nanoTime() - start);
+    }
+
+    private synchronized void recordCallback(boolean onMainThread, long elapsed) {
+        callbacks++;
+        if (onMainThread) {
+            mainThreadCallbacks++;
+            mainThreadNanos += elapsed;
+            maxMainThreadNanos = Math.max(maxMainThreadNanos, elapsed);
+        }
+    }
+
+    private synchronized void recordOffloaded(long elapsed) {
+        offloadedNanos += elapsed;
+    }
+}
@@ -0,0 +1,295 @@
+package com.situm.plugin.utils;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary form of a bridge map, used to persist mapped payloads.
+ *
+ * A payload is a table of the distinct strings, each one a length and its UTF-8 bytes, followed by the tagged value
+ * tree. Map keys and string values are stored as indexes into the table, containers as their entry count followed by
+ * their entries. Integers are big-endian, matching ByteBuffer's default order.
+ *
+ * Reading and writing go through the {@link ReactNativeUtils} walk, so numeric types are kept the same way as in the
+ * other conversions.
+ */
+public class BinaryMapFormat {
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_FALSE = 1;
+    static final byte TAG_TRUE = 2;
+    static final byte TAG_INT = 3;
+    static final byte TAG_LONG = 4;
+    static final byte TAG_DOUBLE = 5;
+    static final byte TAG_STRING = 6;
+    static final byte TAG_MAP = 7;
+    static final byte TAG_ARRAY = 8;
+
+    public static byte[] write(ReadableMap readableMap) {
+        BinaryTarget target = BinaryTarget.root();
+        ReactNativeUtils.convertUnchecked(new ReactNativeUtils.ReadableMapSource(readableMap), target);
+        return target.toByteArray();
+    }
+
+    /**
+     * Reads a map written by {@link #write(ReadableMap)}, starting at the buffer position.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a binary map.
+     */
+    public static WritableMap read(ByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (buffer.get() != TAG_MAP) {
+            throw new IllegalArgumentException("Binary payload is not a map");
+        }
+        ReactNativeUtils.WritableTarget target = ReactNativeUtils.WritableTarget.map();
+        ReactNativeUtils.convertUnchecked(new BinarySource(buffer, strings, true), target);
+        return target.map;
+    }
+
+    private static class BinarySource implements ReactNativeUtils.Source {
+        // Nested sources share the buffer: the walk is depth-first, so a child consumes its bytes before the parent
+        // resumes.
+        private final ByteBuffer buffer;
+        private final String[] strings;
+        private final boolean isMap;
+        private final int size;
+        private int index = 0;
+        private String key;
+        private ReactNativeUtils.Kind kind;
+        private long longValue;
+        private double doubleValue;
+        private String stringValue;
+
+        BinarySource(ByteBuffer buffer, String[] strings, boolean isMap) {
+            this.buffer = buffer;
+            this.strings = strings;
+            this.isMap = isMap;
+            this.size = buffer.getInt();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean next() {
+            if (index >= size) {
+                return false;
+            }
+            index++;
+            key = isMap ? strings[buffer.getInt()] : null;
+            byte tag = buffer.get();
+            switch (tag) {
+                case TAG_NULL:
+                    kind = ReactNativeUtils.Kind.NULL;
+                    break;
+                case TAG_FALSE:
+                case TAG_TRUE:
+                    kind = ReactNativeUtils.Kind.BOOLEAN;
+                    longValue = tag == TAG_TRUE ? 1 : 0;
+                    break;
+                case TAG_INT:
+                    kind = ReactNativeUtils.Kind.INTEGER;
+                    longValue = buffer.getInt();
+                    break;
+                case TAG_LONG:
+                    kind = ReactNativeUtils.Kind.INTEGER;
+                    longValue = buffer.getLong();
+                    break;
+                case TAG_DOUBLE:
+                    kind = ReactNativeUtils.Kind.DOUBLE;
+                    doubleValue = buffer.getDouble();
+                    break;
+                case TAG_STRING:
+                    kind = ReactNativeUtils.Kind.STRING;
+                    stringValue = strings[buffer.getInt()];
+                    break;
+                case TAG_MAP:
+                    kind = ReactNativeUtils.Kind.MAP;
+                    break;
+                case TAG_ARRAY:
+                    kind = ReactNativeUtils.Kind.ARRAY;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown binary tag " + tag);
+            }
+            return true;
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public ReactNativeUtils.Kind kind() {
+            return kind;
+        }
+
+        @Override
+        public boolean booleanValue() {
+            return longValue != 0;
+        }
+
+        @Override
+        public long longValue() {
+            return longValue;
+        }
+
+        @Override
+        public double doubleValue() {
+            return doubleValue;
+        }
+
+        @Override
+        public String stringValue() {
+            return stringValue;
+        }
+
+        @Override
+        public ReactNativeUtils.Source child() {
+            return new BinarySource(buffer, strings, kind == ReactNativeUtils.Kind.MAP);
+        }
+    }
+
+    /**
+     * Byte buffer that can append itself to another one without the copy made by toByteArray().
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+        Buffer(int size) {
+            super(size);
+        }
+
+        void writeTo(Buffer parent) {
+            parent.write(buf, 0, count);
+        }
+
+        // Big-endian, matching ByteBuffer's default order.
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+    }
+
+    private static class BinaryTarget implements ReactNativeUtils.Target {
+        // Shared by every container of one payload.
+        private final Map<String, Integer> strings;
+        private final Buffer out = new Buffer(64);
+        private final boolean isMap;
+        private int count = 0;
+
+        private BinaryTarget(Map<String, Integer> strings, boolean isMap) {
+            this.strings = strings;
+            this.isMap = isMap;
+        }
+
+        static BinaryTarget root() {
+            return new BinaryTarget(new LinkedHashMap<>(), true);
+        }
+
+        byte[] toByteArray() {
+            Buffer payload = new Buffer(out.size() + strings.size() * 16 + 9);
+            payload.writeInt(strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                payload.writeInt(bytes.length);
+                payload.write(bytes, 0, bytes.length);
+            }
+            payload.write(TAG_MAP);
+            payload.writeInt(count);
+            out.writeTo(payload);
+            return payload.toByteArray();
+        }
+
+        private void entry(String key, byte tag) {
+            count++;
+            if (isMap) {
+                out.writeInt(stringIndex(key));
+            }
+            out.write(tag);
+        }
+
+        private int stringIndex(String string) {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.put(string, index);
+            }
+            return index;
+        }
+
+        @Override
+        public void putNull(String key) {
+            entry(key, TAG_NULL);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            entry(key, value ? TAG_TRUE : TAG_FALSE);
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            if (ReactNativeUtils.fitsInt(value)) {
+                entry(key, TAG_INT);
+                out.writeInt((int) value);
+            } else {
+                entry(key, TAG_LONG);
+                out.writeLong(value);
+            }
+        }
+
+        @Override
+        public void putDouble(String key, double value) {
+            entry(key, TAG_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            if (value == null) {
+                putNull(key);
+                return;
+            }
+            entry(key, TAG_STRING);
+            out.writeInt(stringIndex(value));
+        }
+
+        @Override
+        public void putChild(String key, ReactNativeUtils.Target child) {
+            BinaryTarget binary = (BinaryTarget) child;
+            entry(key, binary.isMap ? TAG_MAP : TAG_ARRAY);
+            out.writeInt(binary.count);
+            binary.out.writeTo(out);
+        }
+
+        @Override
+        public ReactNativeUtils.Target newMap(int size) {
+            return new BinaryTarget(strings, true);
+        }
+
+        @Override
+        public ReactNativeUtils.Target newArray(int size) {
+            return new BinaryTarget(strings, false);
+        }
+    }
+}
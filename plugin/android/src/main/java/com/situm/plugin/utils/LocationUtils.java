@@ -0,0 +1,41 @@
+package com.situm.plugin.utils;
+
+import es.situm.sdk.model.location.Location;
+
+public class LocationUtils {
+
+    private static final double EARTH_RADIUS = 6371000;
+
+    /**
+     * Distance in meters between two locations. Uses cartesian coordinates when both are indoor, and the haversine
+     * distance between their geographic coordinates otherwise.
+     */
+    public static double distance(Location a, Location b) {
+        if (a.isIndoor() && b.isIndoor()) {
+            double dx = a.getCartesianCoordinate().getX() - b.getCartesianCoordinate().getX();
+            double dy = a.getCartesianCoordinate().getY() - b.getCartesianCoordinate().getY();
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+        double lat1 = Math.toRadians(a.getCoordinate().getLatitude());
+        double lat2 = Math.toRadians(b.getCoordinate().getLatitude());
+        double dLat = lat2 - lat1;
+        double dLng = Math.toRadians(b.getCoordinate().getLongitude() - a.getCoordinate().getLongitude());
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /**
+     * Smallest absolute difference, in degrees within [0, 180], between the bearings of two locations.
+     */
+    public static double bearingChange(Location a, Location b) {
+        double delta = Math.abs(a.getBearing().degrees() - b.getBearing().degrees()) % 360;
+        return delta > 180 ? 360 - delta : delta;
+    }
+
+    public static boolean sameFloor(Location a, Location b) {
+        String floorA = a.getFloorIdentifier();
+        String floorB = b.getFloorIdentifier();
+        return a.isIndoor() == b.isIndoor() && (floorA == null ? floorB == null : floorA.equals(floorB));
+    }
+}
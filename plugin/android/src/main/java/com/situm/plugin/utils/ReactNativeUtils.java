@@ -6,279 +6,807 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
-import com.facebook.react.bridge.WritableNativeArray;
-import com.facebook.react.bridge.WritableNativeMap;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
 
+/**
+ * Converts between bridge collections (ReadableMap/WritableMap), org.json and plain Java collections.
+ *
+ * Every conversion runs through the same iterative walk: each source value is read once, classified, and written to
+ * the target with its numeric type preserved. Integral numbers stay integers (longs when they exceed the int range)
+ * and everything else is a double. Nested containers are filled before they are attached to their parent, because
+ * native bridge maps and arrays are consumed (copied) when attached and can't be written to afterwards.
+ *
+ * The walk is shared with {@link BinaryMapFormat}, which plugs in its own source and target.
+ */
 public class ReactNativeUtils {
-    public static WritableMap convertJsonToMap(JSONObject jsonObject) throws JSONException {
-        WritableMap map = new WritableNativeMap();
 
-        Iterator<String> iterator = jsonObject.keys();
-        while (iterator.hasNext()) {
-            String key = iterator.next();
-            Object value = jsonObject.get(key);
-            if (value instanceof JSONObject) {
-                map.putMap(key, convertJsonToMap((JSONObject) value));
-            } else if (value instanceof JSONArray) {
-                map.putArray(key, convertJsonToArray((JSONArray) value));
-            } else if (value instanceof Boolean) {
-                map.putBoolean(key, (Boolean) value);
-            } else if (value instanceof Integer) {
-                map.putInt(key, (Integer) value);
-            } else if (value instanceof Double) {
-                map.putDouble(key, (Double) value);
-            } else if (value instanceof String) {
-                map.putString(key, (String) value);
-            } else {
-                map.putString(key, value.toString());
-            }
-        }
-        return map;
+    public static WritableMap convertJsonToMap(JSONObject jsonObject) throws JSONException {
+        WritableTarget target = WritableTarget.map();
+        convert(new JsonObjectSource(jsonObject), target);
+        return target.map;
     }
 
     public static WritableArray convertJsonToArray(JSONArray jsonArray) throws JSONException {
-        WritableArray array = new WritableNativeArray();
+        WritableTarget target = WritableTarget.array();
+        convert(new JsonArraySource(jsonArray), target);
+        return target.array;
+    }
 
-        for (int i = 0; i < jsonArray.length(); i++) {
-            Object value = jsonArray.get(i);
-            if (value instanceof JSONObject) {
-                array.pushMap(convertJsonToMap((JSONObject) value));
-            } else if (value instanceof JSONArray) {
-                array.pushArray(convertJsonToArray((JSONArray) value));
-            } else if (value instanceof Boolean) {
-                array.pushBoolean((Boolean) value);
-            } else if (value instanceof Integer) {
-                array.pushInt((Integer) value);
-            } else if (value instanceof Double) {
-                array.pushDouble((Double) value);
-            } else if (value instanceof String) {
-                array.pushString((String) value);
-            } else {
-                array.pushString(value.toString());
-            }
+    public static JSONObject convertMapToJson(ReadableMap readableMap) throws JSONException {
+        JsonTarget target = JsonTarget.map();
+        convert(new ReadableMapSource(readableMap), target);
+        return target.object;
+    }
+
+    public static JSONArray convertArrayToJson(ReadableArray readableArray) throws JSONException {
+        JsonTarget target = JsonTarget.array();
+        convert(new ReadableArraySource(readableArray), target);
+        return target.array;
+    }
+
+    public static Map<String, Object> convertReadableMapToMap(ReadableMap readableMap) {
+        JavaTarget target = JavaTarget.map(-1);
+        convertUnchecked(new ReadableMapSource(readableMap), target);
+        return target.map;
+    }
+
+    public static ReadableMap convertMapToReadableMap(Map<String, Object> map) {
+        WritableTarget target = WritableTarget.map();
+        convertUnchecked(new JavaMapSource(map), target);
+        return target.map;
+    }
+
+    public static ReadableArray convertListToReadableArray(List<Object> list) {
+        WritableTarget target = WritableTarget.array();
+        convertUnchecked(new JavaListSource(list), target);
+        return target.array;
+    }
+
+    /**
+     * Copies a bridge array, which can only be sent to JS once.
+     */
+    public static WritableArray copyArray(ReadableArray readableArray) {
+        WritableTarget target = WritableTarget.array();
+        convertUnchecked(new ReadableArraySource(readableArray), target);
+        return target.array;
+    }
+
+    // Conversion engine
+
+    enum Kind { NULL, BOOLEAN, INTEGER, DOUBLE, STRING, MAP, ARRAY }
+
+    /**
+     * Cursor over the entries of a map or array. {@link #key()} is null for arrays.
+     */
+    interface Source {
+        int size();
+
+        boolean next();
+
+        String key();
+
+        Kind kind();
+
+        boolean booleanValue();
+
+        long longValue();
+
+        double doubleValue();
+
+        String stringValue();
+
+        Source child();
+    }
+
+    /**
+     * Destination map or array. A null key appends to an array.
+     */
+    interface Target {
+        void putNull(String key) throws JSONException;
+
+        void putBoolean(String key, boolean value) throws JSONException;
+
+        void putLong(String key, long value) throws JSONException;
+
+        void putDouble(String key, double value) throws JSONException;
+
+        void putString(String key, String value) throws JSONException;
+
+        void putChild(String key, Target child) throws JSONException;
+
+        Target newMap(int size);
+
+        Target newArray(int size);
+    }
+
+    private static class Frame {
+        final Source source;
+        final Target target;
+        final String key;
+
+        Frame(Source source, Target target, String key) {
+            this.source = source;
+            this.target = target;
+            this.key = key;
         }
-        return array;
     }
 
-    public static JSONObject convertMapToJson(ReadableMap readableMap) throws JSONException {
-        JSONObject object = new JSONObject();
-        ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
-        while (iterator.hasNextKey()) {
-            String key = iterator.nextKey();
-            switch (readableMap.getType(key)) {
-                case Null:
-                    object.put(key, JSONObject.NULL);
+    private static void convert(Source root, Target rootTarget) throws JSONException {
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(root, rootTarget, null));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            Source source = frame.source;
+            if (!source.next()) {
+                stack.pop();
+                if (!stack.isEmpty()) {
+                    stack.peek().target.putChild(frame.key, frame.target);
+                }
+                continue;
+            }
+            String key = source.key();
+            Target target = frame.target;
+            switch (source.kind()) {
+                case NULL:
+                    target.putNull(key);
                     break;
-                case Boolean:
-                    object.put(key, readableMap.getBoolean(key));
+                case BOOLEAN:
+                    target.putBoolean(key, source.booleanValue());
                     break;
-                case Number:
-                    // Check if the number is an integer or a double
-                    double tmpValue = readableMap.getDouble(key);
-                    if (tmpValue == Math.rint(tmpValue)) {
-                        object.put(key, readableMap.getInt(key));
-                    } else {
-                        object.put(key, tmpValue);
-                    }
-                    object.put(key, readableMap.getDouble(key));
+                case INTEGER:
+                    target.putLong(key, source.longValue());
                     break;
-                case String:
-                    object.put(key, readableMap.getString(key));
+                case DOUBLE:
+                    target.putDouble(key, source.doubleValue());
                     break;
-                case Map:
-                    object.put(key, convertMapToJson(readableMap.getMap(key)));
+                case STRING:
+                    target.putString(key, source.stringValue());
                     break;
-                case Array:
-                    object.put(key, convertArrayToJson(readableMap.getArray(key)));
+                case MAP: {
+                    Source child = source.child();
+                    stack.push(new Frame(child, target.newMap(child.size()), key));
                     break;
+                }
+                case ARRAY: {
+                    Source child = source.child();
+                    stack.push(new Frame(child, target.newArray(child.size()), key));
+                    break;
+                }
             }
         }
-        return object;
     }
 
-    public static JSONArray convertArrayToJson(ReadableArray readableArray) throws JSONException {
-        JSONArray array = new JSONArray();
-        for (int i = 0; i < readableArray.size(); i++) {
-            switch (readableArray.getType(i)) {
-                case Null:
-                    break;
-                case Boolean:
-                    array.put(readableArray.getBoolean(i));
-                    break;
-                case Number:
-                    array.put(readableArray.getDouble(i));
-                    break;
-                case String:
-                    array.put(readableArray.getString(i));
-                    break;
-                case Map:
-                    array.put(convertMapToJson(readableArray.getMap(i)));
-                    break;
-                case Array:
-                    array.put(convertArrayToJson(readableArray.getArray(i)));
-                    break;
+    static void convertUnchecked(Source root, Target rootTarget) {
+        try {
+            convert(root, rootTarget);
+        } catch (JSONException e) {
+            // Only JSON targets throw.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value)
+                && Math.abs(value) <= (double) (1L << 53);
+    }
+
+    static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    // Sources
+
+    /**
+     * Base for sources backed by Java objects (org.json and java.util collections), which share the same value
+     * classification.
+     */
+    private abstract static class ObjectSource implements Source {
+        Object value;
+        private Kind kind;
+
+        abstract Object nextValue();
+
+        abstract boolean hasNext();
+
+        @Override
+        public boolean next() {
+            if (!hasNext()) {
+                return false;
+            }
+            value = nextValue();
+            kind = classify(value);
+            return true;
+        }
+
+        @Override
+        public Kind kind() {
+            return kind;
+        }
+
+        @Override
+        public boolean booleanValue() {
+            return (Boolean) value;
+        }
+
+        @Override
+        public long longValue() {
+            return ((Number) value).longValue();
+        }
+
+        @Override
+        public double doubleValue() {
+            if (value instanceof Float) {
+                // Go through the decimal representation so 0.1f doesn't become 0.10000000149011612.
+                return Double.parseDouble(value.toString());
             }
+            return ((Number) value).doubleValue();
+        }
+
+        @Override
+        public String stringValue() {
+            return value.toString();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Source child() {
+            if (value instanceof JSONObject) {
+                return new JsonObjectSource((JSONObject) value);
+            } else if (value instanceof JSONArray) {
+                return new JsonArraySource((JSONArray) value);
+            } else if (value instanceof Map) {
+                return new JavaMapSource((Map<String, Object>) value);
+            }
+            return new JavaListSource((List<Object>) value);
+        }
+
+        private static Kind classify(Object value) {
+            if (value == null || value == JSONObject.NULL) {
+                return Kind.NULL;
+            } else if (value instanceof String) {
+                return Kind.STRING;
+            } else if (value instanceof Number) {
+                if (value instanceof Double || value instanceof Float) {
+                    return Kind.DOUBLE;
+                }
+                return Kind.INTEGER;
+            } else if (value instanceof Boolean) {
+                return Kind.BOOLEAN;
+            } else if (value instanceof JSONObject || value instanceof Map) {
+                return Kind.MAP;
+            } else if (value instanceof JSONArray || value instanceof List) {
+                return Kind.ARRAY;
+            }
+            return Kind.STRING;
         }
-        return array;
     }
 
-    public static Map<String, Object> convertReadableMapToMap(ReadableMap readableMap) {
-        Map<String, Object> map = new HashMap<>();
+    private static class JsonObjectSource extends ObjectSource {
+        private final JSONObject object;
+        private final Iterator<String> keys;
+        private String key;
 
-        ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
-        while (iterator.hasNextKey()) {
-            String key = iterator.nextKey();
+        JsonObjectSource(JSONObject object) {
+            this.object = object;
+            this.keys = object.keys();
+        }
 
-            switch (readableMap.getType(key)) {
-                case Null:
-                    map.put(key, null);
-                    break;
+        @Override
+        public int size() {
+            return object.length();
+        }
+
+        @Override
+        boolean hasNext() {
+            return keys.hasNext();
+        }
+
+        @Override
+        Object nextValue() {
+            key = keys.next();
+            return object.opt(key);
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+    }
+
+    private static class JsonArraySource extends ObjectSource {
+        private final JSONArray array;
+        private int index = 0;
+
+        JsonArraySource(JSONArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public int size() {
+            return array.length();
+        }
+
+        @Override
+        boolean hasNext() {
+            return index < array.length();
+        }
+
+        @Override
+        Object nextValue() {
+            return array.opt(index++);
+        }
+
+        @Override
+        public String key() {
+            return null;
+        }
+    }
+
+    private static class JavaMapSource extends ObjectSource {
+        private final Map<String, Object> map;
+        private final Iterator<Map.Entry<String, Object>> entries;
+        private String key;
+
+        JavaMapSource(Map<String, Object> map) {
+            this.map = map;
+            this.entries = map.entrySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        Object nextValue() {
+            Map.Entry<String, Object> entry = entries.next();
+            key = entry.getKey();
+            return entry.getValue();
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+    }
+
+    private static class JavaListSource extends ObjectSource {
+        private final List<Object> list;
+        private final Iterator<Object> values;
+
+        JavaListSource(List<Object> list) {
+            this.list = list;
+            this.values = list.iterator();
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        boolean hasNext() {
+            return values.hasNext();
+        }
+
+        @Override
+        Object nextValue() {
+            return values.next();
+        }
+
+        @Override
+        public String key() {
+            return null;
+        }
+    }
+
+    /**
+     * Base for bridge sources. The value is read once, right after the type lookup.
+     */
+    private abstract static class BridgeSource implements Source {
+        Kind kind;
+        boolean booleanValue;
+        double doubleValue;
+        String stringValue;
+        ReadableMap mapValue;
+        ReadableArray arrayValue;
+
+        void readNumber(double value) {
+            doubleValue = value;
+            kind = isInteger(value) ? Kind.INTEGER : Kind.DOUBLE;
+        }
+
+        @Override
+        public Kind kind() {
+            return kind;
+        }
+
+        @Override
+        public boolean booleanValue() {
+            return booleanValue;
+        }
+
+        @Override
+        public long longValue() {
+            return (long) doubleValue;
+        }
+
+        @Override
+        public double doubleValue() {
+            return doubleValue;
+        }
+
+        @Override
+        public String stringValue() {
+            return stringValue;
+        }
+
+        @Override
+        public Source child() {
+            return kind == Kind.MAP ? new ReadableMapSource(mapValue) : new ReadableArraySource(arrayValue);
+        }
+    }
+
+    static class ReadableMapSource extends BridgeSource {
+        private final ReadableMap map;
+        private final ReadableMapKeySetIterator keys;
+        private String key;
+
+        ReadableMapSource(ReadableMap map) {
+            this.map = map;
+            this.keys = map.keySetIterator();
+        }
+
+        @Override
+        public int size() {
+            // ReadableMap does not expose its size.
+            return -1;
+        }
+
+        @Override
+        public boolean next() {
+            if (!keys.hasNextKey()) {
+                return false;
+            }
+            key = keys.nextKey();
+            switch (map.getType(key)) {
                 case Boolean:
-                    map.put(key, readableMap.getBoolean(key));
+                    kind = Kind.BOOLEAN;
+                    booleanValue = map.getBoolean(key);
                     break;
                 case Number:
-                    // Check if the number is an integer or a double
-                    double tmpValue = readableMap.getDouble(key);
-                    if (tmpValue == Math.rint(tmpValue)) {
-                        map.put(key, readableMap.getInt(key));
-                    } else {
-                        map.put(key, tmpValue);
-                    }
+                    readNumber(map.getDouble(key));
                     break;
                 case String:
-                    map.put(key, readableMap.getString(key));
+                    kind = Kind.STRING;
+                    stringValue = map.getString(key);
                     break;
                 case Map:
-                    map.put(key, convertReadableMapToMap(readableMap.getMap(key)));
+                    kind = Kind.MAP;
+                    mapValue = map.getMap(key);
                     break;
                 case Array:
-                    map.put(key, convertReadableArrayToList(readableMap.getArray(key)));
+                    kind = Kind.ARRAY;
+                    arrayValue = map.getArray(key);
+                    break;
+                default:
+                    kind = Kind.NULL;
                     break;
             }
+            return true;
         }
 
-        return map;
+        @Override
+        public String key() {
+            return key;
+        }
     }
 
-    private static List<Object> convertReadableArrayToList(ReadableArray readableArray) {
-        List<Object> list = new ArrayList<>();
+    private static class ReadableArraySource extends BridgeSource {
+        private final ReadableArray array;
+        private final int size;
+        private int index = 0;
 
-        for (int i = 0; i < readableArray.size(); i++) {
+        ReadableArraySource(ReadableArray array) {
+            this.array = array;
+            this.size = array.size();
+        }
 
-            switch (readableArray.getType(i)) {
-                case Null:
-                    list.add(null);
-                    break;
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean next() {
+            if (index >= size) {
+                return false;
+            }
+            int i = index++;
+            switch (array.getType(i)) {
                 case Boolean:
-                    list.add(readableArray.getBoolean(i));
+                    kind = Kind.BOOLEAN;
+                    booleanValue = array.getBoolean(i);
                     break;
                 case Number:
-                    // Check if the number is an integer or a double
-                    double tmpValue = readableArray.getDouble(i);
-                    if (tmpValue == Math.rint(tmpValue)) {
-                        list.add(readableArray.getInt(i));
-                    } else {
-                        list.add(tmpValue);
-                    }
+                    readNumber(array.getDouble(i));
                     break;
                 case String:
-                    list.add(readableArray.getString(i));
+                    kind = Kind.STRING;
+                    stringValue = array.getString(i);
                     break;
                 case Map:
-                    list.add(convertReadableMapToMap(readableArray.getMap(i)));
+                    kind = Kind.MAP;
+                    mapValue = array.getMap(i);
                     break;
                 case Array:
-                    list.add(convertReadableArrayToList(readableArray.getArray(i)));
+                    kind = Kind.ARRAY;
+                    arrayValue = array.getArray(i);
+                    break;
+                default:
+                    kind = Kind.NULL;
                     break;
             }
+            return true;
         }
 
-        return list;
+        @Override
+        public String key() {
+            return null;
+        }
     }
 
-    public static ReadableMap convertMapToReadableMap(Map<String, Object> map) {
-        WritableMap writableMap = Arguments.createMap();
+    // Targets
 
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
+    static class WritableTarget implements Target {
+        final WritableMap map;
+        final WritableArray array;
 
-            if (value == null) {
-                writableMap.putNull(key);
-            } else if (value instanceof String) {
-                writableMap.putString(key, (String) value);
-            } else if (value instanceof Integer) {
-                writableMap.putInt(key, (Integer) value);
-            } else if (value instanceof Double) {
-                writableMap.putDouble(key, (Double) value);
-            } else if (value instanceof Float) {
-                writableMap.putDouble(key, ((Float) value).doubleValue());
-            } else if (value instanceof Long) {
-                Long longValue = (Long) value;
-                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
-                    writableMap.putInt(key, longValue.intValue());
+        private WritableTarget(WritableMap map, WritableArray array) {
+            this.map = map;
+            this.array = array;
+        }
+
+        static WritableTarget map() {
+            return new WritableTarget(Arguments.createMap(), null);
+        }
+
+        static WritableTarget array() {
+            return new WritableTarget(null, Arguments.createArray());
+        }
+
+        @Override
+        public void putNull(String key) {
+            if (key == null) {
+                array.pushNull();
+            } else {
+                map.putNull(key);
+            }
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            if (key == null) {
+                array.pushBoolean(value);
+            } else {
+                map.putBoolean(key, value);
+            }
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            // The bridge has no long type: values outside the int range travel as doubles (JS numbers anyway).
+            if (fitsInt(value)) {
+                if (key == null) {
+                    array.pushInt((int) value);
                 } else {
-                    writableMap.putDouble(key, longValue.doubleValue());
+                    map.putInt(key, (int) value);
                 }
-            } else if (value instanceof Boolean) {
-                writableMap.putBoolean(key, (Boolean) value);
-            } else if (value instanceof Map) {
-                writableMap.putMap(key, convertMapToReadableMap((Map<String, Object>) value));
-            } else if (value instanceof List) {
-                writableMap.putArray(key, convertListToWritableArray((List<Object>) value));
             } else {
-                // Handle other types if necessary
-                throw new IllegalArgumentException("Unsupported value type for key: " + key);
+                putDouble(key, value);
             }
         }
 
-        return writableMap;
-    }
+        @Override
+        public void putDouble(String key, double value) {
+            if (key == null) {
+                array.pushDouble(value);
+            } else {
+                map.putDouble(key, value);
+            }
+        }
 
-    private static WritableArray convertListToWritableArray(List<Object> list) {
-        WritableArray writableArray = Arguments.createArray();
+        @Override
+        public void putString(String key, String value) {
+            if (key == null) {
+                array.pushString(value);
+            } else {
+                map.putString(key, value);
+            }
+        }
 
-        for (Object value : list) {
-            if (value == null) {
-                writableArray.pushNull();
-            } else if (value instanceof String) {
-                writableArray.pushString((String) value);
-            } else if (value instanceof Integer) {
-                writableArray.pushInt((Integer) value);
-            } else if (value instanceof Double) {
-                writableArray.pushDouble((Double) value);
-            } else if (value instanceof Float) {
-                writableArray.pushDouble(((Float) value).doubleValue());
-            } else if (value instanceof Long) {
-                Long longValue = (Long) value;
-                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
-                    writableArray.pushInt(longValue.intValue());
+        @Override
+        public void putChild(String key, Target child) {
+            WritableTarget writable = (WritableTarget) child;
+            if (writable.map != null) {
+                if (key == null) {
+                    array.pushMap(writable.map);
                 } else {
-                    writableArray.pushDouble(longValue.doubleValue());
+                    map.putMap(key, writable.map);
                 }
-            } else if (value instanceof Boolean) {
-                writableArray.pushBoolean((Boolean) value);
-            } else if (value instanceof Map) {
-                writableArray.pushMap(convertMapToReadableMap((Map<String, Object>) value));
-            } else if (value instanceof List) {
-                writableArray.pushArray(convertListToWritableArray((List<Object>) value));
+            } else if (key == null) {
+                array.pushArray(writable.array);
             } else {
-                // Handle other types if necessary
-                throw new IllegalArgumentException("Unsupported value type in list");
+                map.putArray(key, writable.array);
             }
         }
 
-        return writableArray;
+        @Override
+        public Target newMap(int size) {
+            return map();
+        }
+
+        @Override
+        public Target newArray(int size) {
+            return array();
+        }
     }
 
+    private static class JsonTarget implements Target {
+        final JSONObject object;
+        final JSONArray array;
+
+        private JsonTarget(JSONObject object, JSONArray array) {
+            this.object = object;
+            this.array = array;
+        }
+
+        static JsonTarget map() {
+            return new JsonTarget(new JSONObject(), null);
+        }
+
+        static JsonTarget array() {
+            return new JsonTarget(null, new JSONArray());
+        }
+
+        private void put(String key, Object value) throws JSONException {
+            if (key == null) {
+                array.put(value);
+            } else {
+                object.put(key, value);
+            }
+        }
+
+        @Override
+        public void putNull(String key) throws JSONException {
+            put(key, JSONObject.NULL);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) throws JSONException {
+            put(key, value);
+        }
+
+        @Override
+        public void putLong(String key, long value) throws JSONException {
+            if (fitsInt(value)) {
+                put(key, (int) value);
+            } else {
+                put(key, value);
+            }
+        }
+
+        @Override
+        public void putDouble(String key, double value) throws JSONException {
+            put(key, value);
+        }
+
+        @Override
+        public void putString(String key, String value) throws JSONException {
+            put(key, value);
+        }
+
+        @Override
+        public void putChild(String key, Target child) throws JSONException {
+            JsonTarget json = (JsonTarget) child;
+            put(key, json.object != null ? json.object : json.array);
+        }
+
+        @Override
+        public Target newMap(int size) {
+            return map();
+        }
+
+        @Override
+        public Target newArray(int size) {
+            return array();
+        }
+    }
+
+    private static class JavaTarget implements Target {
+        final Map<String, Object> map;
+        final List<Object> list;
+
+        private JavaTarget(Map<String, Object> map, List<Object> list) {
+            this.map = map;
+            this.list = list;
+        }
+
+        static JavaTarget map(int size) {
+            return new JavaTarget(size < 0 ? new HashMap<>() : new HashMap<>(size * 4 / 3 + 1), null);
+        }
+
+        static JavaTarget list(int size) {
+            return new JavaTarget(null, size < 0 ? new ArrayList<>() : new ArrayList<>(size));
+        }
+
+        private void put(String key, Object value) {
+            if (key == null) {
+                list.add(value);
+            } else {
+                map.put(key, value);
+            }
+        }
+
+        @Override
+        public void putNull(String key) {
+            put(key, null);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            put(key, value);
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            if (fitsInt(value)) {
+                put(key, (int) value);
+            } else {
+                put(key, value);
+            }
+        }
+
+        @Override
+        public void putDouble(String key, double value) {
+            put(key, value);
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            put(key, value);
+        }
+
+        @Override
+        public void putChild(String key, Target child) {
+            JavaTarget java = (JavaTarget) child;
+            put(key, java.map != null ? java.map : java.list);
+        }
+
+        @Override
+        public Target newMap(int size) {
+            return map(size);
+        }
+
+        @Override
+        public Target newArray(int size) {
+            return list(size);
+        }
+    }
 }
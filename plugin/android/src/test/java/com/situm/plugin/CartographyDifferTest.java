@@ -0,0 +1,111 @@
+package com.situm.plugin;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import es.situm.sdk.model.cartography.Floor;
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.model.cartography.PoiCategory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CartographyDifferTest {
+
+    @Test
+    public void firstFetchHasNothingToCompareWith() {
+        CartographyDiffer differ = new CartographyDiffer();
+
+        assertNull(differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS));
+    }
+
+    @Test
+    public void reportsAddedChangedAndRemovedEntities() {
+        CartographyDiffer differ = new CartographyDiffer();
+        differ.diff("b1", "floors", Arrays.asList(floor("kept", 1), floor("updated", 1), floor("deleted", 1)),
+                CartographyDiffer.FLOORS);
+
+        Floor updated = floor("updated", 2);
+        Floor added = floor("added", 1);
+        CartographyDiffer.Diff<Floor> diff = differ.diff("b1", "floors",
+                Arrays.asList(floor("kept", 1), updated, added), CartographyDiffer.FLOORS);
+
+        assertEquals(Collections.singletonList(added), diff.added);
+        assertEquals(Collections.singletonList(updated), diff.changed);
+        assertEquals(Collections.singletonList("deleted"), diff.removed);
+    }
+
+    @Test
+    public void unchangedFetchIsEmpty() {
+        CartographyDiffer differ = new CartographyDiffer();
+        differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS);
+
+        assertTrue(differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS)
+                .isEmpty());
+    }
+
+    @Test
+    public void entitiesWithoutUpdatedAtAreAlwaysChanged() {
+        CartographyDiffer differ = new CartographyDiffer();
+        Floor floor = floor("f1", 0);
+        when(floor.getUpdatedAt()).thenReturn(null);
+        differ.diff("b1", "floors", Collections.singletonList(floor), CartographyDiffer.FLOORS);
+
+        assertEquals(Collections.singletonList(floor),
+                differ.diff("b1", "floors", Collections.singletonList(floor), CartographyDiffer.FLOORS).changed);
+    }
+
+    @Test
+    public void poisWhoseCategoryChangedAreChanged() {
+        CartographyDiffer differ = new CartographyDiffer();
+        differ.diff("b1", "pois", Arrays.asList(poi("moved", "shops", 1), poi("edited", "food", 1)),
+                CartographyDiffer.POIS);
+
+        Poi moved = poi("moved", "food", 1);
+        Poi edited = poi("edited", "food", 2);
+        CartographyDiffer.Diff<Poi> diff = differ.diff("b1", "pois", Arrays.asList(moved, edited),
+                CartographyDiffer.POIS);
+
+        assertEquals(Arrays.asList(moved, edited), diff.changed);
+        assertTrue(differ.diff("b1", "pois", Arrays.asList(poi("moved", "food", 1), poi("edited", "food", 2)),
+                CartographyDiffer.POIS).isEmpty());
+    }
+
+    @Test
+    public void buildingsAndTypesAreComparedSeparately() {
+        CartographyDiffer differ = new CartographyDiffer();
+        differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS);
+
+        assertNull(differ.diff("b2", "floors", Collections.singletonList(floor("f2", 1)), CartographyDiffer.FLOORS));
+        assertNull(differ.diff("b1", "geofences", Collections.emptyList(), CartographyDiffer.GEOFENCES));
+        assertNotNull(differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS));
+
+        differ.clear();
+        assertNull(differ.diff("b1", "floors", Collections.singletonList(floor("f1", 1)), CartographyDiffer.FLOORS));
+    }
+
+    private static Floor floor(String identifier, long updatedAt) {
+        Floor floor = mock(Floor.class);
+        when(floor.getIdentifier()).thenReturn(identifier);
+        when(floor.getUpdatedAt()).thenReturn(new Date(updatedAt));
+        return floor;
+    }
+
+    private static Poi poi(String identifier, String categoryId, long categoryUpdatedAt) {
+        PoiCategory category = mock(PoiCategory.class);
+        when(category.getIdentifier()).thenReturn(categoryId);
+        when(category.getUpdatedAt()).thenReturn(new Date(categoryUpdatedAt));
+        Poi poi = mock(Poi.class);
+        when(poi.getIdentifier()).thenReturn(identifier);
+        when(poi.getUpdatedAt()).thenReturn(new Date(1));
+        when(poi.getCategory()).thenReturn(category);
+        return poi;
+    }
+}
@@ -0,0 +1,76 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FieldMaskTest {
+
+    @Test
+    public void emptyOrMissingArraySelectsEveryField() {
+        assertSame(FieldMask.ALL, FieldMask.fromArray(null));
+        assertSame(FieldMask.ALL, FieldMask.fromArray(new JavaOnlyArray()));
+        assertTrue(FieldMask.ALL.isAll());
+        assertTrue(FieldMask.ALL.includes("anything"));
+    }
+
+    @Test
+    public void includesOnlyListedFields() {
+        FieldMask mask = FieldMask.fromArray(JavaOnlyArray.of("coordinate", "floorIdentifier"));
+
+        assertFalse(mask.isAll());
+        assertTrue(mask.includes("coordinate"));
+        assertTrue(mask.includes("floorIdentifier"));
+        assertFalse(mask.includes("bearing"));
+    }
+
+    @Test
+    public void withAddsAFieldWithoutChangingTheMask() {
+        FieldMask mask = FieldMask.fromArray(JavaOnlyArray.of("coordinate"));
+
+        FieldMask extended = mask.with("deviceId");
+
+        assertTrue(extended.includes("deviceId"));
+        assertTrue(extended.includes("coordinate"));
+        assertFalse(mask.includes("deviceId"));
+        assertSame(FieldMask.ALL, FieldMask.ALL.with("deviceId"));
+    }
+
+    @Test
+    public void withKeepsTheFieldsNeededToRebuildALocation() {
+        FieldMask mask = FieldMask.fromArray(JavaOnlyArray.of("coordinate", "floorIdentifier", "accuracy"))
+                .with(SitumMapper.LOCATION_REQUIRED_FIELDS);
+
+        for (String field : SitumMapper.LOCATION_REQUIRED_FIELDS) {
+            assertTrue(field, mask.includes(field));
+        }
+        assertTrue(mask.includes("coordinate"));
+        assertFalse(mask.includes("cartesianCoordinate"));
+        assertSame(mask, mask.with(SitumMapper.TIMESTAMP, SitumMapper.POSITION));
+    }
+
+    @Test
+    public void applyKeepsASubsetOfTheSameEntries() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("distanceToGoal", 12.5);
+        progress.put("routeStep", new LinkedHashMap<String, Object>());
+        progress.put("currentIndication", "indication");
+
+        Map<String, Object> masked =
+                FieldMask.fromArray(JavaOnlyArray.of("distanceToGoal", "currentIndication", "missing")).apply(progress);
+
+        assertEquals(2, masked.size());
+        for (Map.Entry<String, Object> entry : masked.entrySet()) {
+            assertSame(progress.get(entry.getKey()), entry.getValue());
+        }
+        assertSame(progress, FieldMask.ALL.apply(progress));
+    }
+}
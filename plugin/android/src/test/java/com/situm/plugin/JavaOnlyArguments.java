@@ -0,0 +1,25 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+/**
+ * Backs {@link Arguments} with the pure Java bridge collections, which do not need the React Native native libraries
+ * on the JVM. Close the returned mock after the test.
+ */
+public final class JavaOnlyArguments {
+
+    private JavaOnlyArguments() {
+    }
+
+    public static MockedStatic<Arguments> mock() {
+        MockedStatic<Arguments> arguments = Mockito.mockStatic(Arguments.class);
+        arguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        arguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+        return arguments;
+    }
+}
@@ -0,0 +1,137 @@
+package com.situm.plugin;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import es.situm.sdk.model.location.Location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocationEmissionSchedulerTest {
+
+    private final List<Location> emitted = new ArrayList<>();
+    private MockedStatic<SystemClock> clock;
+    private MockedConstruction<Handler> handlers;
+    private long now = 1000;
+
+    @Before
+    public void setUp() {
+        clock = Mockito.mockStatic(SystemClock.class);
+        clock.when(SystemClock::elapsedRealtime).thenAnswer(invocation -> now);
+        handlers = Mockito.mockConstruction(Handler.class);
+    }
+
+    @After
+    public void tearDown() {
+        handlers.close();
+        clock.close();
+    }
+
+    @Test
+    public void isEnabledOnlyWithAnOption() {
+        assertFalse(LocationEmissionScheduler.isEnabled(0, 0, 0));
+        assertTrue(LocationEmissionScheduler.isEnabled(2, 0, 0));
+        assertTrue(LocationEmissionScheduler.isEnabled(0, 1, 0));
+        assertTrue(LocationEmissionScheduler.isEnabled(0, 0, 15));
+    }
+
+    @Test
+    public void dropsFixesBelowDisplacement() {
+        LocationEmissionScheduler scheduler = scheduler(0, 1, 0);
+
+        scheduler.submit(location("1", 0, 0, 0));
+        scheduler.submit(location("1", 0.5, 0, 0));
+        scheduler.submit(location("1", 1.5, 0, 0));
+
+        assertEquals(2, emitted.size());
+        assertEquals(1.5, emitted.get(1).getCartesianCoordinate().getX(), 0);
+    }
+
+    @Test
+    public void acceptsBearingChangeAndFloorChange() {
+        LocationEmissionScheduler scheduler = scheduler(0, 1, 30);
+
+        scheduler.submit(location("1", 0, 0, 350));
+        scheduler.submit(location("1", 0, 0, 10));
+        scheduler.submit(location("1", 0, 0, 50));
+        scheduler.submit(location("2", 0, 0, 50));
+
+        assertEquals(3, emitted.size());
+        assertEquals("2", emitted.get(2).getFloorIdentifier());
+    }
+
+    @Test
+    public void coalescesFixesInsideTheRateWindow() {
+        LocationEmissionScheduler scheduler = scheduler(2, 0, 0);
+
+        scheduler.submit(location("1", 0, 0, 0));
+        now += 100;
+        scheduler.submit(location("1", 1, 0, 0));
+        Location latest = location("1", 2, 0, 0);
+        scheduler.submit(latest);
+        assertEquals(1, emitted.size());
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        verify(handler()).postDelayed(flush.capture(), delay.capture());
+        assertEquals(400, (long) delay.getValue());
+
+        now += 400;
+        flush.getValue().run();
+        assertEquals(2, emitted.size());
+        assertSame(latest, emitted.get(1));
+    }
+
+    @Test
+    public void insignificantFixCancelsThePendingOne() {
+        LocationEmissionScheduler scheduler = scheduler(2, 1, 0);
+
+        scheduler.submit(location("1", 0, 0, 0));
+        now += 100;
+        scheduler.submit(location("1", 5, 0, 0));
+        scheduler.submit(location("1", 0.2, 0, 0));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(handler()).postDelayed(flush.capture(), anyLong());
+        verify(handler()).removeCallbacks(flush.getValue());
+        flush.getValue().run();
+        assertEquals(1, emitted.size());
+    }
+
+    private LocationEmissionScheduler scheduler(double maxEmitRate, double minDisplacement, double minBearingChange) {
+        return new LocationEmissionScheduler(maxEmitRate, minDisplacement, minBearingChange, emitted::add);
+    }
+
+    private Handler handler() {
+        return handlers.constructed().get(0);
+    }
+
+    private static Location location(String floor, double x, double y, double bearing) {
+        Location location = mock(Location.class, Answers.RETURNS_DEEP_STUBS);
+        when(location.isIndoor()).thenReturn(true);
+        when(location.getFloorIdentifier()).thenReturn(floor);
+        when(location.getCartesianCoordinate().getX()).thenReturn(x);
+        when(location.getCartesianCoordinate().getY()).thenReturn(y);
+        when(location.getBearing().degrees()).thenReturn(bearing);
+        return location;
+    }
+}
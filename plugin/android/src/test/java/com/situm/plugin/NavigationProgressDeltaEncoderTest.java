@@ -0,0 +1,113 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.MockedStatic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import es.situm.sdk.model.cartography.Point;
+import es.situm.sdk.model.directions.Indication;
+import es.situm.sdk.model.directions.Route;
+import es.situm.sdk.model.navigation.NavigationProgress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NavigationProgressDeltaEncoderTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void tickCarriesScalarsAndClosestPointOnly() {
+        NavigationProgressDeltaEncoder encoder = new NavigationProgressDeltaEncoder(route());
+
+        ReadableMap tick = encoder.encode(progress(3, 12.5, null, null));
+
+        assertEquals(3, tick.getInt(SitumMapper.CURRENT_STEP_INDEX));
+        assertEquals(12.5, tick.getDouble(SitumMapper.DISTANCE_TO_GOAL), 0);
+        assertTrue(tick.hasKey(SitumMapper.CLOSEST_POINT_IN_ROUTE));
+        assertFalse(tick.hasKey(SitumMapper.CURRENT_INDICATION));
+        assertFalse(tick.hasKey(SitumMapper.CURRENT_INDICATION_INDEX));
+        assertFalse(tick.hasKey("routeStep"));
+        assertFalse(tick.hasKey("segments"));
+    }
+
+    @Test
+    public void indicationIsSentOnlyWhenItChanges() {
+        Indication first = indication(0, 1, Indication.Action.GO_AHEAD);
+        Indication second = indication(1, 2, Indication.Action.CHANGE_FLOOR);
+        NavigationProgressDeltaEncoder encoder = new NavigationProgressDeltaEncoder(route(first, second));
+
+        ReadableMap tick = encoder.encode(progress(0, 10, first, second));
+        assertEquals(0, tick.getInt(SitumMapper.CURRENT_INDICATION_INDEX));
+        assertTrue(tick.hasKey(SitumMapper.CURRENT_INDICATION));
+        assertTrue(tick.hasKey(SitumMapper.NEXT_INDICATION));
+
+        tick = encoder.encode(progress(0, 9, indication(0, 1, Indication.Action.GO_AHEAD), second));
+        assertFalse(tick.hasKey(SitumMapper.CURRENT_INDICATION));
+        assertFalse(tick.hasKey(SitumMapper.NEXT_INDICATION));
+
+        tick = encoder.encode(progress(1, 5, second, null));
+        assertEquals(1, tick.getInt(SitumMapper.CURRENT_INDICATION_INDEX));
+        assertTrue(tick.hasKey(SitumMapper.CURRENT_INDICATION));
+        assertFalse(tick.hasKey(SitumMapper.NEXT_INDICATION));
+    }
+
+    @Test
+    public void indicationMissingFromRouteHasNoIndex() {
+        NavigationProgressDeltaEncoder encoder = new NavigationProgressDeltaEncoder(route());
+
+        ReadableMap tick = encoder.encode(progress(0, 10, indication(4, 5, Indication.Action.GO_AHEAD), null));
+
+        assertEquals(-1, tick.getInt(SitumMapper.CURRENT_INDICATION_INDEX));
+    }
+
+    private static Route route(Indication... indications) {
+        Route route = mock(Route.class);
+        when(route.getIndications()).thenReturn(Arrays.asList(indications));
+        return route;
+    }
+
+    private static Indication indication(int origin, int destination, Indication.Action action) {
+        Indication indication = mock(Indication.class);
+        when(indication.getStepIdxOrigin()).thenReturn(origin);
+        when(indication.getStepIdxDestination()).thenReturn(destination);
+        when(indication.getIndicationType()).thenReturn(action);
+        Map<String, Object> map = Collections.<String, Object>singletonMap("stepIdxOrigin", origin);
+        when(indication.toMap()).thenReturn(map);
+        return indication;
+    }
+
+    private static NavigationProgress progress(int step, double distanceToGoal, Indication current,
+                                               Indication next) {
+        NavigationProgress progress = mock(NavigationProgress.class, Answers.RETURNS_DEEP_STUBS);
+        when(progress.getRouteStep().getId()).thenReturn(step);
+        when(progress.getDistanceToGoal()).thenReturn(distanceToGoal);
+        Point closest = mock(Point.class, Answers.RETURNS_DEEP_STUBS);
+        when(progress.getClosestPointInRoute()).thenReturn(closest);
+        when(progress.getCurrentIndication()).thenReturn(current);
+        when(progress.getNextIndication()).thenReturn(next);
+        return progress;
+    }
+}
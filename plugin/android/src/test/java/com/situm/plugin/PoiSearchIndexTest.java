@@ -0,0 +1,122 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import es.situm.sdk.model.cartography.Poi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PoiSearchIndexTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void tokenizeDropsCaseDiacriticsAndSeparators() {
+        assertEquals(Arrays.asList("cafe", "sao", "paulo", "t2"), PoiSearchIndex.tokenize("Café São-Paulo (T2)"));
+    }
+
+    @Test
+    public void exactMatchesRankAbovePrefixMatches() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        index.replace("b1", false, Arrays.asList(poi("1", "Gatehouse", 1), poi("2", "Gate", 1)));
+
+        assertEquals(Arrays.asList("2", "1"), identifiers(index.search("gate", 10)));
+    }
+
+    @Test
+    public void similarTokensAreFoundOnlyWithoutExactOrPrefixMatches() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        index.replace("b1", false, Arrays.asList(poi("1", "Pharmacy", 1), poi("2", "Farmacia", 1)));
+
+        assertEquals(Collections.singletonList("1"), identifiers(index.search("pharmcy", 10)));
+        assertEquals(Collections.singletonList("2"), identifiers(index.search("farm", 10)));
+        assertTrue(identifiers(index.search("zzz", 10)).isEmpty());
+    }
+
+    @Test
+    public void everyQueryTokenHasToMatch() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        index.replace("b1", false, Arrays.asList(poi("1", "Coffee shop", 1), poi("2", "Gift shop", 1)));
+
+        assertEquals(Collections.singletonList("2"), identifiers(index.search("gift shop", 10)));
+    }
+
+    @Test
+    public void refreshReplacesTheBuildingPois() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        index.replace("b1", false, Arrays.asList(poi("1", "Toilets", 1), poi("2", "Toilets east", 1)));
+        index.replace("b2", false, Collections.singletonList(poi("3", "Toilets", 1)));
+
+        index.replace("b1", false, Collections.singletonList(poi("2", "Restroom east", 2)));
+
+        assertEquals(Collections.singletonList("3"), identifiers(index.search("toilets", 10)));
+        assertEquals(Collections.singletonList("2"), identifiers(index.search("restroom", 10)));
+    }
+
+    @Test
+    public void indoorRefreshKeepsTheOutdoorPois() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        Poi parking = poi("1", "Parking", 1);
+        when(parking.isOutdoor()).thenReturn(true);
+        index.replace("b1", true, Collections.singletonList(parking));
+
+        index.replace("b1", false, Collections.<Poi>emptyList());
+
+        assertEquals(Collections.singletonList("1"), identifiers(index.search("parking", 10)));
+    }
+
+    @Test
+    public void repeatedRefreshesKeepOneEntryPerPoi() {
+        PoiSearchIndex index = new PoiSearchIndex();
+        for (int version = 1; version <= 5; version++) {
+            index.replace("b1", false, Collections.singletonList(poi("1", "Lift", version)));
+        }
+
+        assertEquals(Collections.singletonList("1"), identifiers(index.search("lift", 10)));
+    }
+
+    private static Poi poi(String identifier, String name, long updatedAt) {
+        Poi poi = mock(Poi.class, Answers.RETURNS_DEEP_STUBS);
+        when(poi.getIdentifier()).thenReturn(identifier);
+        when(poi.getName()).thenReturn(name);
+        when(poi.getBuildingIdentifier()).thenReturn(identifier.equals("3") ? "b2" : "b1");
+        when(poi.getCategory()).thenReturn(null);
+        when(poi.getCustomFields()).thenReturn(null);
+        when(poi.getUpdatedAt()).thenReturn(new Date(updatedAt));
+        return poi;
+    }
+
+    private static List<String> identifiers(ReadableArray results) {
+        List<String> identifiers = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            identifiers.add(results.getMap(i).getString(SitumMapper.IDENTIFIER));
+        }
+        return identifiers;
+    }
+}
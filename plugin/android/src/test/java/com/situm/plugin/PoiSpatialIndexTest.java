@@ -0,0 +1,152 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import es.situm.sdk.model.cartography.Poi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PoiSpatialIndexTest {
+
+    private static final double LATITUDE = 40;
+    private static final double LONGITUDE = -3;
+    private static final double METERS_PER_DEGREE = 111320;
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void nearestWidensTheSearchUntilItHoldsKMatches() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        index.replace("b1", false, Arrays.asList(
+                indoor("far", 1000, 0, "shop"), indoor("near", 10, 0, "shop"), indoor("mid", 0, 100, "shop")));
+
+        ReadableArray results = index.nearest("b1", "f1", LATITUDE, LONGITUDE, 2, null);
+
+        assertEquals(Arrays.asList("near", "mid"), identifiers(results));
+        assertEquals(10, results.getMap(0).getDouble(SitumMapper.DISTANCE), 0.1);
+        assertEquals(100, results.getMap(1).getDouble(SitumMapper.DISTANCE), 0.1);
+    }
+
+    @Test
+    public void cornerMatchesDoNotHideCloserPoisOutsideTheWindow() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        // 28 m away, inside the first 25 m window but outside its radius.
+        Poi corner = indoor("corner", 20, 20, "shop");
+        // 26 m away, outside the first window.
+        Poi north = indoor("north", 26, 0, "shop");
+        index.replace("b1", false, Arrays.asList(corner, north));
+
+        assertEquals(Collections.singletonList("north"),
+                identifiers(index.nearest("b1", "f1", LATITUDE, LONGITUDE, 1, null)));
+    }
+
+    @Test
+    public void nearestStopsWideningOnceTheWindowCoversTheFloor() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        index.replace("b1", false, Arrays.asList(indoor("a", 5000, 0, "shop"), indoor("b", 0, 8000, "toilets")));
+
+        assertEquals(Collections.singletonList("a"),
+                identifiers(index.nearest("b1", "f1", LATITUDE, LONGITUDE, 10, PoiSpatialIndex.codes(
+                        Collections.<Object>singletonList("shop")))));
+    }
+
+    @Test
+    public void outdoorPoisAreFoundFromAnyOutdoorFloorIdentifier() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        Poi parking = poi("parking", "b1", "-1", 10, 0, "parking");
+        when(parking.isOutdoor()).thenReturn(true);
+        index.replace("b1", true, Collections.singletonList(parking));
+
+        assertTrue(PoiSpatialIndex.isOutdoorFloor(""));
+        for (String floor : Arrays.asList(null, "", "-1")) {
+            assertEquals(Collections.singletonList("parking"),
+                    identifiers(index.nearest("b1", floor, LATITUDE, LONGITUDE, 1, null)));
+        }
+        assertTrue(identifiers(index.nearest("b2", null, LATITUDE, LONGITUDE, 1, null)).isEmpty());
+    }
+
+    @Test
+    public void queryInBoundsOnlyReturnsPoisOfTheFloorInside() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        index.replace("b1", false, Arrays.asList(indoor("inside", 10, 10, "shop"), indoor("outside", 100, 0, "shop"),
+                poi("other floor", "b1", "f2", 10, 10, "shop")));
+
+        ReadableArray results = index.queryInBounds("f1", LATITUDE, LONGITUDE, latitude(50), longitude(50));
+
+        assertEquals(Collections.singletonList("inside"), identifiers(results));
+    }
+
+    @Test
+    public void refreshReplacesTheBuildingPois() {
+        PoiSpatialIndex index = new PoiSpatialIndex();
+        index.replace("b1", false, Arrays.asList(indoor("kept", 10, 0, "shop"), indoor("deleted", 5, 0, "shop")));
+        Poi parking = poi("parking", "b1", null, 1, 0, "parking");
+        when(parking.isOutdoor()).thenReturn(true);
+        index.replace("b1", true, Collections.singletonList(parking));
+
+        index.replace("b1", false, Collections.singletonList(indoor("kept", 10, 0, "shop")));
+
+        List<String> indoor = identifiers(index.nearest("b1", "f1", LATITUDE, LONGITUDE, 10, null));
+        assertEquals(Collections.singletonList("kept"), indoor);
+        assertFalse(identifiers(index.nearest("b1", null, LATITUDE, LONGITUDE, 10, null)).isEmpty());
+    }
+
+    private static Poi indoor(String identifier, double northMeters, double eastMeters, String category) {
+        return poi(identifier, "b1", "f1", northMeters, eastMeters, category);
+    }
+
+    private static Poi poi(String identifier, String building, String floor, double northMeters, double eastMeters,
+                           String category) {
+        Poi poi = mock(Poi.class, Answers.RETURNS_DEEP_STUBS);
+        when(poi.getIdentifier()).thenReturn(identifier);
+        when(poi.getName()).thenReturn(identifier);
+        when(poi.getBuildingIdentifier()).thenReturn(building);
+        when(poi.getFloorIdentifier()).thenReturn(floor);
+        when(poi.getCategory().getCode()).thenReturn(category);
+        when(poi.getCoordinate().getLatitude()).thenReturn(latitude(northMeters));
+        when(poi.getCoordinate().getLongitude()).thenReturn(longitude(eastMeters));
+        return poi;
+    }
+
+    private static double latitude(double northMeters) {
+        return LATITUDE + northMeters / METERS_PER_DEGREE;
+    }
+
+    private static double longitude(double eastMeters) {
+        return LONGITUDE + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(LATITUDE)));
+    }
+
+    private static List<String> identifiers(ReadableArray results) {
+        List<String> identifiers = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            identifiers.add(results.getMap(i).getString(SitumMapper.IDENTIFIER));
+        }
+        return identifiers;
+    }
+}
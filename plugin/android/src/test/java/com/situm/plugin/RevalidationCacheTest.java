@@ -0,0 +1,122 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.MockedStatic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import es.situm.sdk.model.cartography.Building;
+import es.situm.sdk.model.cartography.BuildingInfo;
+import es.situm.sdk.model.cartography.Poi;
+import es.situm.sdk.model.cartography.PoiCategory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RevalidationCacheTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void sameContentHasTheSameFingerprint() {
+        assertEquals(RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, category("c1", 1)))),
+                RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, category("c1", 1)))));
+        assertEquals(RevalidationCache.fingerprint(Collections.singletonList(building("b1", 1))),
+                RevalidationCache.fingerprint(Collections.singletonList(building("b1", 1))));
+    }
+
+    @Test
+    public void updatedEntitiesChangeTheFingerprint() {
+        long fingerprint = RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, null)));
+
+        assertNotEquals(fingerprint, RevalidationCache.fingerprint(buildingInfo(poi("p1", 2, null))));
+        assertNotEquals(fingerprint, RevalidationCache.fingerprint(buildingInfo(poi("p2", 1, null))));
+        assertNotEquals(fingerprint, RevalidationCache.fingerprint(buildingInfo()));
+        assertNotEquals(RevalidationCache.fingerprint(Collections.singletonList(building("b1", 1))),
+                RevalidationCache.fingerprint(Collections.singletonList(building("b1", 2))));
+    }
+
+    @Test
+    public void categoryChangesAloneChangeTheFingerprint() {
+        long fingerprint = RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, category("c1", 1))));
+
+        assertNotEquals(fingerprint,
+                RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, category("c1", 2)))));
+        assertNotEquals(fingerprint,
+                RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, category("c2", 1)))));
+        assertNotEquals(fingerprint, RevalidationCache.fingerprint(buildingInfo(poi("p1", 1, null))));
+    }
+
+    @Test
+    public void entriesAreHandedOutAsCopies() {
+        RevalidationCache cache = new RevalidationCache();
+        WritableMap map = Arguments.createMap();
+        map.putString("name", "Building");
+        WritableArray array = Arguments.createArray();
+        array.pushString("b1");
+        cache.putMap(RevalidationCache.buildingInfoKey("b1"), 1, map);
+        cache.putArray(RevalidationCache.BUILDINGS, 2, array);
+
+        RevalidationCache.Entry entry = cache.get(RevalidationCache.buildingInfoKey("b1"));
+        assertEquals(1, entry.fingerprint);
+        assertNotSame(map, entry.map());
+        assertEquals("Building", entry.map().getString("name"));
+        assertEquals("b1", cache.get(RevalidationCache.BUILDINGS).array().getString(0));
+
+        cache.clear();
+        assertNull(cache.get(RevalidationCache.BUILDINGS));
+    }
+
+    private static BuildingInfo buildingInfo(Poi... pois) {
+        BuildingInfo buildingInfo = mock(BuildingInfo.class, Answers.RETURNS_DEEP_STUBS);
+        Building building = building("b1", 1);
+        when(buildingInfo.getBuilding()).thenReturn(building);
+        when(buildingInfo.getIndoorPOIs()).thenReturn(Arrays.asList(pois));
+        return buildingInfo;
+    }
+
+    private static Building building(String identifier, long updatedAt) {
+        Building building = mock(Building.class);
+        when(building.getIdentifier()).thenReturn(identifier);
+        when(building.getUpdatedAt()).thenReturn(new Date(updatedAt));
+        return building;
+    }
+
+    private static Poi poi(String identifier, long updatedAt, PoiCategory category) {
+        Poi poi = mock(Poi.class);
+        when(poi.getIdentifier()).thenReturn(identifier);
+        when(poi.getUpdatedAt()).thenReturn(new Date(updatedAt));
+        when(poi.getCategory()).thenReturn(category);
+        return poi;
+    }
+
+    private static PoiCategory category(String identifier, long updatedAt) {
+        PoiCategory category = mock(PoiCategory.class);
+        when(category.getIdentifier()).thenReturn(identifier);
+        when(category.getUpdatedAt()).thenReturn(new Date(updatedAt));
+        return category;
+    }
+}
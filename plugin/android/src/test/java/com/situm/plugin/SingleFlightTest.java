@@ -0,0 +1,97 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SingleFlightTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void concurrentCallersShareOneFlight() {
+        SingleFlight singleFlight = new SingleFlight();
+        List<Object> first = new ArrayList<>();
+        List<Object> second = new ArrayList<>();
+
+        SingleFlight.Flight flight = singleFlight.join("fetch", "b1", collect(first), null);
+        assertNotNull(flight);
+        assertNull(singleFlight.join("fetch", "b1", collect(second), null));
+
+        WritableMap result = Arguments.createMap();
+        result.putString("name", "Building");
+        flight.success().invoke(result);
+
+        assertSame(result, first.get(0));
+        assertNotSame(result, second.get(0));
+        assertEquals("Building", ((ReadableMap) second.get(0)).getString("name"));
+    }
+
+    @Test
+    public void errorsReachEveryCaller() {
+        SingleFlight singleFlight = new SingleFlight();
+        List<Object> first = new ArrayList<>();
+        List<Object> second = new ArrayList<>();
+
+        SingleFlight.Flight flight = singleFlight.join("fetch", "b1", null, collect(first));
+        singleFlight.join("fetch", "b1", null, collect(second));
+        flight.error().invoke("Network error");
+
+        assertEquals("Network error", first.get(0));
+        assertEquals("Network error", second.get(0));
+    }
+
+    @Test
+    public void finishedFlightsAreNotJoined() {
+        SingleFlight singleFlight = new SingleFlight();
+
+        singleFlight.join("fetch", "b1", null, null).success().invoke("done");
+
+        assertNotNull(singleFlight.join("fetch", "b1", null, null));
+    }
+
+    @Test
+    public void flightsAreKeyedByOperationAndEntity() {
+        SingleFlight singleFlight = new SingleFlight();
+
+        assertNotNull(singleFlight.join("fetch", "b1", null, null));
+        assertNotNull(singleFlight.join("fetch", "b2", null, null));
+        assertNotNull(singleFlight.join("other", "b1", null, null));
+        assertNull(singleFlight.join("fetch", "b1", null, null));
+
+        ReadableMap stats = singleFlight.stats();
+        assertEquals(2, stats.getMap("fetch").getInt(SitumMapper.EXECUTED));
+        assertEquals(1, stats.getMap("fetch").getInt(SitumMapper.COALESCED));
+        assertEquals(1, stats.getMap("other").getInt(SitumMapper.EXECUTED));
+        assertEquals(0, stats.getMap("other").getInt(SitumMapper.COALESCED));
+    }
+
+    private static Callback collect(List<Object> results) {
+        return args -> results.add(args.length > 0 ? args[0] : null);
+    }
+}
@@ -0,0 +1,152 @@
+package com.situm.plugin;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Map;
+
+import es.situm.sdk.location.LocationStatus;
+import es.situm.sdk.model.cartography.Point;
+import es.situm.sdk.model.location.Angle;
+import es.situm.sdk.model.location.CartesianCoordinate;
+import es.situm.sdk.model.location.Coordinate;
+import es.situm.sdk.model.location.Location;
+
+import static com.situm.plugin.utils.ReactNativeUtils.convertJsonToMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SitumMapperTest {
+
+    private static final long TIME = 1700000000123L;
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void locationMapMatchesTheJsonPath() throws JSONException {
+        Location location = location();
+        JSONObject json = SitumMapper.locationToJsonObject(location);
+        ReadableMap map = SitumMapper.locationToWritableMap(location);
+
+        Map<String, Object> expected = convertJsonToMap(json).toHashMap();
+        Map<String, Object> actual = map.toHashMap();
+        expected.remove(SitumMapper.TIMESTAMP);
+        actual.remove(SitumMapper.TIMESTAMP);
+        assertSameValues(expected, actual);
+    }
+
+    @Test
+    public void locationTimestampIsANumber() throws JSONException {
+        Location location = location();
+        ReadableMap map = SitumMapper.locationToWritableMap(location);
+
+        // The JSON path held a Long, which the bridge conversion used to send as a string.
+        assertTrue(SitumMapper.locationToJsonObject(location).get(SitumMapper.TIMESTAMP) instanceof Long);
+        assertEquals(ReadableType.Number, map.getType(SitumMapper.TIMESTAMP));
+        assertEquals(TIME, (long) map.getDouble(SitumMapper.TIMESTAMP));
+    }
+
+    @Test
+    public void locationStatusMapMatchesTheJsonPath() throws JSONException {
+        for (LocationStatus status : LocationStatus.values()) {
+            assertSameValues(convertJsonToMap(SitumMapper.locationStatusToJsonObject(status)).toHashMap(),
+                    SitumMapper.locationStatusToWritableMap(status).toHashMap());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameValues(Map<String, Object> expected, Map<String, Object> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            Object value = actual.get(entry.getKey());
+            if (entry.getValue() instanceof Map) {
+                assertTrue(entry.getKey(), value instanceof Map);
+                assertSameValues((Map<String, Object>) entry.getValue(), (Map<String, Object>) value);
+            } else if (entry.getValue() instanceof Number) {
+                // Whole numbers may be read back as ints on one side and doubles on the other.
+                assertTrue(entry.getKey(), value instanceof Number);
+                assertEquals(entry.getKey(), ((Number) entry.getValue()).doubleValue(), ((Number) value).doubleValue(),
+                        0);
+            } else {
+                assertEquals(entry.getKey(), entry.getValue(), value);
+            }
+        }
+    }
+
+    private static Location location() {
+        // Built before the stubbing below, which can't create mocks while a when() is in progress.
+        CartesianCoordinate cartesianCoordinate = cartesianCoordinate(12.5, 3);
+        Coordinate coordinate = coordinate(43.35, -8.41);
+        Angle bearing = angle(90);
+        Angle cartesianBearing = angle(45);
+
+        Point position = mock(Point.class);
+        when(position.getBuildingIdentifier()).thenReturn("b1");
+        when(position.getFloorIdentifier()).thenReturn("f1");
+        when(position.getCartesianCoordinate()).thenReturn(cartesianCoordinate);
+        when(position.getCoordinate()).thenReturn(coordinate);
+        when(position.isIndoor()).thenReturn(true);
+
+        Location location = mock(Location.class);
+        when(location.getAccuracy()).thenReturn(2.5f);
+        when(location.getBearing()).thenReturn(bearing);
+        when(location.getBearingQuality()).thenReturn(Location.Quality.HIGH);
+        when(location.getBuildingIdentifier()).thenReturn("b1");
+        when(location.getCartesianBearing()).thenReturn(cartesianBearing);
+        when(location.getCartesianCoordinate()).thenReturn(cartesianCoordinate);
+        when(location.getCoordinate()).thenReturn(coordinate);
+        when(location.getFloorIdentifier()).thenReturn("f1");
+        when(location.getPosition()).thenReturn(position);
+        when(location.getProvider()).thenReturn("SITUM_PROVIDER");
+        when(location.getQuality()).thenReturn(Location.Quality.LOW);
+        when(location.hasBearing()).thenReturn(true);
+        when(location.getTime()).thenReturn(TIME);
+        when(location.hasCartesianBearing()).thenReturn(true);
+        when(location.isIndoor()).thenReturn(true);
+        when(location.getDeviceId()).thenReturn("123456");
+        return location;
+    }
+
+    private static Angle angle(double degrees) {
+        Angle angle = mock(Angle.class);
+        when(angle.degrees()).thenReturn(degrees);
+        when(angle.degreesClockwise()).thenReturn(360 - degrees);
+        when(angle.radians()).thenReturn(Math.toRadians(degrees));
+        when(angle.radiansMinusPiPi()).thenReturn(Math.toRadians(degrees));
+        return angle;
+    }
+
+    private static Coordinate coordinate(double latitude, double longitude) {
+        Coordinate coordinate = mock(Coordinate.class);
+        when(coordinate.getLatitude()).thenReturn(latitude);
+        when(coordinate.getLongitude()).thenReturn(longitude);
+        return coordinate;
+    }
+
+    private static CartesianCoordinate cartesianCoordinate(double x, double y) {
+        CartesianCoordinate cartesianCoordinate = mock(CartesianCoordinate.class);
+        when(cartesianCoordinate.getX()).thenReturn(x);
+        when(cartesianCoordinate.getY()).thenReturn(y);
+        return cartesianCoordinate;
+    }
+}
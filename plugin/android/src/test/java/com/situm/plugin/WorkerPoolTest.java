@@ -0,0 +1,184 @@
+package com.situm.plugin;
+
+import android.os.Looper;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import es.situm.sdk.error.Error;
+import es.situm.sdk.utils.Handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+public class WorkerPoolTest {
+
+    private final WorkerPool pool = new WorkerPool(4);
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+        arguments.close();
+    }
+
+    @Test
+    public void handlerCallbacksAreTimedUntilTheirWorkIsDone() throws InterruptedException {
+        Looper mainLooper = mock(Looper.class);
+        CountDownLatch done = new CountDownLatch(1);
+        try (MockedStatic<Looper> looper = mockStatic(Looper.class)) {
+            looper.when(Looper::getMainLooper).thenReturn(mainLooper);
+            looper.when(Looper::myLooper).thenReturn(mainLooper);
+            callHandler(done, 20);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        ReadableMap mainThread = pool.stats().getMap(SitumMapper.MAIN_THREAD);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mainThread.getDouble(SitumMapper.OFFLOADED_TIME) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            mainThread = pool.stats().getMap(SitumMapper.MAIN_THREAD);
+        }
+        assertEquals(1, mainThread.getInt(SitumMapper.CALLBACKS));
+        assertTrue(mainThread.getDouble(SitumMapper.OFFLOADED_TIME) >= 20);
+        assertTrue(mainThread.getDouble(SitumMapper.TIME) < mainThread.getDouble(SitumMapper.OFFLOADED_TIME));
+    }
+
+    @Test
+    public void callbacksFromOtherThreadsAreNotCountedAsMainThread() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        try (MockedStatic<Looper> looper = mockStatic(Looper.class)) {
+            looper.when(Looper::getMainLooper).thenReturn(mock(Looper.class));
+            looper.when(Looper::myLooper).thenReturn(null);
+            callHandler(done, 0);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        ReadableMap mainThread = pool.stats().getMap(SitumMapper.MAIN_THREAD);
+        assertEquals(1, mainThread.getInt(SitumMapper.CALLBACKS));
+        assertEquals(0, mainThread.getInt(SitumMapper.MAIN_THREAD_CALLBACKS));
+        assertEquals(0, mainThread.getDouble(SitumMapper.OFFLOADED_TIME), 0);
+    }
+
+    @Test
+    public void aSaturatedLaneLeavesAThreadForTheOthers() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(3);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            pool.submit(WorkerPool.IMAGES, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            });
+        }
+
+        CountDownLatch cartography = new CountDownLatch(1);
+        pool.submit(WorkerPool.CARTOGRAPHY, cartography::countDown);
+        try {
+            assertTrue(cartography.await(5, TimeUnit.SECONDS));
+            assertEquals(2, maxRunning.get());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void workersSurviveTasksThatThrowErrors() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(2);
+        try {
+            for (int i = 0; i < 4; i++) {
+                pool.submit(WorkerPool.IMAGES, () -> {
+                    throw new OutOfMemoryError("Bitmap too large");
+                });
+            }
+            CountDownLatch done = new CountDownLatch(1);
+            pool.submit(WorkerPool.IMAGES, done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void serialTasksRunInOrderOneAtATime() throws InterruptedException {
+        Executor serial = pool.serial(WorkerPool.IMAGES);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            serial.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void workSubmittedAfterShutdownStillRuns() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        pool.submit(WorkerPool.CARTOGRAPHY, first::countDown);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        pool.shutdown();
+
+        CountDownLatch second = new CountDownLatch(1);
+        pool.executor(WorkerPool.CARTOGRAPHY).execute(second::countDown);
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+
+    private void callHandler(CountDownLatch done, long workMillis) {
+        pool.handler(WorkerPool.CARTOGRAPHY, new Handler<String>() {
+            @Override
+            public void onSuccess(String result) {
+                try {
+                    Thread.sleep(workMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Error e) {
+            }
+        }).onSuccess("result");
+    }
+}
@@ -0,0 +1,100 @@
+package com.situm.plugin.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableMap;
+import com.situm.plugin.JavaOnlyArguments;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryMapFormatTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void roundTripKeepsValuesAndTypes() {
+        JavaOnlyMap floor = JavaOnlyMap.of("identifier", "10", "level", 2, "scale", 0.5);
+        JavaOnlyArray floors = JavaOnlyArray.of(floor, JavaOnlyMap.of("identifier", "11", "level", 3));
+        JavaOnlyArray mixed = new JavaOnlyArray();
+        mixed.pushString("10");
+        mixed.pushInt(1);
+        mixed.pushDouble(2.5);
+        mixed.pushBoolean(true);
+        mixed.pushNull();
+        JavaOnlyMap map = JavaOnlyMap.of(
+                "name", "Building",
+                "floors", floors,
+                "mixed", mixed,
+                "empty", new JavaOnlyMap(),
+                "updatedAt", 1700000000000.0,
+                "public", false);
+        map.putNull("userIdentifier");
+
+        WritableMap decoded = BinaryMapFormat.read(ByteBuffer.wrap(BinaryMapFormat.write(map)));
+
+        assertEquals(map, decoded);
+        assertEquals(ReadableType.Number, decoded.getType("updatedAt"));
+        assertEquals(1700000000000.0, decoded.getDouble("updatedAt"), 0);
+        ReadableArray decodedMixed = decoded.getArray("mixed");
+        assertEquals(5, decodedMixed.size());
+        assertTrue(decodedMixed.isNull(4));
+        assertEquals(2, decoded.getArray("floors").getMap(0).getInt("level"));
+        assertFalse(decoded.getMap("empty").keySetIterator().hasNextKey());
+    }
+
+    @Test
+    public void readsFromTheBufferPosition() {
+        byte[] payload = BinaryMapFormat.write(JavaOnlyMap.of("identifier", "1"));
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putLong(42).put(payload).flip();
+        buffer.getLong();
+
+        ReadableMap decoded = BinaryMapFormat.read(buffer);
+
+        assertEquals("1", decoded.getString("identifier"));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void repeatedStringsAreStoredOnce() {
+        JavaOnlyArray codes = new JavaOnlyArray();
+        for (int i = 0; i < 100; i++) {
+            codes.pushString("restaurant-category");
+        }
+
+        byte[] payload = BinaryMapFormat.write(JavaOnlyMap.of("codes", codes));
+
+        assertTrue(payload.length < 100 * "restaurant-category".length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAPayloadThatIsNotAMap() {
+        ByteBuffer buffer = ByteBuffer.allocate(9);
+        buffer.putInt(0).put(BinaryMapFormat.TAG_ARRAY).putInt(0).flip();
+
+        BinaryMapFormat.read(buffer);
+    }
+}
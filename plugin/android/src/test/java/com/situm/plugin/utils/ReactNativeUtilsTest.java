@@ -0,0 +1,113 @@
+package com.situm.plugin.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.situm.plugin.JavaOnlyArguments;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReactNativeUtilsTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = JavaOnlyArguments.mock();
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void bridgeNumbersKeepTheirIntegerType() throws JSONException {
+        JavaOnlyMap map = new JavaOnlyMap();
+        map.putDouble("level", 2);
+        map.putDouble("updatedAt", 1700000000000.0);
+        map.putDouble("scale", 0.5);
+
+        JSONObject json = ReactNativeUtils.convertMapToJson(map);
+
+        assertEquals(Integer.class, json.get("level").getClass());
+        assertEquals(Long.class, json.get("updatedAt").getClass());
+        assertEquals(Double.class, json.get("scale").getClass());
+    }
+
+    @Test
+    public void jsonNullsInArraysAreKept() throws JSONException {
+        JSONArray values = new JSONArray();
+        values.put(1);
+        values.put(JSONObject.NULL);
+        values.put("a");
+        JSONObject json = new JSONObject();
+        json.put("values", values);
+        json.put("missing", JSONObject.NULL);
+
+        ReadableMap map = ReactNativeUtils.convertJsonToMap(json);
+
+        ReadableArray array = map.getArray("values");
+        assertEquals(3, array.size());
+        assertTrue(array.isNull(1));
+        assertTrue(map.isNull("missing"));
+    }
+
+    @Test
+    public void longsOutsideTheIntRangeCrossAsNumbers() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("timestamp", 1700000000123L);
+
+        ReadableMap map = ReactNativeUtils.convertJsonToMap(json);
+
+        assertEquals(1700000000123.0, map.getDouble("timestamp"), 0);
+    }
+
+    @Test
+    public void javaMapsRoundTrip() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("x", 1.25f);
+        List<Object> list = Arrays.<Object>asList("a", null, 3);
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("nested", nested);
+        source.put("list", list);
+        source.put("flag", true);
+
+        Map<String, Object> copy = ReactNativeUtils.convertReadableMapToMap(
+                ReactNativeUtils.convertMapToReadableMap(source));
+
+        assertEquals(true, copy.get("flag"));
+        assertEquals(1.25, (Double) ((Map<?, ?>) copy.get("nested")).get("x"), 0);
+        List<?> copiedList = (List<?>) copy.get("list");
+        assertEquals("a", copiedList.get(0));
+        assertNull(copiedList.get(1));
+        assertEquals(3, copiedList.get(2));
+    }
+
+    @Test
+    public void copyArrayCopiesNestedContainers() {
+        JavaOnlyArray array = JavaOnlyArray.of(JavaOnlyMap.of("identifier", "1"));
+
+        ReadableArray copy = ReactNativeUtils.copyArray(array);
+
+        assertEquals("1", copy.getMap(0).getString("identifier"));
+        assertTrue(copy.getMap(0) != array.getMap(0));
+    }
+}
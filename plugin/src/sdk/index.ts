@@ -9,14 +9,24 @@ import type { SitumPluginInterface } from "./nativeInterface";
 import {
   type Building,
   type BuildingInfo,
+  type CartographyChanges,
+  type CartographyUpdate,
+  type CollectionChunk,
+  type CollectionError,
+  type CollectionStreamOptions,
   type ConfigurationOptions,
   type Directions,
   type DirectionsOptions,
   type Error,
   ErrorCode,
   ErrorType,
+  type FetchCoalescingStats,
   type Floor,
+  type FloorTile,
   type Geofence,
+  type ImageEncodingStats,
+  type ImageOptions,
+  type ImageResult,
   InternalCall,
   type Location,
   type LocationRequest,
@@ -24,20 +34,33 @@ import {
   type NavigationProgress,
   type NavigationRequest,
   type Poi,
+  type PoiBounds,
+  type PositionRecordBuffer,
+  type PositionRecords,
+  type PrefetchOptions,
+  type PrefetchProgress,
+  type PrefetchResult,
+  type RealTimeRequest,
   type PoiCategory,
+  type PoiCategoryAtlas,
   type PoiIcon,
+  type PoiSearchResult,
+  type PoiSpatialResult,
   type Point,
   type Route,
   type SdkVersion,
   TextToSpeechMessage,
   type UserHelperOptions,
+  type WorkerStats,
 } from "./types";
 import { InternalCallType, SdkNavigationUpdateType } from "./types/constants";
 import {
+  base64ToFloat64Array,
   exceptionWrapper,
   locationErrorAdapter,
   locationStatusAdapter,
   promiseWrapper,
+  requireAndroid,
 } from "./utils";
 import { authStore } from "./authStore";
 
@@ -67,6 +90,8 @@ const SitumPluginEventEmitter = new NativeEventEmitter(RNCSitumPlugin);
 let positioningRunning = false;
 let navigationRunning = false;
 let realtimeSubscriptions = [];
+// Numbers the native requests whose events are told apart by request identifier.
+let nativeRequests = 0;
 
 // Internal method call (MapView) delegate:
 let internalMethodCallMapDelegate = (_: InternalCall) => {
@@ -83,6 +108,7 @@ const locationCallbackForNavigation = (loc: Location) => {
 /* eslint-disable @typescript-eslint/no-empty-function */
 
 let locationCallback = (_: Location) => {};
+let locationsBatchCallback = (_: Location[]) => {};
 let locationStatusCallback = (_: LocationStatus) => {};
 let locationStoppedCallback = () => {};
 let locationErrorCallback = (_: Error) => {};
@@ -95,9 +121,43 @@ let navigationCancellationCallback = () => {};
 let navigationErrorCallback = (_: any) => {};
 let enterGeofencesCallback = (_: any) => {};
 let exitGeofencesCallback = (_: any) => {};
+let cartographyUpdatedCallback = (_: CartographyUpdate) => {};
+let cartographyChangedCallback = (_: CartographyChanges) => {};
 
 /* eslint-enable @typescript-eslint/no-empty-function */
 
+// Listens to the chunks of one collection stream, until its last chunk or its error.
+const streamCollection = <T>(
+  method: string,
+  start: (options: CollectionStreamOptions) => void,
+  onChunk: (chunk: CollectionChunk<T>) => void,
+  onError?: (error: CollectionError) => void,
+  options?: CollectionStreamOptions,
+) => {
+  requireAndroid(method);
+  const requestId = options?.requestId ?? `${method}-${++nativeRequests}`;
+  const subscriptions = [
+    SitumPluginEventEmitter.addListener(
+      "collectionChunk",
+      (chunk: CollectionChunk<T>) => {
+        if (chunk.requestId !== requestId) return;
+        if (chunk.last) subscriptions.forEach((s) => s.remove());
+        onChunk(chunk);
+      },
+    ),
+    SitumPluginEventEmitter.addListener(
+      "collectionError",
+      (error: CollectionError) => {
+        if (error.requestId !== requestId) return;
+        subscriptions.forEach((s) => s.remove());
+        (onError || logError)(error);
+      },
+    ),
+  ];
+  start({ ...options, requestId });
+  return requestId;
+};
+
 // Internal callbacks:
 // These callback functions will be added as listeners to SitumPluginEventEmitter as soon as possible and will be
 // listening events for all the plugin lifecycle. Location and geofence events will forward calls to both client
@@ -115,6 +175,19 @@ const _internalLocationCallback = (loc: Location) => {
   locationCallback(loc);
 };
 
+const _internalLocationsBatchCallback = (batch: { locations: Location[] }) => {
+  // The MapView and the navigation only need the most recent location of the batch.
+  const last = batch.locations[batch.locations.length - 1];
+  if (last) {
+    DelegatedStateManager.getInstance().updateLocation(last);
+    internalMethodCallMapDelegate(
+      new InternalCall(InternalCallType.LOCATION, last),
+    );
+    locationCallbackForNavigation(last);
+  }
+  locationsBatchCallback(batch.locations);
+};
+
 const _internalLocationStatusCallback = (status: LocationStatus) => {
   const mapViewStatusName = locationStatusAdapter(status.statusName);
   DelegatedStateManager.getInstance().updateStatus(mapViewStatusName);
@@ -160,6 +233,7 @@ const _internalExitGeofencesCallback = (data: any) => {
 const _registerCallbacks = () => {
   const callbacksMap = {
     locationChanged: _internalLocationCallback,
+    locationsBatch: _internalLocationsBatchCallback,
     statusChanged: _internalLocationStatusCallback,
     locationStopped: _internalLocationStoppedCallback,
     locationError: _internalLocationErrorCallback,
@@ -189,6 +263,12 @@ const _registerCallbacks = () => {
     },
     onEnterGeofences: _internalEnterGeofencesCallback,
     onExitGeofences: _internalExitGeofencesCallback,
+    cartographyUpdated: (update: CartographyUpdate) => {
+      cartographyUpdatedCallback(update);
+    },
+    cartographyChanged: (changes: CartographyChanges) => {
+      cartographyChangedCallback(changes);
+    },
   };
 
   Object.entries(callbacksMap).forEach(([eventName, callback]) => {
@@ -460,6 +540,51 @@ export default class SitumPlugin {
     });
   };
 
+  /**
+   * (Android only) Stores every {@link fetchBuildingInfo} result in app storage. Later calls for the same building,
+   * also after a cold start, are answered from the stored copy while it is refreshed in the background. When the
+   * refreshed content differs, it is sent to {@link onCartographyUpdated}. Disabling the option or calling
+   * {@link invalidateCache} deletes the stored copies.
+   *
+   * @param enabled whether to use building info snapshots. Disabled by default
+   */
+  static setBuildingInfoSnapshotsEnabled = (enabled: boolean) => {
+    return exceptionWrapper<void>(() => {
+      requireAndroid("setBuildingInfoSnapshotsEnabled");
+      RNCSitumPlugin.setBuildingInfoSnapshotsEnabled(enabled);
+    });
+  };
+
+  /**
+   * (Android only) Makes {@link fetchBuildings} and {@link fetchBuildingInfo} answer right away with their last result
+   * for the same request, or with the stored building info snapshot, and refresh it in the background. When the
+   * refreshed content differs, it is sent to {@link onCartographyUpdated}. Background refresh failures are not
+   * reported. Disabling the mode or calling {@link invalidateCache} drops the kept results.
+   *
+   * @param enabled whether to use the stale-while-revalidate mode. Disabled by default
+   */
+  static setStaleWhileRevalidate = (enabled: boolean) => {
+    return exceptionWrapper<void>(() => {
+      requireAndroid("setStaleWhileRevalidate");
+      RNCSitumPlugin.setStaleWhileRevalidate(enabled);
+    });
+  };
+
+  /**
+   * (Android only) Compares every building info fetch, including background refreshes and prefetches, with the
+   * previous one of the same building, and sends the differences to {@link onCartographyChanged}. Entities are
+   * compared by identifier and `updatedAt`, and POIs also by the identifier and `updatedAt` of their category.
+   * Disabling it forgets the previous fetches.
+   *
+   * @param enabled whether to send cartography changes. Disabled by default
+   */
+  static setCartographyChangeEventsEnabled = (enabled: boolean) => {
+    return exceptionWrapper<void>(() => {
+      requireAndroid("setCartographyChangeEventsEnabled");
+      RNCSitumPlugin.setCartographyChangeEventsEnabled(enabled);
+    });
+  };
+
   /**
    * (Experimental) Downloads the tiled-map of a certain building
    *
@@ -557,6 +682,490 @@ export default class SitumPlugin {
     });
   };
 
+  /**
+   * (Android only) Same as {@link fetchMapFromFloor}, but the map is stored once in the app cache and answered as a
+   * file URI, which an image component can load without passing the image through the bridge. Later requests for the
+   * same map are answered from the stored file.
+   *
+   * @param floor the {@link Floor} whose map is returned
+   * @param options see {@link ImageOptions}
+   */
+  static fetchMapFromFloorWithOptions = (
+    floor: Floor,
+    options: ImageOptions = {},
+  ) => {
+    return promiseWrapper<ImageResult>(({ onSuccess, onError }) => {
+      requireAndroid("fetchMapFromFloorWithOptions");
+      RNCSitumPlugin.fetchMapFromFloorWithOptions(
+        floor,
+        options,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Returns one tile of a floor map as a file URI. The first request cuts the map into a tile pyramid
+   * on disk, later ones are answered from it. The floors of the building must have been fetched before.
+   *
+   * @param floorId identifier of the {@link Floor}
+   * @param z zoom level, from 0 to the `maxZoom` of the answer
+   * @param x tile column at that level
+   * @param y tile row at that level
+   */
+  static fetchFloorTile = (
+    floorId: string,
+    z: number,
+    x: number,
+    y: number,
+  ) => {
+    return promiseWrapper<FloorTile>(({ onSuccess, onError }) => {
+      requireAndroid("fetchFloorTile");
+      RNCSitumPlugin.fetchFloorTile(floorId, z, x, y, onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchPoiCategoryIconNormal} and {@link fetchPoiCategoryIconSelected}, but the icon
+   * is stored once in the app cache and answered as a file URI. Later requests for the same icon are answered from
+   * the stored file.
+   *
+   * @param category the {@link PoiCategory} whose icon is returned
+   * @param options see {@link ImageOptions}
+   */
+  static fetchPoiCategoryIconWithOptions = (
+    category: PoiCategory,
+    options: ImageOptions = {},
+  ) => {
+    return promiseWrapper<ImageResult>(({ onSuccess, onError }) => {
+      requireAndroid("fetchPoiCategoryIconWithOptions");
+      RNCSitumPlugin.fetchPoiCategoryIconWithOptions(
+        category,
+        options,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchBuildingInfo}, taking the building identifier.
+   * A building missing from the ones already fetched is looked up in a fresh {@link fetchBuildings} result.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchBuildingInfoById = (buildingId: string) => {
+    return promiseWrapper<BuildingInfo>(({ onSuccess, onError }) => {
+      requireAndroid("fetchBuildingInfoById");
+      RNCSitumPlugin.fetchBuildingInfoById(buildingId, onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchTilesFromBuilding}, taking the building identifier.
+   * When the building has not been fetched yet, the building list is fetched first to find it.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchTilesFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<any>(({ onSuccess, onError }) => {
+      requireAndroid("fetchTilesFromBuildingById");
+      RNCSitumPlugin.fetchTilesFromBuildingById(buildingId, onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchFloorsFromBuilding}, taking the building identifier.
+   * When the building has not been fetched yet, the building list is fetched first to find it. The floors returned
+   * are kept, so {@link fetchMapFromFloorById} can be used with them afterwards.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchFloorsFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<Floor[]>(({ onSuccess, onError }) => {
+      requireAndroid("fetchFloorsFromBuildingById");
+      RNCSitumPlugin.fetchFloorsFromBuildingById(
+        buildingId,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchMapFromFloor}, taking the floor identifier.
+   * The floor must already be known to the plugin: fetch the floors of its building first, with
+   * {@link fetchFloorsFromBuildingById} or {@link fetchBuildingInfoById}. Otherwise the promise is rejected.
+   *
+   * @param floorId identifier of the {@link Floor}
+   */
+  static fetchMapFromFloorById = (floorId: string) => {
+    return promiseWrapper<string>(({ onSuccess, onError }) => {
+      requireAndroid("fetchMapFromFloorById");
+      RNCSitumPlugin.fetchMapFromFloorById(floorId, onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchGeofencesFromBuilding}, taking the building identifier.
+   * An unknown building identifier is resolved by fetching the building list, and rejected if it is not there.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchGeofencesFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<Geofence[]>(({ onSuccess, onError }) => {
+      requireAndroid("fetchGeofencesFromBuildingById");
+      RNCSitumPlugin.fetchGeofencesFromBuildingById(
+        buildingId,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchIndoorPOIsFromBuilding}, taking the building identifier.
+   * The indoor POIs are also added to the {@link searchPois} and spatial indexes. An unknown building is resolved by
+   * fetching the building list first.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchIndoorPOIsFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<Poi[]>(({ onSuccess, onError }) => {
+      requireAndroid("fetchIndoorPOIsFromBuildingById");
+      RNCSitumPlugin.fetchIndoorPOIsFromBuildingById(
+        buildingId,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchOutdoorPOIsFromBuilding}, taking the building identifier.
+   * The outdoor POIs are also added to the {@link searchPois} and spatial indexes. An unknown building is resolved by
+   * fetching the building list first.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchOutdoorPOIsFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<Poi[]>(({ onSuccess, onError }) => {
+      requireAndroid("fetchOutdoorPOIsFromBuildingById");
+      RNCSitumPlugin.fetchOutdoorPOIsFromBuildingById(
+        buildingId,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Downloads the events of a building, taking its identifier.
+   * When the building has not been fetched yet, the building list is fetched first to find it.
+   *
+   * @param buildingId identifier of the {@link Building}
+   */
+  static fetchEventsFromBuildingById = (buildingId: string) => {
+    return promiseWrapper<any[]>(({ onSuccess, onError }) => {
+      requireAndroid("fetchEventsFromBuildingById");
+      RNCSitumPlugin.fetchEventsFromBuildingById(
+        buildingId,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchPoiCategoryIconNormal}, taking the category code.
+   * A category code not fetched yet is resolved by fetching the POI categories first.
+   *
+   * @param categoryCode code of the {@link PoiCategory}
+   */
+  static fetchPoiCategoryIconNormalById = (categoryCode: string) => {
+    return promiseWrapper<PoiIcon>(({ onSuccess, onError }) => {
+      requireAndroid("fetchPoiCategoryIconNormalById");
+      RNCSitumPlugin.fetchPoiCategoryIconNormalById(
+        categoryCode,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Same as {@link fetchPoiCategoryIconSelected}, taking the category code.
+   * Unknown category codes are looked up in a fresh {@link fetchPoiCategories} result, and rejected if missing.
+   *
+   * @param categoryCode code of the {@link PoiCategory}
+   */
+  static fetchPoiCategoryIconSelectedById = (categoryCode: string) => {
+    return promiseWrapper<PoiIcon>(({ onSuccess, onError }) => {
+      requireAndroid("fetchPoiCategoryIconSelectedById");
+      RNCSitumPlugin.fetchPoiCategoryIconSelectedById(
+        categoryCode,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Streams the indoor {@link Poi}s of a building as a sequence of chunks, so the first ones can be rendered
+   * before the whole collection has been mapped.
+   *
+   * @param buildingId identifier of the {@link Building}
+   * @param onChunk called with every {@link CollectionChunk}, the last one has `last` set
+   * @param onError called when the stream fails. No more chunks follow
+   * @param options see {@link CollectionStreamOptions}
+   * @returns the request identifier of the stream
+   */
+  static streamIndoorPOIsFromBuilding = (
+    buildingId: string,
+    onChunk: (chunk: CollectionChunk<Poi>) => void,
+    onError?: (error: CollectionError) => void,
+    options?: CollectionStreamOptions,
+  ) => {
+    return exceptionWrapper<string>(({ onSuccess }) => {
+      onSuccess(
+        streamCollection<Poi>(
+          "streamIndoorPOIsFromBuilding",
+          (o) => RNCSitumPlugin.streamIndoorPOIsFromBuilding(buildingId, o),
+          onChunk,
+          onError,
+          options,
+        ),
+      );
+    });
+  };
+
+  /**
+   * (Android only) Streams the outdoor {@link Poi}s of a building as a sequence of chunks, so the first ones can be rendered
+   * before the whole collection has been mapped.
+   *
+   * @param buildingId identifier of the {@link Building}
+   * @param onChunk called with every {@link CollectionChunk}, the last one has `last` set
+   * @param onError called when the stream fails. No more chunks follow
+   * @param options see {@link CollectionStreamOptions}
+   * @returns the request identifier of the stream
+   */
+  static streamOutdoorPOIsFromBuilding = (
+    buildingId: string,
+    onChunk: (chunk: CollectionChunk<Poi>) => void,
+    onError?: (error: CollectionError) => void,
+    options?: CollectionStreamOptions,
+  ) => {
+    return exceptionWrapper<string>(({ onSuccess }) => {
+      onSuccess(
+        streamCollection<Poi>(
+          "streamOutdoorPOIsFromBuilding",
+          (o) => RNCSitumPlugin.streamOutdoorPOIsFromBuilding(buildingId, o),
+          onChunk,
+          onError,
+          options,
+        ),
+      );
+    });
+  };
+
+  /**
+   * (Android only) Streams the events of a building as a sequence of chunks, so the first ones can be rendered
+   * before the whole collection has been mapped.
+   *
+   * @param buildingId identifier of the {@link Building}
+   * @param onChunk called with every {@link CollectionChunk}, the last one has `last` set
+   * @param onError called when the stream fails. No more chunks follow
+   * @param options see {@link CollectionStreamOptions}
+   * @returns the request identifier of the stream
+   */
+  static streamEventsFromBuilding = (
+    buildingId: string,
+    onChunk: (chunk: CollectionChunk<any>) => void,
+    onError?: (error: CollectionError) => void,
+    options?: CollectionStreamOptions,
+  ) => {
+    return exceptionWrapper<string>(({ onSuccess }) => {
+      onSuccess(
+        streamCollection<any>(
+          "streamEventsFromBuilding",
+          (o) => RNCSitumPlugin.streamEventsFromBuilding(buildingId, o),
+          onChunk,
+          onError,
+          options,
+        ),
+      );
+    });
+  };
+
+  /**
+   * (Android only) Streams the {@link Geofence}s of a building as a sequence of chunks, so the first ones can be rendered
+   * before the whole collection has been mapped.
+   *
+   * @param buildingId identifier of the {@link Building}
+   * @param onChunk called with every {@link CollectionChunk}, the last one has `last` set
+   * @param onError called when the stream fails. No more chunks follow
+   * @param options see {@link CollectionStreamOptions}
+   * @returns the request identifier of the stream
+   */
+  static streamGeofencesFromBuilding = (
+    buildingId: string,
+    onChunk: (chunk: CollectionChunk<Geofence>) => void,
+    onError?: (error: CollectionError) => void,
+    options?: CollectionStreamOptions,
+  ) => {
+    return exceptionWrapper<string>(({ onSuccess }) => {
+      onSuccess(
+        streamCollection<Geofence>(
+          "streamGeofencesFromBuilding",
+          (o) => RNCSitumPlugin.streamGeofencesFromBuilding(buildingId, o),
+          onChunk,
+          onError,
+          options,
+        ),
+      );
+    });
+  };
+
+  /**
+   * (Android only) Fetches the building info, geofences and floor maps of several buildings, plus the POI category
+   * icons, ahead of time. Maps and icons are stored as the image files later answered by
+   * {@link fetchMapFromFloorWithOptions} and {@link fetchPoiCategoryIconWithOptions} without options.
+   *
+   * @param buildingIds identifiers of the buildings
+   * @param options see {@link PrefetchOptions}
+   * @param onProgress called after each fetch
+   * @returns the totals, once every fetch has finished. Failed fetches are counted, they do not reject
+   */
+  static prefetchBuildings = (
+    buildingIds: string[],
+    options?: PrefetchOptions,
+    onProgress?: (progress: PrefetchProgress) => void,
+  ) => {
+    return promiseWrapper<PrefetchResult>(({ onSuccess }) => {
+      requireAndroid("prefetchBuildings");
+      const requestId =
+        options?.requestId ?? `prefetchBuildings-${++nativeRequests}`;
+      const progress = onProgress
+        ? SitumPluginEventEmitter.addListener(
+            "prefetchProgress",
+            (event: PrefetchProgress) => {
+              if (event.requestId === requestId) onProgress(event);
+            },
+          )
+        : null;
+      const completed = SitumPluginEventEmitter.addListener(
+        "prefetchCompleted",
+        (result: PrefetchResult) => {
+          if (result.requestId !== requestId) return;
+          progress?.remove();
+          completed.remove();
+          onSuccess(result);
+        },
+      );
+      RNCSitumPlugin.prefetchBuildings(buildingIds, { ...options, requestId });
+    });
+  };
+
+  /**
+   * (Android only) Searches the POIs fetched so far by name, category and custom field values. Every word of the
+   * query has to match a word of the POI exactly, as a prefix or, when neither matches, with a small typo.
+   *
+   * @param query text to search
+   * @param limit maximum number of results
+   * @returns the matches, best first
+   */
+  static searchPois = (query: string, limit = 20) => {
+    return exceptionWrapper<PoiSearchResult[]>(({ onSuccess }) => {
+      requireAndroid("searchPois");
+      onSuccess(RNCSitumPlugin.searchPois(query, limit));
+    });
+  };
+
+  /**
+   * (Android only) Returns the POIs fetched so far that lie on the floor, inside the bounds.
+   *
+   * @param floorId identifier of the {@link Floor}
+   * @param bounds see {@link PoiBounds}
+   */
+  static queryPoisInBounds = (floorId: string, bounds: PoiBounds) => {
+    return promiseWrapper<PoiSpatialResult[]>(({ onSuccess, onError }) => {
+      requireAndroid("queryPoisInBounds");
+      RNCSitumPlugin.queryPoisInBounds(floorId, bounds, onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Returns the k POIs fetched so far closest to the point, closest first. Only POIs of the same floor
+   * are considered, or the outdoor POIs of the building when the point has no floor.
+   *
+   * @param point position to search from. `floorIdentifier` may be left out for outdoor positions
+   * @param k maximum number of results
+   * @param categoryFilter codes of the categories to consider. Any category when missing
+   */
+  static nearestPois = (
+    point: Pick<Point, "buildingIdentifier" | "coordinate"> &
+      Partial<Pick<Point, "floorIdentifier">>,
+    k: number,
+    categoryFilter?: string[],
+  ) => {
+    return promiseWrapper<PoiSpatialResult[]>(({ onSuccess, onError }) => {
+      requireAndroid("nearestPois");
+      RNCSitumPlugin.nearestPois(
+        point,
+        k,
+        categoryFilter || null,
+        onSuccess,
+        onError,
+      );
+    });
+  };
+
+  /**
+   * (Android only) Returns how many cartography fetches were started and how many calls joined an identical fetch
+   * already in flight instead, per operation.
+   */
+  static getFetchCoalescingStats = () => {
+    return exceptionWrapper<FetchCoalescingStats>(({ onSuccess }) => {
+      requireAndroid("getFetchCoalescingStats");
+      onSuccess(RNCSitumPlugin.getFetchCoalescingStats());
+    });
+  };
+
+  /**
+   * (Android only) Returns the counters of the Base64 encoder used for the images answered as data, to check how
+   * often its buffers are reused.
+   */
+  static getImageEncodingStats = () => {
+    return exceptionWrapper<ImageEncodingStats>(({ onSuccess }) => {
+      requireAndroid("getImageEncodingStats");
+      onSuccess(RNCSitumPlugin.getImageEncodingStats());
+    });
+  };
+
+  /**
+   * (Android only) Returns every POI category icon packed into two sprite sheets, one for the normal icons and one for
+   * the selected ones, so a map layer can draw all the category markers from a single texture. The atlas is stored on
+   * disk and only rebuilt when the categories change, or when an icon could not be fetched last time.
+   */
+  static fetchPoiCategoryAtlas = () => {
+    return promiseWrapper<PoiCategoryAtlas>(({ onSuccess, onError }) => {
+      requireAndroid("fetchPoiCategoryAtlas");
+      RNCSitumPlugin.fetchPoiCategoryAtlas(onSuccess, onError);
+    });
+  };
+
+  /**
+   * (Android only) Returns how much time the main thread still spends in the SDK callbacks handed over to the
+   * plugin's background threads, how much their work took there instead, and the work done per queue.
+   */
+  static getWorkerStats = () => {
+    return exceptionWrapper<WorkerStats>(({ onSuccess }) => {
+      requireAndroid("getWorkerStats");
+      onSuccess(RNCSitumPlugin.getWorkerStats());
+    });
+  };
+
   /**
    * Starts positioning.
    *
@@ -593,18 +1202,21 @@ export default class SitumPlugin {
    * Calculates a route between two points. The result is provided
    * asynchronously using the callback.
    *
-   * @param building {@link Building}
+   * @param building {@link Building}, or on Android the identifier of the building
    * @param from {@link Point} route origin
    * @param to {@link Point} route destination
    * @param directionOptions {@link DirectionsOptions}
    */
   static requestDirections = (
-    building: Building,
+    building: Building | string,
     from: Point | Location,
     to: Point | Poi,
     directionOptions?: DirectionsOptions,
   ) => {
     return promiseWrapper<Directions>(({ onSuccess, onError }) => {
+      if (typeof building === "string") {
+        requireAndroid("requestDirections with a building identifier");
+      }
       const params = [building, from, to, directionOptions || {}];
       RNCSitumPlugin.requestDirections(params, onSuccess, onError);
     });
@@ -662,10 +1274,57 @@ export default class SitumPlugin {
     });
   };
 
+  /**
+   * (Android only) Drains the position records written since the previous call, for the positioning or navigation
+   * started with `useRecordBuffer`.
+   *
+   * The records are read on the native module thread and arrive packed in a single string, decoded here into a
+   * Float64Array. Each call still crosses the bridge once, so drain at the rate the app needs the positions, for
+   * example once per frame or per render, rather than once per expected location.
+   */
+  static readPositionRecords = () => {
+    return promiseWrapper<PositionRecords>(({ onSuccess }) => {
+      requireAndroid("readPositionRecords");
+      RNCSitumPlugin.readPositionRecords((response) => {
+        const decode = (buffer: any): PositionRecordBuffer => ({
+          ...buffer,
+          records: base64ToFloat64Array(buffer.records),
+        });
+        onSuccess({
+          locations: response.locations && decode(response.locations),
+          navigation: response.navigation && decode(response.navigation),
+        });
+      });
+    });
+  };
+
+  /**
+   * (Android only) Restricts the top-level fields sent with an event. Fields left out are not converted for the
+   * bridge. `locationChanged` also applies to `onLocationsBatch`, and realtime deltas always keep `deviceId`.
+   *
+   * A `locationChanged` mask always keeps the fields the MapView and the navigation read back: `timestamp`,
+   * `provider`, `position`, `accuracy`, `deviceId`, `bearing`, `bearingQuality`, `isIndoor`, `cartesianBearing` and
+   * `quality`. Only the other fields can be left out.
+   *
+   * @param eventName "locationChanged", "onNavigationProgress" or "realtimeUpdated"
+   * @param fields names of the fields to keep. An empty array sends every field again
+   */
+  static setEventFieldMask = (
+    eventName: "locationChanged" | "onNavigationProgress" | "realtimeUpdated",
+    fields: string[],
+  ) => {
+    return exceptionWrapper<void>(() => {
+      requireAndroid("setEventFieldMask");
+      RNCSitumPlugin.setEventFieldMask(eventName, fields);
+    });
+  };
+
   /**
    * Requests a real time devices positions
    *
-   * @param realtimeUpdates callback to use when new device positions are updated
+   * @param realtimeUpdates callback to use when new device positions are updated. It receives a
+   * {@link RealTimeData}, a {@link ColumnarRealTimeData} when `options.payloadFormat` is "columnar", or a
+   * {@link RealTimeDelta} when `options.deltaUpdates` is set
    * @param error callback to use when an error on navigation udpates raises
    * @param options Represents the configuration for getting realtime devices positions in
    */
@@ -673,7 +1332,7 @@ export default class SitumPlugin {
   static requestRealTimeUpdates = (
     realtimeUpdates: (event: any) => void,
     error?: (event: any) => void,
-    options?: any,
+    options?: RealTimeRequest,
   ) => {
     return exceptionWrapper<void>(() => {
       RNCSitumPlugin.requestRealTimeUpdates(options || {});
@@ -888,6 +1547,31 @@ export default class SitumPlugin {
     exitGeofencesCallback = callback;
   };
 
+  /**
+   * (Android only) Callback that receives the refreshed content of requests answered early by
+   * {@link setStaleWhileRevalidate} or {@link setBuildingInfoSnapshotsEnabled}, when it differs from the answer.
+   *
+   * @param callback the function called with each {@link CartographyUpdate}
+   */
+  static onCartographyUpdated = (
+    callback: (update: CartographyUpdate) => void,
+  ) => {
+    cartographyUpdatedCallback = callback;
+  };
+
+  /**
+   * (Android only) Callback that receives the entities added, changed and removed since the previous building info
+   * fetch, while {@link setCartographyChangeEventsEnabled} is on. Nothing is sent for the first fetch of a building
+   * or when nothing changed.
+   *
+   * @param callback the function called with each {@link CartographyChanges}
+   */
+  static onCartographyChanged = (
+    callback: (changes: CartographyChanges) => void,
+  ) => {
+    cartographyChangedCallback = callback;
+  };
+
   //-----------------------------------------------------------------------------//
   //-----------------------------LOCATION CALLBACKS------------------------------//
   //-----------------------------------------------------------------------------//
@@ -910,6 +1594,16 @@ export default class SitumPlugin {
     locationStatusCallback = callback;
   };
 
+  /**
+   * (Android only) Callback that receives the locations delivered in batches, when positioning was started with
+   * `batchSize` or `batchInterval`. Batched locations are not sent to {@link onLocationUpdate}.
+   *
+   * @param callback the function called with the locations of each batch, oldest first.
+   */
+  static onLocationsBatch = (callback: (locations: Location[]) => void) => {
+    locationsBatchCallback = callback;
+  };
+
   /**
    * Callback that notifies when there is an error while the user is positioining.
    *
@@ -944,7 +1638,8 @@ export default class SitumPlugin {
   /**
    * Callback that notifies every progress the user makes while navigating.
    *
-   * @param callback a function that returns the {@link NavigationProgress} by parameters.
+   * @param callback a function that returns the {@link NavigationProgress} by parameters, or a
+   * {@link NavigationProgressDelta} when navigation was requested with `progressMode: "delta"` on Android.
    */
   static onNavigationProgress = (
     callback: (progress: NavigationProgress) => void,
@@ -10,17 +10,27 @@ import type {
   Directions,
   DirectionsOptions,
   Error,
+  FetchCoalescingStats,
   Floor,
+  FloorTile,
   Geofence,
+  ImageEncodingStats,
+  ImageOptions,
+  ImageResult,
   Location,
   LocationRequest,
   NavigationRequest,
   Poi,
+  PoiBounds,
   PoiCategory,
+  PoiCategoryAtlas,
   PoiIcon,
+  PoiSearchResult,
+  PoiSpatialResult,
   Point,
   TextToSpeechMessage,
   UserHelperOptions,
+  WorkerStats,
 } from "./types";
 
 interface CartographyAPI {
@@ -83,6 +93,105 @@ interface CartographyAPI {
   ) => void;
   onEnterGeofences: () => void;
   onExitGeofences: () => void;
+  setBuildingInfoSnapshotsEnabled: (enabled: boolean) => void;
+  setStaleWhileRevalidate: (enabled: boolean) => void;
+  setCartographyChangeEventsEnabled: (enabled: boolean) => void;
+  fetchBuildingInfoById: (
+    buildingId: string,
+    onSuccess: (response: BuildingInfo) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchTilesFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: any) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchFloorsFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: Floor[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchMapFromFloorById: (
+    floorId: string,
+    onSuccess: (response: string) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchGeofencesFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: Geofence[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchIndoorPOIsFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: Poi[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchOutdoorPOIsFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: Poi[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchEventsFromBuildingById: (
+    buildingId: string,
+    onSuccess: (response: any[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchPoiCategoryIconNormalById: (
+    categoryCode: string,
+    onSuccess: (response: PoiIcon) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchPoiCategoryIconSelectedById: (
+    categoryCode: string,
+    onSuccess: (response: PoiIcon) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  streamIndoorPOIsFromBuilding: (buildingId: string, options: any) => void;
+  streamOutdoorPOIsFromBuilding: (buildingId: string, options: any) => void;
+  streamEventsFromBuilding: (buildingId: string, options: any) => void;
+  streamGeofencesFromBuilding: (buildingId: string, options: any) => void;
+  prefetchBuildings: (buildingIds: string[], options: any) => void;
+  fetchMapFromFloorWithOptions: (
+    floor: Floor,
+    options: ImageOptions,
+    onSuccess: (response: ImageResult) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchPoiCategoryIconWithOptions: (
+    category: PoiCategory,
+    options: ImageOptions,
+    onSuccess: (response: ImageResult) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchFloorTile: (
+    floorId: string,
+    z: number,
+    x: number,
+    y: number,
+    onSuccess: (response: FloorTile) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  fetchPoiCategoryAtlas: (
+    onSuccess: (response: PoiCategoryAtlas) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  getFetchCoalescingStats: () => FetchCoalescingStats;
+  getImageEncodingStats: () => ImageEncodingStats;
+  getWorkerStats: () => WorkerStats;
+  searchPois: (query: string, limit: number) => PoiSearchResult[];
+  queryPoisInBounds: (
+    floorId: string,
+    bounds: PoiBounds,
+    onSuccess: (response: PoiSpatialResult[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
+  nearestPois: (
+    point: Partial<Point>,
+    k: number,
+    categoryFilter: string[] | null,
+    onSuccess: (response: PoiSpatialResult[]) => void,
+    onError: (error: Error) => void,
+  ) => void;
 }
 
 interface LocationAPI {
@@ -90,6 +199,8 @@ interface LocationAPI {
   stopPositioning: (callback: (response: { success: boolean }) => void) => void;
   startShareLiveLocation: (options: any) => void;
   stopShareLiveLocation: () => void;
+  readPositionRecords: (callback: (response: any) => void) => void;
+  setEventFieldMask: (eventName: string, fields: string[]) => void;
 }
 
 interface NavigationAPI {
@@ -105,6 +216,7 @@ interface DirectionsAPI {
   requestDirections: (
     directionsParameters: (
       | Building
+      | string
       | (Point | Location | Poi)
       | DirectionsOptions
     )[],
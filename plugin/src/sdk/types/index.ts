@@ -358,6 +358,27 @@ export type LocationRequest = {
   useGps?: boolean;
   /** Defines whether or not to use Wi-Fi for positioning */
   useWifi?: boolean;
+  /**
+   * (Android only) Writes every location into a native ring buffer, drained with
+   * {@link SitumPlugin.readPositionRecords}. `locationChanged` is then only emitted once per second, or at
+   * `maxEmitRate` when set, which is enough for the MapView and the navigation that follow it
+   */
+  useRecordBuffer?: boolean;
+  /** (Android only) Number of records the buffer keeps before overwriting the oldest ones. Defaults to 64 */
+  recordBufferCapacity?: number;
+  /** (Android only) Maximum rate of locationChanged events (Hz). Fixes inside the window are coalesced into the latest */
+  maxEmitRate?: number;
+  /** (Android only) Distance from the last emitted location a fix has to move to be emitted (meters) */
+  minEmitDisplacement?: number;
+  /** (Android only) Bearing change from the last emitted location that lets a fix through (degrees) */
+  minEmitBearingChange?: number;
+  /**
+   * (Android only) Number of locations delivered together through {@link SitumPlugin.onLocationsBatch} instead of
+   * one {@link SitumPlugin.onLocationUpdate} call each
+   */
+  batchSize?: number;
+  /** (Android only) Maximum time since the first location of a batch before the batch is delivered (milliseconds) */
+  batchInterval?: number;
 };
 
 /**
@@ -423,6 +444,333 @@ export type NavigationRequest = {
   /** Time to ignore the locations received during navigation, when the next indication is a floor change,
    * if the locations are on a wrong floor (not in origin or destination floors) (milliseconds) */
   timeToIgnoreUnexpectedFloorChanges?: number;
+  /**
+   * (Android only) Writes the location of every progress update into a native ring buffer, drained with
+   * {@link SitumPlugin.readPositionRecords}. `onNavigationProgress` is then only emitted once per second
+   */
+  useRecordBuffer?: boolean;
+  /** (Android only) Number of records the buffer keeps before overwriting the oldest ones. Defaults to 64 */
+  recordBufferCapacity?: number;
+  /**
+   * (Android only) "delta" sends a {@link NavigationProgressDelta} with each progress instead of a full
+   * {@link NavigationProgress}. The route geometry is then only sent with onNavigationStart
+   */
+  progressMode?: "full" | "delta";
+};
+
+/**
+ * (Android only) Navigation progress sent with {@link NavigationRequest.progressMode} "delta".
+ *
+ * Indications are only present when they change. `currentIndicationIndex` is their position in the route
+ * indications, or -1 when it cannot be resolved.
+ */
+export type NavigationProgressDelta = {
+  currentStepIndex: number;
+  distanceToGoal: number;
+  distanceToEndStep: number;
+  distanceToClosestPointInRoute: number;
+  timeToGoal: number;
+  timeToEndStep: number;
+  closestPointInRoute: Point;
+  currentIndicationIndex?: number;
+  currentIndication?: Indication;
+  nextIndication?: Indication;
+};
+
+/**
+ * The records drained from one position record buffer.
+ *
+ * Every record takes `recordSize` consecutive values: latitude, longitude, x, y, accuracy, bearing, floor index and
+ * timestamp. x and y are NaN for outdoor locations. The floor index points into `floors`, and is -1 when there is no
+ * floor.
+ */
+export type PositionRecordBuffer = {
+  /** The records, one after the other */
+  records: Float64Array;
+  /** Number of records */
+  count: number;
+  /** Number of values per record */
+  recordSize: number;
+  /** Floor identifiers referenced by the records */
+  floors: string[];
+  /** Number of records overwritten before they could be read */
+  dropped: number;
+};
+
+/**
+ * The records drained by {@link SitumPlugin.readPositionRecords}. Each buffer is only present while enabled.
+ */
+export type PositionRecords = {
+  /** Records of the positioning started with {@link LocationRequest.useRecordBuffer} */
+  locations?: PositionRecordBuffer;
+  /** Records of the navigation started with {@link NavigationRequest.useRecordBuffer} */
+  navigation?: PositionRecordBuffer;
+};
+
+/**
+ * (Android only) Options of the collection streams, such as {@link SitumPlugin.streamIndoorPOIsFromBuilding}.
+ */
+export type CollectionStreamOptions = {
+  /** Identifies the chunks of this stream. Generated when missing */
+  requestId?: string;
+  /** Maximum number of items per chunk. Defaults to 200 */
+  chunkSize?: number;
+};
+
+/**
+ * (Android only) One chunk of a collection stream. The last chunk, possibly empty, has `last` set.
+ */
+export type CollectionChunk<T> = {
+  requestId: string;
+  /** "indoorPOIs", "outdoorPOIs", "events" or "geofences" */
+  type: string;
+  /** Position of the chunk in the stream, starting at 0 */
+  chunkIndex: number;
+  items: T[];
+  last: boolean;
+};
+
+/**
+ * (Android only) Error that ends a collection stream.
+ */
+export type CollectionError = {
+  requestId: string;
+  type: string;
+  message: string;
+};
+
+/**
+ * (Android only) One result of {@link SitumPlugin.searchPois}.
+ */
+export type PoiSearchResult = {
+  identifier: string;
+  poiName: string;
+  buildingIdentifier: string;
+  floorIdentifier: string;
+  poiCategoryCode: string;
+  /** Relevance of the match, higher is better */
+  score: number;
+};
+
+/**
+ * (Android only) Geographic bounds of {@link SitumPlugin.queryPoisInBounds}.
+ */
+export type PoiBounds = {
+  northEast: Coordinate;
+  southWest: Coordinate;
+};
+
+/**
+ * (Android only) One result of {@link SitumPlugin.queryPoisInBounds} and {@link SitumPlugin.nearestPois}.
+ */
+export type PoiSpatialResult = {
+  identifier: string;
+  poiName: string;
+  buildingIdentifier: string;
+  floorIdentifier: string;
+  poiCategoryCode: string;
+  coordinate: Coordinate;
+  /** Distance in meters to the point, only in {@link SitumPlugin.nearestPois} */
+  distance?: number;
+};
+
+/**
+ * (Android only) Options of {@link SitumPlugin.prefetchBuildings}.
+ */
+export type PrefetchOptions = {
+  /** Identifies the events of this prefetch. Generated when missing */
+  requestId?: string;
+  /** Maximum number of fetches in flight. Defaults to 4 */
+  concurrency?: number;
+  /** Defaults to true */
+  includeGeofences?: boolean;
+  /** Stores the floor maps as image files. Defaults to true */
+  includeMaps?: boolean;
+  /** Stores the normal POI category icons as image files. Defaults to true */
+  includeCategoryIcons?: boolean;
+};
+
+/**
+ * (Android only) Counters shared by the prefetch events.
+ */
+export type PrefetchCounters = {
+  requestId: string;
+  completed: number;
+  failed: number;
+  total: number;
+  /** Bytes of the stored image files plus an estimate of the other mapped payloads */
+  bytes: number;
+};
+
+/**
+ * (Android only) Sent after each fetch of a prefetch. `total` grows as floors and categories become known.
+ */
+export type PrefetchProgress = PrefetchCounters & {
+  /** Missing for the POI category steps */
+  buildingIdentifier?: string;
+  /** "buildingInfo", "geofences", "floorMap", "poiCategories" or "categoryIcon" */
+  step: string;
+  /** Set when this fetch failed */
+  message?: string;
+};
+
+/**
+ * (Android only) Sent once every fetch of a prefetch has finished.
+ */
+export type PrefetchResult = PrefetchCounters & {
+  /** Milliseconds since the prefetch started */
+  elapsedTime: number;
+};
+
+/**
+ * (Android only) Fetches started and calls that joined one already in flight, per operation name.
+ */
+export type FetchCoalescingStats = Record<
+  string,
+  { executed: number; coalesced: number }
+>;
+
+/**
+ * (Android only) One sprite sheet of a {@link PoiCategoryAtlas}.
+ */
+export type PoiCategoryAtlasSheet = {
+  /** file:// URI of the PNG sheet, null when no icon could be fetched */
+  uri: string | null;
+  width: number;
+  height: number;
+  /** Position and size of each icon in the sheet, by category code */
+  rects: Record<
+    string,
+    { x: number; y: number; width: number; height: number }
+  >;
+};
+
+/**
+ * (Android only) Every POI category icon packed into two sprite sheets, see {@link SitumPlugin.fetchPoiCategoryAtlas}.
+ */
+export type PoiCategoryAtlas = {
+  normal: PoiCategoryAtlasSheet;
+  selected: PoiCategoryAtlasSheet;
+};
+
+/**
+ * (Android only) Counters of the Base64 image encoder, see {@link SitumPlugin.getImageEncodingStats}.
+ */
+export type ImageEncodingStats = {
+  /** Images encoded so far */
+  calls: number;
+  /** Buffers that could not be taken from the pool */
+  allocations: number;
+  /** Transient memory of the last encoding, including the resulting string */
+  lastPeakBytes: number;
+  maxPeakBytes: number;
+  /** Bytes kept in the buffer pool for the next encodings */
+  pooledBytes: number;
+};
+
+/**
+ * (Android only) Activity of the background threads that map and encode SDK results, see
+ * {@link SitumPlugin.getWorkerStats}. Times are in milliseconds.
+ */
+export type WorkerStats = {
+  mainThread: {
+    /** SDK callbacks handed over to the workers */
+    callbacks: number;
+    /** Those called on the main thread */
+    mainThreadCallbacks: number;
+    /** Time the main thread spent handing them over */
+    time: number;
+    maxTime: number;
+    /** Time their work then took on the workers */
+    offloadedTime: number;
+  };
+  /** Work done per queue, by name */
+  lanes: Record<
+    string,
+    { queued: number; running: number; executed: number; time: number }
+  >;
+};
+
+/**
+ * (Android only) Refreshed content of a request answered early, see {@link SitumPlugin.onCartographyUpdated}.
+ */
+export type CartographyUpdate = {
+  /** "buildings" or "buildingInfo" */
+  type: string;
+  /** Only for "buildingInfo" */
+  buildingIdentifier?: string;
+  /** A {@link Building} array or a {@link BuildingInfo}, as the request answers */
+  data: Building[] | BuildingInfo;
+};
+
+/**
+ * (Android only) Entities of one type that differ from the previous fetch of the building.
+ */
+export type EntityChanges<T> = {
+  added: T[];
+  changed: T[];
+  /** Identifiers */
+  removed: string[];
+};
+
+/**
+ * (Android only) Differences between two building info fetches, see {@link SitumPlugin.onCartographyChanged}.
+ */
+export type CartographyChanges = {
+  buildingIdentifier: string;
+  floors: EntityChanges<Floor>;
+  pois: EntityChanges<Poi>;
+  events: EntityChanges<any>;
+  geofences: EntityChanges<Geofence>;
+};
+
+/**
+ * (Android only) Options of {@link SitumPlugin.fetchMapFromFloorWithOptions} and
+ * {@link SitumPlugin.fetchPoiCategoryIconWithOptions}.
+ */
+export type ImageOptions = {
+  /** "file" (the default) stores the image in the app cache and answers with its URI, "base64" with its data */
+  output?: "file" | "base64";
+  /** Only for category icons: the selected icon instead of the normal one */
+  selected?: boolean;
+  /** Longest side in pixels. Larger images are downscaled, keeping their aspect ratio. No limit by default */
+  maxSize?: number;
+  /** "png" (the default), "webp" (lossless), "webpLossy" or "jpeg" */
+  format?: "png" | "webp" | "webpLossy" | "jpeg";
+  /** 0-100, only for the lossy formats. Defaults to 90 */
+  quality?: number;
+};
+
+/**
+ * (Android only) An image stored in the app cache, or encoded in Base64 when requested with `output: "base64"`.
+ */
+export type ImageResult = {
+  /** file:// URI of the stored image */
+  uri?: string;
+  /** Base64 image data */
+  data?: string;
+  width: number;
+  height: number;
+};
+
+/**
+ * (Android only) One tile of a floor map, see {@link SitumPlugin.fetchFloorTile}.
+ *
+ * The highest zoom level holds the map at full resolution and every level below halves it, down to level 0 where the
+ * whole map fits in one tile.
+ */
+export type FloorTile = {
+  /** file:// URI of the tile image */
+  uri: string;
+  z: number;
+  x: number;
+  y: number;
+  /** Size in pixels of the full resolution map */
+  width: number;
+  height: number;
+  maxZoom: number;
+  /** Side of a tile in pixels */
+  tileSize: number;
 };
 
 /**
@@ -490,6 +838,19 @@ export type RealTimeRequest = {
   building: Building;
   /** Interval in milliseconds (minimum is 3000ms) */
   pollTime: number;
+  /**
+   * (Android only) Format of the realtimeUpdated payload. "columnar" sends a {@link ColumnarRealTimeData}
+   * instead of a {@link RealTimeData}
+   */
+  payloadFormat?: "default" | "columnar";
+  /** (Android only) Sends a {@link RealTimeDelta} with the devices that changed instead of every device */
+  deltaUpdates?: boolean;
+  /** (Android only) Distance a device has to move to be sent again (meters). Defaults to 0.5 */
+  deltaDistanceThreshold?: number;
+  /** (Android only) Age after which a device is sent again even if it did not move (milliseconds). 0, the default, never */
+  deltaTimeThreshold?: number;
+  /** (Android only) Number of polls between full keyframes. Defaults to 10 */
+  keyframeInterval?: number;
 };
 
 /**
@@ -500,6 +861,44 @@ export type RealTimeData = {
   locations: Location[];
 };
 
+/**
+ * (Android only) Realtime data in the columnar payload format.
+ *
+ * Entry i of every array belongs to the same device. Identifiers are indexes into `strings`, or -1 when missing.
+ * x and y are NaN for outdoor locations.
+ */
+export type ColumnarRealTimeData = {
+  payloadFormat: "columnar";
+  /** Number of devices */
+  count: number;
+  /** De-duplicated device, building and floor identifiers */
+  strings: string[];
+  latitudes: number[];
+  longitudes: number[];
+  xs: number[];
+  ys: number[];
+  accuracies: number[];
+  timestamps: number[];
+  deviceIds: number[];
+  buildingIdentifiers: number[];
+  floorIdentifiers: number[];
+};
+
+/**
+ * (Android only) Realtime data sent with {@link RealTimeRequest.deltaUpdates}.
+ *
+ * A keyframe lists every device in `added` and replaces the previous state. Otherwise only the devices that appeared,
+ * moved or disappeared since the last update are listed. Polls that change nothing are not sent.
+ */
+export type RealTimeDelta = {
+  keyframe: boolean;
+  /** Locations, or a {@link ColumnarRealTimeData} when the payload format is "columnar" */
+  added: Location[] | ColumnarRealTimeData;
+  moved: Location[] | ColumnarRealTimeData;
+  /** Device identifiers */
+  removed: string[];
+};
+
 /**
  * Represents the version information of the SDK and its compatibility with different platforms.
  * @deprecated This type will be removed in future versions.
@@ -1,3 +1,5 @@
+import { Platform } from "react-native";
+
 import { LocationStatusName, logError } from "..";
 import type { Error } from "./types";
 import { ErrorCode, ErrorType } from "./types";
@@ -134,6 +136,51 @@ export const promiseWrapper = <T>(
   });
 };
 
+/**
+ * Throws when the method is not implemented on the current platform. Inside {@link promiseWrapper} the error becomes
+ * a rejection.
+ *
+ * @param method name of the method, used in the error message
+ */
+export const requireAndroid = (method: string) => {
+  if (Platform.OS !== "android") {
+    throw new Error(`${method} is only available on Android.`);
+  }
+};
+
+const BASE64_ALPHABET =
+  "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+/**
+ * Decodes a Base64 string of little-endian doubles, as packed by the native side, into a Float64Array.
+ *
+ * @param data Base64 without line breaks
+ */
+export function base64ToFloat64Array(data: string): Float64Array {
+  const padding = data.endsWith("==") ? 2 : data.endsWith("=") ? 1 : 0;
+  const bytes = new Uint8Array((data.length / 4) * 3 - padding);
+  let byteIndex = 0;
+  for (let i = 0; i < data.length; i += 4) {
+    const a = BASE64_ALPHABET.indexOf(data.charAt(i));
+    const b = BASE64_ALPHABET.indexOf(data.charAt(i + 1));
+    const c = BASE64_ALPHABET.indexOf(data.charAt(i + 2));
+    const d = BASE64_ALPHABET.indexOf(data.charAt(i + 3));
+    bytes[byteIndex++] = (a << 2) | (b >> 4);
+    if (c >= 0 && byteIndex < bytes.length) {
+      bytes[byteIndex++] = ((b & 15) << 4) | (c >> 2);
+    }
+    if (d >= 0 && byteIndex < bytes.length) {
+      bytes[byteIndex++] = ((c & 3) << 6) | d;
+    }
+  }
+  const view = new DataView(bytes.buffer);
+  const values = new Float64Array(bytes.length / 8);
+  for (let i = 0; i < values.length; i++) {
+    values[i] = view.getFloat64(i * 8, true);
+  }
+  return values;
+}
+
 export function locationStatusAdapter(statusName: any): string {
   // The MapView will only understand status names declared at LocationStatusName and CALCULATING
   // is not one of them.